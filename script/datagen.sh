@@ -43,10 +43,8 @@ cp -rf $ORIGINAL_DATASET ${DATASET}
 DATASET_LCC="${DEST_DIR}/${DATASET_NAME}_lcc.data"
 $COMMAND datagen_lcc --dataset $DATASET --output $DATASET_LCC
 
-for MINING in "${MININGS[@]}"; do
-    for TEST_RATIO in "${TEST_RATIOS[@]}"; do
-        TRAINSET="${DEST_DIR}/${DATASET_NAME}_lcc_train_${MINING}_${TEST_RATIO}.data"
-        TESTSET="${DEST_DIR}/${DATASET_NAME}_lcc_test_${MINING}_${TEST_RATIO}.data"
-        $COMMAND traintest --mining $MINING --dataset $DATASET_LCC --trainset $TRAINSET --testset $TESTSET --testRatio $TEST_RATIO
-    done
-done
+TRAINSET="${DEST_DIR}/${DATASET_NAME}_lcc_train_{mining}_{ratio}.data"
+TESTSET="${DEST_DIR}/${DATASET_NAME}_lcc_test_{mining}_{ratio}.data"
+MININGS_LIST=$(IFS=','; echo "${MININGS[*]}")
+RATIOS_LIST=$(IFS=','; echo "${TEST_RATIOS[*]}")
+$COMMAND traintest --mining $MININGS_LIST --dataset $DATASET_LCC --trainset $TRAINSET --testset $TESTSET --testRatio $RATIOS_LIST
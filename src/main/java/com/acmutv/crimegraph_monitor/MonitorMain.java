@@ -27,19 +27,28 @@
 package com.acmutv.crimegraph_monitor;
 
 import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.datagen.ArrivalProcess;
+import com.acmutv.crimegraph_monitor.core.datagen.EventConfiguration;
+import com.acmutv.crimegraph_monitor.core.datagen.SplitMode;
+import com.acmutv.crimegraph_monitor.core.datagen.WeightDistribution;
 import com.acmutv.crimegraph_monitor.core.db.DbConfiguration;
 import com.acmutv.crimegraph_monitor.core.evaluation.EvaluationType;
-import com.acmutv.crimegraph_monitor.core.graph.CustomWeightedEdge;
+import com.acmutv.crimegraph_monitor.core.graph.CsrGraph;
 import com.acmutv.crimegraph_monitor.core.graph.GraphController;
+import com.acmutv.crimegraph_monitor.core.kafka.KeyStrategy;
+import com.acmutv.crimegraph_monitor.core.kafka.LinkFormat;
+import com.acmutv.crimegraph_monitor.core.kafka.ProducerConfiguration;
+import com.acmutv.crimegraph_monitor.core.kafka.RateProfile;
 import com.acmutv.crimegraph_monitor.core.metric.MetricType;
-import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkEvents;
 import com.acmutv.crimegraph_monitor.core.mining.MiningType;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
 import com.acmutv.crimegraph_monitor.ui.CliService;
 import com.acmutv.crimegraph_monitor.ui.Command;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jgrapht.UndirectedGraph;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -54,6 +63,7 @@ import java.util.List;
 import java.util.Properties;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.acmutv.crimegraph_monitor.ui.Command.*;
 
@@ -77,6 +87,10 @@ public class MonitorMain {
 
     Properties props = CliService.handleArguments(args);
 
+    if (props.containsKey("seed")) {
+      RandomManager.setSeed(Long.valueOf(props.getProperty("seed")));
+    }
+
     Command command;
     try {
       command = Command.fromString(props.getProperty("_command"));
@@ -90,9 +104,7 @@ public class MonitorMain {
       LOGGER.info("Analyzing dataset {}", dataset);
       Properties analysis = null;
       try {
-        List<Link> links = CoreController.readLinks(dataset);
-        UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(links);
-        analysis = GraphController.analyzeGraph(graph);
+        analysis = GraphController.analyzeDataset(dataset);
       } catch (IOException exc) {
         LOGGER.error(exc.getMessage());
         System.exit(1);
@@ -104,69 +116,254 @@ public class MonitorMain {
     } else if (DATAGEN_RND.equals(command)) {
       final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
       final int numNodes = Integer.valueOf(props.getProperty("numNodes"));
-      final int numLinks = Integer.valueOf(props.getProperty("numLinks"));
       final double minWeight = Double.valueOf(props.getProperty("minWeight"));
       final double maxWeight = Double.valueOf(props.getProperty("maxWeight"));
-      LOGGER.info("Generating random dataset {} with numNodes {}, numLinks {}, minWeight {}, maxWeight {}",
-          output, numNodes, numLinks, minWeight, maxWeight);
+      long generated = 0;
       try {
-        List<Link> data = CoreController.randomSimple(numNodes, numLinks, minWeight, maxWeight);
-        CoreController.writeDataset(output, data);
+        if (props.containsKey("linkProbability")) {
+          final double linkProbability = Double.valueOf(props.getProperty("linkProbability"));
+          LOGGER.info("Generating random dataset {} with numNodes {}, linkProbability {}, minWeight {}, maxWeight {}",
+              output, numNodes, linkProbability, minWeight, maxWeight);
+          generated = CoreController.randomGnp(output, numNodes, linkProbability, minWeight, maxWeight);
+        } else {
+          final long numLinks = Long.valueOf(props.getProperty("numLinks"));
+          LOGGER.info("Generating random dataset {} with numNodes {}, numLinks {}, minWeight {}, maxWeight {}",
+              output, numNodes, numLinks, minWeight, maxWeight);
+          generated = CoreController.randomGnm(output, numNodes, numLinks, minWeight, maxWeight);
+        }
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated random dataset {} ({} links)", output, generated);
+    } else if (DATAGEN_BA.equals(command)) {
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      final int numNodes = Integer.valueOf(props.getProperty("numNodes"));
+      final int attachment = Integer.valueOf(props.getProperty("attachment"));
+      final WeightDistribution distribution = WeightDistribution.fromString(
+          props.getProperty("weightDistribution", WeightDistribution.UNIFORM.getName()));
+      final double minWeight = Double.valueOf(props.getProperty("minWeight"));
+      final double maxWeight = Double.valueOf(props.getProperty("maxWeight"));
+      LOGGER.info("Generating Barabasi-Albert dataset {} with numNodes {}, attachment {}, weightDistribution {}, minWeight {}, maxWeight {}",
+          output, numNodes, attachment, distribution, minWeight, maxWeight);
+      long generated = 0;
+      try {
+        generated = CoreController.randomBarabasiAlbert(output, numNodes, attachment, distribution, minWeight, maxWeight);
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated Barabasi-Albert dataset {} ({} links)", output, generated);
+    } else if (DATAGEN_RMAT.equals(command)) {
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      final int scale = Integer.valueOf(props.getProperty("scale"));
+      final long numLinks = Long.valueOf(props.getProperty("numLinks"));
+      final String[] rmat = props.getProperty("rmat", "0.57,0.19,0.19").split(",");
+      final WeightDistribution distribution = WeightDistribution.fromString(
+          props.getProperty("weightDistribution", WeightDistribution.UNIFORM.getName()));
+      final double minWeight = Double.valueOf(props.getProperty("minWeight"));
+      final double maxWeight = Double.valueOf(props.getProperty("maxWeight"));
+      final boolean dedup = Boolean.valueOf(props.getProperty("dedup", "false"));
+      if (rmat.length != 3) {
+        LOGGER.error("R-MAT probabilities must be a,b,c: {}", props.getProperty("rmat"));
+        System.exit(1);
+      }
+      final double a = Double.valueOf(rmat[0]);
+      final double b = Double.valueOf(rmat[1]);
+      final double c = Double.valueOf(rmat[2]);
+      LOGGER.info("Generating R-MAT dataset {} with scale {}, numLinks {}, rmat ({},{},{}), weightDistribution {}, minWeight {}, maxWeight {}, dedup {}",
+          output, scale, numLinks, a, b, c, distribution, minWeight, maxWeight, dedup);
+      long generated = 0;
+      try {
+        generated = CoreController.randomRmat(output, scale, numLinks, a, b, c, distribution, minWeight, maxWeight, dedup);
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated R-MAT dataset {} ({} links)", output, generated);
+    } else if (DATAGEN_SBM.equals(command)) {
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      final Path communities = Paths.get(props.getProperty("communities",
+          FilenameUtils.removeExtension(output.toString()) + ".communities")).toAbsolutePath();
+      final int[] blockSizes = Stream.of(props.getProperty("blocks").split(","))
+          .map(String::trim).mapToInt(Integer::valueOf).toArray();
+      final String[] probabilities = props.getProperty("linkProbability").split(",");
+      final String[] distributions = props.getProperty("weightDistribution", WeightDistribution.UNIFORM.getName()).split(",");
+      final double intraProbability = Double.valueOf(probabilities[0]);
+      final double interProbability = Double.valueOf(probabilities[probabilities.length - 1]);
+      final WeightDistribution intraDistribution = WeightDistribution.fromString(distributions[0]);
+      final WeightDistribution interDistribution = WeightDistribution.fromString(distributions[distributions.length - 1]);
+      final double minWeight = Double.valueOf(props.getProperty("minWeight"));
+      final double maxWeight = Double.valueOf(props.getProperty("maxWeight"));
+      LOGGER.info("Generating stochastic block model dataset {} with communities {}, blocks {}, linkProbability ({},{}), weightDistribution ({},{}), minWeight {}, maxWeight {}",
+          output, communities, blockSizes.length, intraProbability, interProbability, intraDistribution, interDistribution, minWeight, maxWeight);
+      long generated = 0;
+      try {
+        generated = CoreController.randomStochasticBlock(output, communities, blockSizes, intraProbability, interProbability,
+            intraDistribution, interDistribution, minWeight, maxWeight);
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated stochastic block model dataset {} ({} links) with communities {}", output, generated, communities);
+    } else if (DATAGEN_UPSCALE.equals(command)) {
+      final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      final int factor = Integer.valueOf(props.getProperty("factor"));
+      LOGGER.info("Generating dataset {} upscaled from dataset {} with factor {}", output, dataset, factor);
+      long generated = 0;
+      try {
+        generated = CoreController.upscale(dataset, output, factor);
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated upscaled dataset {} ({} links)", output, generated);
+    } else if (DATAGEN_EVENTS.equals(command)) {
+      final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      final EventConfiguration conf = new EventConfiguration();
+      conf.setProcess(ArrivalProcess.fromString(props.getProperty("process", conf.getProcess().getName())));
+      conf.setRate(Double.valueOf(props.getProperty("rate", String.valueOf(conf.getRate()))));
+      conf.setNumEvents(Long.valueOf(props.getProperty("numEvents", String.valueOf(conf.getNumEvents()))));
+      conf.setRepeatProbability(Double.valueOf(props.getProperty("repeat", String.valueOf(conf.getRepeatProbability()))));
+      conf.setDrift(Double.valueOf(props.getProperty("drift", String.valueOf(conf.getDrift()))));
+      final Properties params = new Properties();
+      try {
+        params.load(new StringReader(props.getProperty("params", "").replace(',','\n')));
       } catch (IOException exc) {
+        LOGGER.warn("Cannot parse params: {}", exc.getMessage());
+      }
+      conf.setParams(params);
+      if (conf.getProcess() == null) {
+        LOGGER.error("Unknown arrival process: {}", props.getProperty("process"));
+        System.exit(1);
+      }
+      LOGGER.info("Generating events {} from dataset {} with {}", output, dataset, conf);
+      long generated = 0;
+      try {
+        generated = CoreController.events(dataset, output, conf);
+      } catch (IOException | IllegalArgumentException exc) {
         LOGGER.error(exc.getMessage());
         System.exit(1);
       }
-      LOGGER.info("Generated random dataset {}", output);
+      LOGGER.info("Generated events {} ({} events)", output, generated);
     } else if (DATAGEN_LCC.equals(command)) {
       final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
       final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
       LOGGER.info("Generating dataset of largest connected component from dataset {} to output {}",
           dataset, output);
       try {
-        List<Link> links = CoreController.readLinks(dataset);
-        UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(links);
-        List<Link> data = GraphController.datagenLargestConnectedComponent(graph);
+        CsrGraph graph = CsrGraph.of(dataset);
+        LinkBuffer data = GraphController.datagenLargestConnectedComponent(graph);
         CoreController.writeDataset(output, data);
       } catch (IOException exc) {
         LOGGER.error(exc.getMessage());
         System.exit(1);
       }
       LOGGER.info("Generated dataset of largest connected component {}", output);
-    }else if (TRAINTEST.equals(command)) {
-      final MiningType mining = MiningType.fromString(props.getProperty("mining"));
+    } else if (CONVERT.equals(command)) {
       final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
-      final Path trainset = Paths.get(props.getProperty("trainset")).toAbsolutePath();
-      final Path testset = Paths.get(props.getProperty("testset")).toAbsolutePath();
-      final Double testRatio = Double.valueOf(props.getProperty("testRatio"));
-      LOGGER.info("Generating training/test sets for {} from dataset {} with testRatio {}",
-          mining, dataset, testRatio);
+      final Path output = Paths.get(props.getProperty("output")).toAbsolutePath();
+      LOGGER.info("Converting dataset {} to {}", dataset, output);
+      long converted = 0;
       try {
-        CoreController.traintest(mining, dataset, trainset, testset, testRatio);
+        converted = CoreController.convert(dataset, output);
       } catch (IOException exc) {
         LOGGER.error(exc.getMessage());
         System.exit(1);
       }
-      LOGGER.info("Generated trainset {} for {} from {} with testRatio {}",
-          trainset, mining, dataset, testRatio);
-      LOGGER.info("Generated testset {} for {} from {} with testRatio {}",
-          testset, mining, dataset, testRatio);
+      LOGGER.info("Converted dataset {} to {} ({} links)", dataset, output, converted);
+    } else if (TRAINTEST.equals(command)) {
+      List<MiningType> minings = null;
+      try {
+        minings = MiningType.fromList(props.getProperty("mining"));
+      } catch (IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
+      final String trainset = props.getProperty("trainset");
+      final String testset = props.getProperty("testset");
+      final List<String> testRatios = Stream.of(props.getProperty("testRatio").split(","))
+          .map(String::trim).collect(Collectors.toList());
+      final SplitMode split = SplitMode.fromString(props.getProperty("split", SplitMode.FAST.getName()));
+      LOGGER.info("Generating training/test sets for {} from dataset {} with testRatio {} (split {})",
+          minings, dataset, testRatios, split);
+      try {
+        CoreController.traintest(minings, dataset, trainset, testset, testRatios, split);
+      } catch (IOException | IllegalArgumentException exc) {
+        LOGGER.error(exc.getMessage());
+        System.exit(1);
+      }
+      LOGGER.info("Generated trainsets {} for {} from {} with testRatio {}",
+          trainset, minings, dataset, testRatios);
+      LOGGER.info("Generated testsets {} for {} from {} with testRatio {}",
+          testset, minings, dataset, testRatios);
     } else if (CHECK.equals(command)) {
       final String kafkaBroker = props.getProperty("kafkaBroker");
       final String kafkaTopic = props.getProperty("kafkaTopic");
-      LOGGER.info("Checking Kafka with broker {} and topic {}", kafkaBroker, kafkaTopic);
-      boolean check = CoreController.checkKafka(kafkaBroker, kafkaTopic);
+      final LinkFormat format = LinkFormat.fromString(props.getProperty("kafkaFormat", LinkFormat.STRING.getName()));
+      if (format == null) {
+        LOGGER.error("Unknown link format: {}", props.getProperty("kafkaFormat"));
+        System.exit(1);
+      }
+      LOGGER.info("Checking Kafka with broker {}, topic {} and format {}", kafkaBroker, kafkaTopic, format);
+      boolean check = CoreController.checkKafka(kafkaBroker, kafkaTopic, format);
       LOGGER.info("Kafka check: {}", check);
     } else if (PUBLISH.equals(command)) {
       final String kafkaBroker = props.getProperty("kafkaBroker");
       final String kafkaTopic = props.getProperty("kafkaTopic");
       final Path dataset = Paths.get(props.getProperty("dataset")).toAbsolutePath();
-      LOGGER.info("Publishing to Kafka broker {} with topic {}, with dataset {}", kafkaBroker, kafkaTopic, dataset);
-      try {
-        CoreController.publish(kafkaBroker, kafkaTopic, dataset);
-      } catch (IOException exc) {
-        LOGGER.error(exc.getMessage());
+      final ProducerConfiguration producerConf = new ProducerConfiguration();
+      producerConf.setBatchSize(Integer.valueOf(props.getProperty("kafkaBatchSize", String.valueOf(producerConf.getBatchSize()))));
+      producerConf.setLingerMs(Long.valueOf(props.getProperty("kafkaLinger", String.valueOf(producerConf.getLingerMs()))));
+      producerConf.setCompressionType(props.getProperty("kafkaCompression", producerConf.getCompressionType()));
+      producerConf.setAcks(props.getProperty("kafkaAcks", producerConf.getAcks()));
+      producerConf.setMaxInFlight(Integer.valueOf(props.getProperty("kafkaInFlight", String.valueOf(producerConf.getMaxInFlight()))));
+      producerConf.setFormat(LinkFormat.fromString(props.getProperty("kafkaFormat", producerConf.getFormat().getName())));
+      if (producerConf.getFormat() == null) {
+        LOGGER.error("Unknown link format: {}", props.getProperty("kafkaFormat"));
         System.exit(1);
       }
+      if (LinkEvents.EXTENSION.equalsIgnoreCase(FilenameUtils.getExtension(dataset.toString()))) {
+        final double speedup = Double.valueOf(props.getProperty("speedup", "1.0"));
+        LOGGER.info("Replaying to Kafka broker {} with topic {}, with events {}, speedup {} and producer {}",
+            kafkaBroker, kafkaTopic, dataset, speedup, producerConf);
+        try {
+          CoreController.replay(kafkaBroker, kafkaTopic, dataset, speedup, producerConf);
+        } catch (IOException | IllegalArgumentException exc) {
+          LOGGER.error(exc.getMessage());
+          System.exit(1);
+        }
+      } else {
+        RateProfile profile = null;
+        try {
+          if (props.containsKey("profile")) {
+            profile = RateProfile.of(Paths.get(props.getProperty("profile")).toAbsolutePath());
+          } else if (props.containsKey("rate")) {
+            profile = RateProfile.constant(Double.valueOf(props.getProperty("rate")));
+            profile.validate();
+          }
+        } catch (IOException | IllegalArgumentException exc) {
+          LOGGER.error(exc.getMessage());
+          System.exit(1);
+        }
+        final KeyStrategy keys = KeyStrategy.fromString(props.getProperty("kafkaKey", KeyStrategy.LINK.getName()));
+        if (keys == null) {
+          LOGGER.error("Unknown key strategy: {}", props.getProperty("kafkaKey"));
+          System.exit(1);
+        }
+        final int threads = Integer.valueOf(props.getProperty("threads", "1"));
+        LOGGER.info("Publishing to Kafka broker {} with topic {}, with dataset {}, profile {}, producer {}, key {} and {} threads",
+            kafkaBroker, kafkaTopic, dataset, profile, producerConf, keys, threads);
+        try {
+          CoreController.publish(kafkaBroker, kafkaTopic, dataset, profile, producerConf, keys, threads);
+        } catch (IOException exc) {
+          LOGGER.error(exc.getMessage());
+          System.exit(1);
+        }
+      }
     } else if (SAVE.equals(command)) {
       final DbConfiguration dbconfig = new DbConfiguration(
           props.getProperty("neo4jHostname"),
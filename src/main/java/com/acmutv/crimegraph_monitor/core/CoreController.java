@@ -26,30 +26,56 @@
 
 package com.acmutv.crimegraph_monitor.core;
 
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenBarabasiAlbert;
 import com.acmutv.crimegraph_monitor.core.datagen.DatagenDetection;
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenErdosRenyi;
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenEvents;
 import com.acmutv.crimegraph_monitor.core.datagen.DatagenPrediction;
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenRmat;
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenStochasticBlock;
+import com.acmutv.crimegraph_monitor.core.datagen.DatagenUpscale;
+import com.acmutv.crimegraph_monitor.core.datagen.EventConfiguration;
+import com.acmutv.crimegraph_monitor.core.datagen.SplitMode;
+import com.acmutv.crimegraph_monitor.core.datagen.WeightDistribution;
 import com.acmutv.crimegraph_monitor.core.db.DbConfiguration;
 import com.acmutv.crimegraph_monitor.core.db.Neo4JManager;
 import com.acmutv.crimegraph_monitor.core.evaluation.EvaluationController;
 import com.acmutv.crimegraph_monitor.core.evaluation.EvaluationType;
+import com.acmutv.crimegraph_monitor.core.graph.Communities;
+import com.acmutv.crimegraph_monitor.core.kafka.KeyStrategy;
+import com.acmutv.crimegraph_monitor.core.kafka.LinkFormat;
+import com.acmutv.crimegraph_monitor.core.kafka.ParallelPublisher;
+import com.acmutv.crimegraph_monitor.core.kafka.ProducerConfiguration;
+import com.acmutv.crimegraph_monitor.core.kafka.RatePacer;
+import com.acmutv.crimegraph_monitor.core.kafka.RateProfile;
+import com.acmutv.crimegraph_monitor.core.kafka.ReplayScheduler;
 import com.acmutv.crimegraph_monitor.core.kafka.StringKafkaConsumer;
 import com.acmutv.crimegraph_monitor.core.kafka.StringKafkaProducer;
+import com.acmutv.crimegraph_monitor.core.link.BinaryLinkWriter;
+import com.acmutv.crimegraph_monitor.core.link.BinaryLinks;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkEventWriter;
+import com.acmutv.crimegraph_monitor.core.link.LinkEvents;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.LinkWriter;
 import com.acmutv.crimegraph_monitor.core.link.Links;
 import com.acmutv.crimegraph_monitor.core.metric.MetricType;
 import com.acmutv.crimegraph_monitor.core.link.Link;
 import com.acmutv.crimegraph_monitor.core.mining.MiningType;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import com.acmutv.crimegraph_monitor.tool.runtime.RuntimeManager;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.driver.v1.*;
 import org.neo4j.driver.v1.AccessMode;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.acmutv.crimegraph_monitor.core.evaluation.EvaluationType.AUC;
 import static com.acmutv.crimegraph_monitor.core.evaluation.EvaluationType.PRECISION;
@@ -71,19 +97,21 @@ public class CoreController {
    * @param dataset the dataset.
    * @param trainset the trainset.
    * @param testset the testset.
-   * @param params evaluation parameters
+   * @param params evaluation parameters (rank; communities, the ground-truth communities to break results down by)
    * @return the PRECISION.
    * @throws IOException when datasets cannot be read.
    */
   public static Properties evaluate(EvaluationType evaluation, MetricType metric, DbConfiguration dbconf, Path dataset, Path trainset, Path testset, Properties params) throws IOException {
+    final Communities communities = params.containsKey("communities") ?
+        Communities.read(Paths.get(params.getProperty("communities"))) : null;
     Properties result = new Properties();
     switch (evaluation) {
       case AUC:
-        result = EvaluationController.auc(dbconf, metric, dataset, trainset, testset);
+        result = EvaluationController.auc(dbconf, metric, dataset, trainset, testset, communities);
         break;
       case PRECISION:
         int rank = Integer.valueOf(params.getProperty("rank", "3"));
-        result = EvaluationController.precision(dbconf, metric, dataset, trainset, testset, rank);
+        result = EvaluationController.precision(dbconf, metric, dataset, trainset, testset, rank, communities);
         break;
       default: break;
     }
@@ -98,33 +126,134 @@ public class CoreController {
    * @throws IOException when datasets cannot be read or broker cannot be contacted.
    */
   public static void publish(String kafkaBroker, String kafkaTopic, Path dataset) throws IOException {
-    StringKafkaProducer producer = new StringKafkaProducer(kafkaBroker);
-
-    long examined = 0;
-    long total = Files.lines(dataset).count();
-    double progress;
-    double pace = 5.0;
-    try (BufferedReader reader = Files.newBufferedReader(dataset)) {
-      while (reader.ready()) {
-        examined++;
-        String line = reader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
+    publish(kafkaBroker, kafkaTopic, dataset, null, new ProducerConfiguration());
+  }
+
+  /**
+   * Publishes the {@code dataset} to {@code kafkaBroker} with {@code topic}, paced by
+   * {@code profile}.
+   * @param kafkaBroker the Kafka broker address and port.
+   * @param kafkaTopic the topic.
+   * @param dataset the path of the dataset.
+   * @param profile the load profile; null, to publish at full speed.
+   * @param conf the producer configuration.
+   * @throws IOException when datasets cannot be read, broker cannot be contacted or records fail.
+   */
+  public static void publish(String kafkaBroker, String kafkaTopic, Path dataset, RateProfile profile,
+                             ProducerConfiguration conf) throws IOException {
+    publish(kafkaBroker, kafkaTopic, dataset, profile, conf, KeyStrategy.LINK, 1);
+  }
+
+  /**
+   * Publishes the {@code dataset} to {@code kafkaBroker} with {@code topic}, paced by
+   * {@code profile}, with {@code threads} producer threads and records keyed by {@code keys}.
+   * Links sharing the key are published in dataset order.
+   * @param kafkaBroker the Kafka broker address and port.
+   * @param kafkaTopic the topic.
+   * @param dataset the path of the dataset.
+   * @param profile the load profile; null, to publish at full speed.
+   * @param conf the producer configuration, for every thread.
+   * @param keys the key strategy.
+   * @param threads the number of producer threads.
+   * @throws IOException when datasets cannot be read, broker cannot be contacted or records fail.
+   */
+  public static void publish(String kafkaBroker, String kafkaTopic, Path dataset, RateProfile profile,
+                             ProducerConfiguration conf, KeyStrategy keys, int threads) throws IOException {
+    final RatePacer pacer = (profile != null) ? new RatePacer(profile) : null;
+    final long start = System.nanoTime();
+    if (threads > 1) {
+      List<StringKafkaProducer> producers = new ArrayList<>(threads);
+      try {
+        for (int t = 0; t < threads; t++) {
+          producers.add(new StringKafkaProducer(kafkaBroker, conf));
         }
-        producer.send(kafkaTopic, link);
+        ParallelPublisher.publish(dataset, kafkaTopic, keys, producers, pacer);
+      } finally {
+        producers.forEach(StringKafkaProducer::close);
+      }
+      checkPublished(producers, start);
+      return;
+    }
+    StringKafkaProducer producer = new StringKafkaProducer(kafkaBroker, conf);
+
+    final long total = Links.count(dataset);
+    final double pace = 5.0;
+    final AtomicLong examined = new AtomicLong();
+    try {
+      Links.forEach(dataset, (src, dst, weight, type) -> {
+        Link link = new Link(src, dst, weight, type);
+        if (pacer != null) {
+          pacer.acquire();
+        }
+        producer.send(kafkaTopic, link, keys);
         LOGGER.debug("Link published: {}", link);
-        progress = 100.0 * ((double)examined / (double)total);
+        final long curr = examined.incrementAndGet();
+        final double progress = 100.0 * ((double)curr / (double)total);
         if (progress % pace < 0.01) {
-          LOGGER.info("progress (publish): {}% :: examined : {}/{} ", Math.round(progress), examined, total);
+          final double seconds = (System.nanoTime() - start) / 1e9;
+          LOGGER.info("progress (publish): {}% :: examined : {}/{} :: {} records/s, {} MB/s", Math.round(progress), curr, total,
+              Math.round(producer.getSent() / seconds), String.format("%.3f", producer.getBytes() / seconds / 1e6));
         }
-      }
+      });
+    } finally {
+      producer.close();
     }
+    checkPublished(Collections.singletonList(producer), start);
+  }
 
-    producer.close();
+  /**
+   * Replays the event stream {@code events} to {@code kafkaBroker} with {@code topic}, keeping the
+   * original inter-arrival times divided by {@code speedup}.
+   * @param kafkaBroker the Kafka broker address and port.
+   * @param kafkaTopic the topic.
+   * @param events the path of the event stream.
+   * @param speedup the speedup factor.
+   * @param conf the producer configuration.
+   * @return the maximum drift from schedule, in nanoseconds.
+   * @throws IOException when events cannot be read, broker cannot be contacted or records fail.
+   */
+  public static long replay(String kafkaBroker, String kafkaTopic, Path events, double speedup,
+                            ProducerConfiguration conf) throws IOException {
+    StringKafkaProducer producer = new StringKafkaProducer(kafkaBroker, conf);
+    final ReplayScheduler scheduler = new ReplayScheduler(speedup);
+    final long start = System.nanoTime();
+    try {
+      LinkEvents.forEach(events, (timestamp, src, dst, weight, type) -> {
+        Link link = new Link(src, dst, weight, type);
+        scheduler.await(timestamp);
+        producer.send(kafkaTopic, link);
+        LOGGER.debug("Link replayed at {}: {}", timestamp, link);
+      });
+    } finally {
+      producer.close();
+    }
+    LOGGER.info("Replayed {} events (max drift: {} ms)", scheduler.getEvents(), scheduler.getMaxDrift() / 1e6);
+    checkPublished(Collections.singletonList(producer), start);
+    return scheduler.getMaxDrift();
+  }
+
+  /**
+   * Logs the sustained throughput of the closed {@code producers} since {@code start}, and checks
+   * that no record failed.
+   * @param producers the closed producers.
+   * @param start the start time, in nanoseconds.
+   * @throws IOException when records failed.
+   */
+  private static void checkPublished(List<StringKafkaProducer> producers, long start) throws IOException {
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    final long sent = producers.stream().mapToLong(StringKafkaProducer::getSent).sum();
+    final long acked = producers.stream().mapToLong(StringKafkaProducer::getAcked).sum();
+    final long failed = producers.stream().mapToLong(StringKafkaProducer::getFailed).sum();
+    final long bytes = producers.stream().mapToLong(StringKafkaProducer::getBytes).sum();
+    LOGGER.info("Published {} records ({} acked, {} failed) in {} s :: {} records/s, {} MB/s",
+        sent, acked, failed, String.format("%.3f", seconds),
+        Math.round(sent / seconds), String.format("%.3f", bytes / seconds / 1e6));
+    if (failed > 0) {
+      final Exception error = producers.stream().map(StringKafkaProducer::getError)
+          .filter(Objects::nonNull).findFirst().orElse(null);
+      throw new IOException(String.format("%d records failed, first error: %s",
+          failed, (error != null) ? error.getMessage() : null));
+    }
   }
 
   /**
@@ -137,66 +266,185 @@ public class CoreController {
     Driver driver = Neo4JManager.open(dbconf);
     Session session = driver.session(AccessMode.WRITE);
 
-    long examined = 0;
-    long total = Files.lines(dataset).count();
-    double progress;
-    double pace = 5.0;
-    try (BufferedReader reader = Files.newBufferedReader(dataset)) {
-      while (reader.ready()) {
-        examined++;
-        String line = reader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-        Neo4JManager.save(session, link);
-        progress = 100.0 * ((double)examined / (double)total);
+    final long total = Links.count(dataset);
+    final double pace = 5.0;
+    final AtomicLong examined = new AtomicLong();
+    try {
+      Links.forEach(dataset, (src, dst, weight, type) -> {
+        Neo4JManager.save(session, new Link(src, dst, weight, type));
+        final long curr = examined.incrementAndGet();
+        final double progress = 100.0 * ((double)curr / (double)total);
         if (progress % pace < 0.01) {
-          LOGGER.info("progress (save): {}% :: examined : {}/{} ", Math.round(progress), examined, total);
+          LOGGER.info("progress (save): {}% :: examined : {}/{} ", Math.round(progress), curr, total);
         }
-      }
+      });
     } finally {
       Neo4JManager.close(session, driver);
     }
   }
 
   /**
-   * Generates a simple random dataset.
+   * Generates a simple random dataset, as G({@code numnodes}, {@code numlinks}).
+   * Links are in node pair order.
    * @param numnodes the nunber of nodes.
    * @param numlinks the number of links.
    * @param minweight the minimum link weight.
    * @param maxweight the maximum link weight.
-   * @return the list of links.
+   * @return the buffer of links.
    * @throws IOException when {@code output} cannot be written.
+   * @see DatagenErdosRenyi#gnm(int, long, double, double, LinkConsumer, int)
    */
-  public static List<Link> randomSimple(int numnodes, int numlinks, double minweight, double maxweight) throws IOException {
+  public static LinkBuffer randomSimple(int numnodes, int numlinks, double minweight, double maxweight) throws IOException {
     LOGGER.trace("numnodes: {}; numlinks: {}; minweight: {}; maxweight: {}",
         numnodes, numlinks, minweight, maxweight);
-    Random rnd = new Random();
+    LinkBuffer data = new LinkBuffer(numlinks);
+    DatagenErdosRenyi.gnm(numnodes, numlinks, minweight, maxweight, data::add, RuntimeManager.getCores());
+    return data;
+  }
 
-    List<Link> data = new LinkedList<>();
-    Map<Integer,Set<Integer>> pairs = new HashMap<>();
+  /**
+   * Generates the random dataset G({@code numnodes}, {@code numlinks}) into {@code output},
+   * streaming links without buffering them.
+   * @param output the dataset to write.
+   * @param numnodes the nunber of nodes.
+   * @param numlinks the number of links.
+   * @param minweight the minimum link weight.
+   * @param maxweight the maximum link weight.
+   * @return the number of generated links.
+   * @throws IOException when {@code output} cannot be written.
+   */
+  public static long randomGnm(Path output, int numnodes, long numlinks, double minweight, double maxweight) throws IOException {
+    LOGGER.trace("output: {}; numnodes: {}; numlinks: {}; minweight: {}; maxweight: {}",
+        output, numnodes, numlinks, minweight, maxweight);
+    return Links.write(output, consumer ->
+        DatagenErdosRenyi.gnm(numnodes, numlinks, minweight, maxweight, consumer, RuntimeManager.getCores()));
+  }
 
-    for (int i = 0; i < numlinks; i++) {
-      int x = 0;
-      int y;
-      do {
-        y = rnd.nextInt(numnodes);
-        if (y == 0) continue;
-        x = rnd.nextInt(y);
-      } while (y <= x || (pairs.containsKey(x) && pairs.get(x).contains(y)));
+  /**
+   * Generates the random dataset G({@code numnodes}, {@code probability}) into {@code output},
+   * streaming links without buffering them.
+   * @param output the dataset to write.
+   * @param numnodes the nunber of nodes.
+   * @param probability the link probability.
+   * @param minweight the minimum link weight.
+   * @param maxweight the maximum link weight.
+   * @return the number of generated links.
+   * @throws IOException when {@code output} cannot be written.
+   */
+  public static long randomGnp(Path output, int numnodes, double probability, double minweight, double maxweight) throws IOException {
+    LOGGER.trace("output: {}; numnodes: {}; probability: {}; minweight: {}; maxweight: {}",
+        output, numnodes, probability, minweight, maxweight);
+    return Links.write(output, consumer ->
+        DatagenErdosRenyi.gnp(numnodes, probability, minweight, maxweight, consumer, RuntimeManager.getCores()));
+  }
 
-      double weight = rnd.nextDouble() * (maxweight - minweight) + minweight;
-      Link link = new Link(x, y, weight);
-      data.add(link);
-      pairs.putIfAbsent(x, new HashSet<>());
-      pairs.get(x).add(y);
-    }
+  /**
+   * Generates the Barabasi-Albert dataset with {@code numnodes} nodes into {@code output},
+   * streaming links without buffering them.
+   * @param output the dataset to write.
+   * @param numnodes the nunber of nodes.
+   * @param attachment the number of links attached by every new node.
+   * @param distribution the weight distribution.
+   * @param minweight the minimum link weight.
+   * @param maxweight the maximum link weight.
+   * @return the number of generated links.
+   * @throws IOException when {@code output} cannot be written.
+   */
+  public static long randomBarabasiAlbert(Path output, int numnodes, int attachment, WeightDistribution distribution,
+                                          double minweight, double maxweight) throws IOException {
+    LOGGER.trace("output: {}; numnodes: {}; attachment: {}; distribution: {}; minweight: {}; maxweight: {}",
+        output, numnodes, attachment, distribution, minweight, maxweight);
+    return Links.write(output, consumer ->
+        DatagenBarabasiAlbert.generate(numnodes, attachment, distribution, minweight, maxweight, consumer));
+  }
 
-    return data;
+  /**
+   * Generates the R-MAT dataset with 2^{@code scale} nodes into {@code output}, streaming links
+   * without buffering them.
+   * When {@code dedup} is true, duplicate links are removed, spilling sorted runs next to
+   * {@code output}.
+   * @param output the dataset to write.
+   * @param scale the scale.
+   * @param numlinks the number of generated links (before deduplication).
+   * @param a the probability of the top-left quadrant.
+   * @param b the probability of the top-right quadrant.
+   * @param c the probability of the bottom-left quadrant.
+   * @param distribution the weight distribution.
+   * @param minweight the minimum link weight.
+   * @param maxweight the maximum link weight.
+   * @param dedup whether to remove duplicate links.
+   * @return the number of written links.
+   * @throws IOException when {@code output} cannot be written.
+   */
+  public static long randomRmat(Path output, int scale, long numlinks, double a, double b, double c,
+                                WeightDistribution distribution, double minweight, double maxweight,
+                                boolean dedup) throws IOException {
+    LOGGER.trace("output: {}; scale: {}; numlinks: {}; rmat: ({},{},{}); distribution: {}; minweight: {}; maxweight: {}; dedup: {}",
+        output, scale, numlinks, a, b, c, distribution, minweight, maxweight, dedup);
+    final Path spill = dedup ? output.toAbsolutePath().getParent() : null;
+    return Links.write(output, consumer ->
+        DatagenRmat.generate(scale, numlinks, a, b, c, distribution, minweight, maxweight, spill,
+            consumer, RuntimeManager.getCores()));
+  }
+
+  /**
+   * Generates the stochastic block model dataset into {@code output}, streaming links without
+   * buffering them, and writes the ground-truth community of every node into {@code communities}.
+   * @param output the dataset to write.
+   * @param communities the communities file to write.
+   * @param blocksizes the number of nodes of every block.
+   * @param intraprobability the probability of links within blocks.
+   * @param interprobability the probability of links between blocks.
+   * @param intradistribution the weight distribution of links within blocks.
+   * @param interdistribution the weight distribution of links between blocks.
+   * @param minweight the minimum link weight.
+   * @param maxweight the maximum link weight.
+   * @return the number of generated links.
+   * @throws IOException when {@code output} or {@code communities} cannot be written.
+   */
+  public static long randomStochasticBlock(Path output, Path communities, int[] blocksizes,
+                                           double intraprobability, double interprobability,
+                                           WeightDistribution intradistribution, WeightDistribution interdistribution,
+                                           double minweight, double maxweight) throws IOException {
+    LOGGER.trace("output: {}; communities: {}; blocksizes: {}; probability: ({},{}); distribution: ({},{}); minweight: {}; maxweight: {}",
+        output, communities, Arrays.toString(blocksizes), intraprobability, interprobability,
+        intradistribution, interdistribution, minweight, maxweight);
+    final long generated = Links.write(output, consumer ->
+        DatagenStochasticBlock.generate(blocksizes, intraprobability, interprobability,
+            intradistribution, interdistribution, minweight, maxweight, consumer, RuntimeManager.getCores()));
+    DatagenStochasticBlock.communities(communities, blocksizes);
+    return generated;
+  }
+
+  /**
+   * Generates into {@code output} a dataset {@code factor} times larger than {@code dataset}, with
+   * the same degree and weight distributions, streaming links without buffering them.
+   * @param dataset the dataset to fit.
+   * @param output the dataset to write.
+   * @param factor the upscaling factor.
+   * @return the number of generated links.
+   * @throws IOException when {@code dataset} cannot be read or {@code output} cannot be written.
+   */
+  public static long upscale(Path dataset, Path output, int factor) throws IOException {
+    LOGGER.trace("dataset: {}; output: {}; factor: {}", dataset, output, factor);
+    final DatagenUpscale model = DatagenUpscale.fit(dataset);
+    return Links.write(output, consumer -> model.generate(factor, consumer, RuntimeManager.getCores()));
+  }
+
+  /**
+   * Generates into {@code output} the stream of link events of {@code dataset}.
+   * @param dataset the base dataset.
+   * @param output the event stream to write.
+   * @param conf the event configuration.
+   * @return the number of generated events.
+   * @throws IOException when {@code dataset} cannot be read or {@code output} cannot be written.
+   */
+  public static long events(Path dataset, Path output, EventConfiguration conf) throws IOException {
+    LOGGER.trace("dataset: {}; output: {}; conf: {}", dataset, output, conf);
+    final LinkBuffer base = Links.readBuffer(dataset);
+    try (LinkEventWriter writer = new LinkEventWriter(output)) {
+      return DatagenEvents.generate(base, conf, writer);
+    }
   }
 
   /**
@@ -205,18 +453,17 @@ public class CoreController {
    * @param numlinks the number of links.
    * @param minweight the minimum link weight.
    * @param maxweight the maximum link weight.
-   * @return the list of links.
+   * @return the buffer of links.
    * @throws IOException when {@code output} cannot be written.
    */
-  public static List<Link> randomCircular(int numnodes, int numlinks, double minweight, double maxweight) throws IOException {
-    Random rnd = new Random();
+  public static LinkBuffer randomCircular(int numnodes, int numlinks, double minweight, double maxweight) throws IOException {
+    SplittableRandom rnd = RandomManager.stream("datagen.circular");
 
-    List<Link> data = new LinkedList<>();
+    LinkBuffer data = new LinkBuffer(numnodes);
 
     for (int i = 1; i < numnodes; i++) {
       double weight = rnd.nextDouble() * (maxweight - minweight) + minweight;
-      Link link = new Link(i, i+1, weight);
-      data.add(link);
+      data.add(i, i+1, weight, LinkType.REAL);
     }
 
     return data;
@@ -232,18 +479,137 @@ public class CoreController {
    * @throws IOException when dataset cannot be read.
    */
   public static void traintest(MiningType mining, Path dataset, Path training, Path test, double ratio) throws IOException {
-    Pair<List<Link>,List<Link>> sets = null;
+    traintest(mining, dataset, training, test, ratio, SplitMode.FAST);
+  }
+
+  /**
+   * Generates training-set and test-set for detection with {@code dataset} and test {@code ratio}.
+   * @param mining the mining type.
+   * @param dataset the path of the original dataset.
+   * @param training the path of the training set.
+   * @param test the path of the test set.
+   * @param ratio the test ratio.
+   * @param mode the split mode.
+   * @throws IOException when dataset cannot be read.
+   */
+  public static void traintest(MiningType mining, Path dataset, Path training, Path test, double ratio, SplitMode mode) throws IOException {
+    traintest(mining, Links.readBuffer(dataset), training, test, ratio, mode, RuntimeManager.getCores());
+  }
+
+  /**
+   * Generates training-set and test-set for every mining in {@code minings} and every test ratio in
+   * {@code ratios}, reading {@code dataset} once.
+   * Splits are generated and written concurrently, one task per pair, on a pool with one worker per core;
+   * every task writes its sets sequentially.
+   * Paths are given as templates, where {@code {mining}} and {@code {ratio}} are replaced by the
+   * mining name and the test ratio token, as given, of every pair.
+   * @param minings the mining types.
+   * @param dataset the path of the original dataset.
+   * @param training the template of the paths of training sets.
+   * @param test the template of the paths of test sets.
+   * @param ratios the test ratio tokens, e.g. {@code 0.10}.
+   * @param mode the split mode.
+   * @throws IOException when dataset cannot be read, or any training/test set cannot be written.
+   * @throws IllegalArgumentException when a ratio is not a number, or templates do not yield
+   * distinct paths for every pair.
+   */
+  public static void traintest(List<MiningType> minings, Path dataset, String training, String test,
+                               List<String> ratios, SplitMode mode) throws IOException {
+    for (String ratio : ratios) {
+      Double.valueOf(ratio);
+    }
+    Set<Path> paths = new HashSet<>();
+    for (MiningType mining : minings) {
+      for (String ratio : ratios) {
+        if (!paths.add(traintestPath(training, mining, ratio)) || !paths.add(traintestPath(test, mining, ratio))) {
+          throw new IllegalArgumentException("Trainset and testset templates must yield distinct paths for every {mining} and {ratio}");
+        }
+      }
+    }
+
+    final LinkBuffer links = Links.readBuffer(dataset);
+    LOGGER.trace("Read {} links from {}", links.size(), dataset);
+
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (MiningType mining : minings) {
+      for (String ratio : ratios) {
+        tasks.add(() -> {
+          traintest(mining, links, traintestPath(training, mining, ratio), traintestPath(test, mining, ratio),
+              Double.valueOf(ratio), mode, 1);
+          return null;
+        });
+      }
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(tasks.size(), RuntimeManager.getCores())));
+    try {
+      for (Future<Void> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (ExecutionException exc) {
+      if (exc.getCause() instanceof IOException) {
+        throw (IOException) exc.getCause();
+      }
+      throw new IOException(exc.getCause());
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IOException(exc);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Returns the path of a training/test set from {@code template}.
+   * @param template the path template, with placeholders {@code {mining}} and {@code {ratio}}.
+   * @param mining the mining type.
+   * @param ratio the test ratio token, as given.
+   * @return the path.
+   */
+  public static Path traintestPath(String template, MiningType mining, String ratio) {
+    return Paths.get(template
+        .replace("{mining}", mining.getName())
+        .replace("{ratio}", ratio)).toAbsolutePath();
+  }
+
+  /**
+   * Generates training-set and test-set for {@code mining} from {@code links} and test {@code ratio}.
+   * @param mining the mining type.
+   * @param links the original dataset.
+   * @param training the path of the training set.
+   * @param test the path of the test set.
+   * @param ratio the test ratio.
+   * @param mode the split mode.
+   * @param parallelism the number of workers writing every set.
+   * @throws IOException when training/test sets cannot be written.
+   */
+  private static void traintest(MiningType mining, LinkBuffer links, Path training, Path test, double ratio, SplitMode mode,
+                                int parallelism) throws IOException {
+    Pair<LinkBuffer,LinkBuffer> sets = null;
     switch (mining) {
-      case DETECTION: sets = DatagenDetection.datasets(CoreController.readLinks(dataset), ratio);break;
-      case PREDICTION: sets = DatagenPrediction.datasets(CoreController.readLinks(dataset), ratio);break;
+      case DETECTION: sets = DatagenDetection.datasets(links, ratio, mode);break;
+      case PREDICTION: sets = DatagenPrediction.datasets(links, ratio, mode);break;
       default: break;
     }
 
-    final List<Link> trainset = sets.getLeft();
-    final List<Link> testset = sets.getRight();
+    final LinkBuffer trainset = sets.getLeft();
+    final LinkBuffer testset = sets.getRight();
 
-    CoreController.writeDataset(training, trainset);
-    CoreController.writeDataset(test, testset);
+    CoreController.writeDataset(training, trainset, parallelism);
+    CoreController.writeDataset(test, testset, parallelism);
+    LOGGER.info("Generated trainset {} and testset {} for {} with testRatio {}", training, test, mining, ratio);
+  }
+
+  /**
+   * Converts {@code dataset} into {@code output}, where text and binary formats are given by extensions.
+   * @param dataset the path of the dataset to convert.
+   * @param output the path of the converted dataset.
+   * @return the number of converted links.
+   * @throws IOException when {@code dataset} cannot be read or {@code output} cannot be written.
+   */
+  public static long convert(Path dataset, Path output) throws IOException {
+    LOGGER.trace("Dataset: {}; Output: {}", dataset, output);
+    return Links.convert(dataset, output);
   }
 
   /**
@@ -253,23 +619,33 @@ public class CoreController {
    * @throws IOException when {@code path} cannot be written.
    */
   public static void writeDataset(Path path, List<Link> data) throws IOException {
-    LOGGER.trace("Path: {}; Data size: {}", path, data.size());
+    CoreController.writeDataset(path, LinkBuffer.of(data));
+  }
 
-    if (!Files.isDirectory(path.getParent())) {
-      Files.createDirectories(path.getParent());
-    }
+  /**
+   * Writes the dataset {@code datagen} into {@code path}.
+   * @param path the file to write onto.
+   * @param data the dataset to write.
+   * @throws IOException when {@code path} cannot be written.
+   */
+  public static void writeDataset(Path path, LinkBuffer data) throws IOException {
+    CoreController.writeDataset(path, data, RuntimeManager.getCores());
+  }
 
-    Charset charset = Charset.defaultCharset();
-    try (BufferedWriter writer = Files.newBufferedWriter(path, charset, StandardOpenOption.CREATE)) {
-      for (Link link : data) {
-        try {
-          writer.append(link.toString()).append("\n");
-        } catch (IOException exc) {
-          LOGGER.error(exc.getMessage());
-        }
-      }
-    } catch (IOException exc) {
-      LOGGER.error(exc.getMessage());
+  /**
+   * Writes the dataset {@code datagen} into {@code path}, with {@code parallelism} workers.
+   * @param path the file to write onto.
+   * @param data the dataset to write.
+   * @param parallelism the number of workers formatting text datasets.
+   * @throws IOException when {@code path} cannot be written.
+   */
+  public static void writeDataset(Path path, LinkBuffer data, int parallelism) throws IOException {
+    LOGGER.trace("Path: {}; Data size: {}", path, data.size());
+
+    if (BinaryLinks.isBinary(path)) {
+      BinaryLinkWriter.write(path, data);
+    } else {
+      LinkWriter.write(path, data, parallelism);
     }
   }
 
@@ -283,40 +659,33 @@ public class CoreController {
    * @return true, if the dataset has been completely saved on DB; false, otherwise.
    */
   public static boolean checkDatasetOnDb(DbConfiguration dbconf, Path dataset, Long period) throws IOException {
-    long total = Files.lines(dataset).count();
+    long total = Links.count(dataset);
     Set<Link> missing = new HashSet<>();
     Driver driver = Neo4JManager.open(dbconf);
     Session session;
 
     LOGGER.info("Links to check: {} | dataset: {}", total, dataset);
 
-    long examined = 0;
-    long saved = 0;
-    double progress;
-    session = driver.session(AccessMode.READ);
-    try (BufferedReader reader = Files.newBufferedReader(dataset)) {
-      while (reader.ready()) {
-        String line = reader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
+    final AtomicLong examined = new AtomicLong();
+    final AtomicLong saved = new AtomicLong();
+    final Session readSession = driver.session(AccessMode.READ);
+    try {
+      Links.forEach(dataset, (src, dst, weight, type) -> {
+        Link link = new Link(src, dst, weight, type);
         LOGGER.debug("Check link: {}", link);
-        boolean exists = Neo4JManager.exists(session, link);
+        boolean exists = Neo4JManager.exists(readSession, link);
         if (!exists)
           missing.add(link);
         else
-          saved++;
-        examined++;
-        progress = 100.0 * ((double)examined / (double)total);
+          saved.incrementAndGet();
+        final long curr = examined.incrementAndGet();
+        final double progress = 100.0 * ((double)curr / (double)total);
         if (progress % 5.0 == 0.0)
-          LOGGER.trace("Check progress: {}% (examined: {}/{} | saved: {} | missing: {})", progress, examined, total, saved, missing.size());
-      }
+          LOGGER.trace("Check progress: {}% (examined: {}/{} | saved: {} | missing: {})", progress, curr, total, saved.get(), missing.size());
+      });
+    } finally {
+      readSession.close();
     }
-    session.close();
 
     if (period != null) {
       while (!missing.isEmpty()) {
@@ -347,10 +716,23 @@ public class CoreController {
    * @return true, if Kafka is up and running; false, otherwise.
    */
   public static boolean checkKafka(String kafkaBroker, String kafkaTopic) {
+    return checkKafka(kafkaBroker, kafkaTopic, LinkFormat.STRING);
+  }
+
+  /**
+   * Checks Kafka, with links in {@code format}.
+   * @param kafkaBroker the Kafka broker.
+   * @param kafkaTopic the Kafka topic.
+   * @param format the link format.
+   * @return true, if Kafka is up and running; false, otherwise.
+   */
+  public static boolean checkKafka(String kafkaBroker, String kafkaTopic, LinkFormat format) {
     Link testLink = new Link(1, 2, 1.0);
 
-    StringKafkaProducer producer = new StringKafkaProducer(kafkaBroker);
-    StringKafkaConsumer consumer = new StringKafkaConsumer(kafkaBroker, "testers");
+    ProducerConfiguration conf = new ProducerConfiguration();
+    conf.setFormat(format);
+    StringKafkaProducer producer = new StringKafkaProducer(kafkaBroker, conf);
+    StringKafkaConsumer consumer = new StringKafkaConsumer(kafkaBroker, "testers", format);
 
     producer.send(kafkaTopic, testLink);
 
@@ -0,0 +1,65 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import lombok.Getter;
+
+/**
+ * Arrival processes of generated link events.
+ * {@code POISSON} has constant rate; {@code HAWKES} is self-exciting, so that every event raises
+ * the rate for a while (bursts); {@code DIURNAL} has a sinusoidal rate (daily cycles).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenEvents
+ */
+@Getter
+public enum ArrivalProcess {
+  POISSON ("POISSON"),
+  HAWKES  ("HAWKES"),
+  DIURNAL ("DIURNAL");
+
+  private final String name;
+
+  ArrivalProcess(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the arrival process from {@code string}.
+   * @param string the string to parse.
+   * @return the arrival process.
+   */
+  public static ArrivalProcess fromString(String string) {
+    for (ArrivalProcess process : ArrivalProcess.values()) {
+      if (process.name.equalsIgnoreCase(string)) {
+        return process;
+      }
+    }
+    return null;
+  }
+}
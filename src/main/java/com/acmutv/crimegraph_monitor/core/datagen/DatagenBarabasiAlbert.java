@@ -0,0 +1,90 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Utility to generate Barabasi-Albert preferential-attachment graphs.
+ * Nodes arrive one at a time, and every node attaches {@code attachment} links to existing nodes,
+ * chosen with probability proportional to their degree.
+ * Sampling proportional to degree is a uniform pick from the array of all link endpoints
+ * generated so far (Batagelj-Brandes), so generation takes O(E) time and 2E ints of memory.
+ * As in the original algorithm, rare self-loops and parallel links are kept.
+ * Links are emitted in arrival order, which is their timestamp order.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class DatagenBarabasiAlbert {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenBarabasiAlbert.class);
+
+  /**
+   * Generates the Barabasi-Albert graph with {@code numNodes} nodes into {@code consumer}.
+   * @param numNodes the number of nodes.
+   * @param attachment the number of links attached by every new node.
+   * @param distribution the weight distribution.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param consumer the link consumer.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when the graph has too many links.
+   */
+  public static long generate(int numNodes, int attachment, WeightDistribution distribution,
+                              double minWeight, double maxWeight, LinkConsumer consumer) throws IOException {
+    if (numNodes < 0 || attachment < 1) {
+      throw new IllegalArgumentException("Number of nodes and attachment must be positive");
+    }
+    final long numLinks = (long) numNodes * attachment;
+    if (2 * numLinks > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Too many links: " + numLinks);
+    }
+    LOGGER.trace("BA({},{}): {} links", numNodes, attachment, numLinks);
+
+    SplittableRandom rnd = RandomManager.stream("datagen.ba");
+    final int[] endpoints = new int[(int) (2 * numLinks)];
+    int e = 0;
+    for (int v = 0; v < numNodes; v++) {
+      for (int i = 0; i < attachment; i++, e += 2) {
+        endpoints[e] = v;
+        final int u = endpoints[rnd.nextInt(e + 1)];
+        endpoints[e + 1] = u;
+        consumer.accept(u, v, distribution.sample(rnd, minWeight, maxWeight), LinkType.REAL);
+      }
+    }
+    return numLinks;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Utility to run chunked generators: chunks are generated concurrently, and their links are
+ * pushed to the consumer in chunk order, so that output does not depend on the number of workers.
+ * At most 2 chunks per worker are held in memory.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+final class DatagenChunks {
+
+  private DatagenChunks() {}
+
+  /**
+   * A generator of the links of a chunk.
+   */
+  @FunctionalInterface
+  interface ChunkGenerator {
+
+    /**
+     * Generates the links of chunk {@code chunk}.
+     * @param chunk the chunk number.
+     * @return the links of the chunk.
+     */
+    LinkBuffer generate(long chunk);
+  }
+
+  /**
+   * Generates chunks [0, {@code numChunks}) on {@code parallelism} workers, pushing their links
+   * to {@code consumer} in chunk order.
+   * @param numChunks the number of chunks.
+   * @param generator the chunk generator.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   */
+  static long generate(long numChunks, ChunkGenerator generator, LinkConsumer consumer, int parallelism) throws IOException {
+    long generated = 0;
+    if (parallelism <= 1 || numChunks <= 1) {
+      for (long chunk = 0; chunk < numChunks; chunk++) {
+        LinkBuffer links = generator.generate(chunk);
+        links.forEach(consumer);
+        generated += links.size();
+      }
+      return generated;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      final int window = 2 * parallelism;
+      Deque<Future<LinkBuffer>> pending = new ArrayDeque<>(window);
+      long next = 0;
+      while (next < numChunks || !pending.isEmpty()) {
+        while (next < numChunks && pending.size() < window) {
+          final long chunk = next++;
+          pending.addLast(pool.submit(() -> generator.generate(chunk)));
+        }
+        LinkBuffer links = pending.removeFirst().get();
+        links.forEach(consumer);
+        generated += links.size();
+      }
+      return generated;
+    } catch (ExecutionException exc) {
+      if (exc.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exc.getCause();
+      }
+      throw new IOException(exc.getCause());
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IOException(exc);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
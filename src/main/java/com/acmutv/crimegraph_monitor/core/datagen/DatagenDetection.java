@@ -28,7 +28,11 @@ package com.acmutv.crimegraph_monitor.core.datagen;
 import com.acmutv.crimegraph_monitor.core.CoreController;
 import com.acmutv.crimegraph_monitor.core.graph.CustomWeightedEdge;
 import com.acmutv.crimegraph_monitor.core.graph.GraphController;
+import com.acmutv.crimegraph_monitor.core.graph.NodeDictionary;
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.collection.UnionFind;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -56,14 +60,120 @@ public class DatagenDetection {
    * @throws IOException when datasets cannot be read or written.
    */
   public static Pair<List<Link>,List<Link>> datasets(List<Link> dataset, double ratio) throws IOException {
-    final long originalSize = dataset.size();
+    Pair<LinkBuffer,LinkBuffer> sets = datasets(LinkBuffer.of(dataset), ratio);
+    return new ImmutablePair<>(sets.getLeft().toList(), sets.getRight().toList());
+  }
+
+  /**
+   * Generates the training and test sets from the original dataset with {@code ratio}, for detection.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  public static Pair<LinkBuffer,LinkBuffer> datasets(LinkBuffer dataset, double ratio) throws IOException {
+    return datasets(dataset, ratio, SplitMode.FAST);
+  }
+
+  /**
+   * Generates the training and test sets from the original dataset with {@code ratio}, for detection.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @param mode the split mode.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  public static Pair<LinkBuffer,LinkBuffer> datasets(LinkBuffer dataset, double ratio, SplitMode mode) throws IOException {
+    switch (mode) {
+      case REFERENCE: return reference(dataset, ratio);
+      default: return spanning(dataset, ratio);
+    }
+  }
+
+  /**
+   * Splits {@code dataset} removing random links that are not in a random spanning forest, so that
+   * every connected component of the dataset stays connected in the trainset.
+   * The forest is built by Kruskal's algorithm over a random permutation of links, then the
+   * testset is drawn uniformly from the remaining links, in O(E &alpha;(V)) overall.
+   * At most E - V + C links can be removed, where C is the number of connected components.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   */
+  private static Pair<LinkBuffer,LinkBuffer> spanning(LinkBuffer dataset, double ratio) {
+    final int originalSize = dataset.size();
+    final long toRemove = Math.round(ratio * originalSize);
+    SplittableRandom rnd = RandomManager.stream("split.detection", Double.doubleToLongBits(ratio));
+
+    NodeDictionary nodes = NodeDictionary.of(dataset);
+    UnionFind forest = new UnionFind(nodes.size());
+    for (int v = 0; v < nodes.size(); v++) {
+      forest.add();
+    }
+
+    final int[] order = new int[originalSize];
+    for (int i = 0; i < originalSize; i++) {
+      order[i] = i;
+    }
+    shuffle(order, originalSize, rnd);
+
+    int numCandidates = 0;
+    for (int i : order) {
+      final int src = nodes.indexOf(dataset.getSrc(i));
+      final int dst = nodes.indexOf(dataset.getDst(i));
+      if (forest.find(src) == forest.find(dst)) {
+        order[numCandidates++] = i;
+      } else {
+        forest.union(src, dst);
+      }
+    }
+    LOGGER.trace("Found {} links out of the spanning forest", numCandidates);
+
+    final int removed = (int) Math.min(toRemove, numCandidates);
+    shuffle(order, numCandidates, rnd);
+    BitSet removedLinks = new BitSet(originalSize);
+    for (int k = 0; k < removed; k++) {
+      removedLinks.set(order[k]);
+    }
+    if (removed < toRemove) {
+      LOGGER.warn("Cannot remove {} links without disconnecting the dataset, removed {}", toRemove, removed);
+    }
+
+    return new ImmutablePair<>(dataset.select(removedLinks, false), dataset.select(removedLinks, true));
+  }
+
+  /**
+   * Shuffles the first {@code length} elements of {@code array} (Fisher-Yates).
+   * @param array the array.
+   * @param length the number of elements to shuffle.
+   * @param rnd the random generator.
+   */
+  private static void shuffle(int[] array, int length, SplittableRandom rnd) {
+    for (int i = length - 1; i > 0; i--) {
+      final int j = rnd.nextInt(i + 1);
+      final int tmp = array[i];
+      array[i] = array[j];
+      array[j] = tmp;
+    }
+  }
+
+  /**
+   * Splits {@code dataset} removing random links one at a time, and restoring every link whose
+   * removal disconnects the graph, as checked by a full traversal.
+   * Nothing is removed when the dataset is not a single connected component.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   */
+  private static Pair<LinkBuffer,LinkBuffer> reference(LinkBuffer dataset, double ratio) {
+    final int originalSize = dataset.size();
     final long toRemove = Math.round(ratio * originalSize);
-    Random rnd = new Random();
+    SplittableRandom rnd = RandomManager.stream("split.detection.reference", Double.doubleToLongBits(ratio));
 
-    List<Link> trainset = new LinkedList<>(dataset);
-    List<Link> testset = new LinkedList<>();
+    BitSet removedLinks = new BitSet(originalSize);
+    LinkBuffer testset = new LinkBuffer((int) Math.min(toRemove, originalSize));
 
-    UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(trainset);
+    UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(dataset);
     final boolean isDatasetLCC = GraphController.isSingleConnectedComponent(graph);
     LOGGER.trace("Dataset is {}single LCC", ((isDatasetLCC)?"": "not "));
 
@@ -71,15 +181,14 @@ public class DatagenDetection {
     boolean removalInScan;
     do {
       removalInScan = false;
-      Iterator<Link> iter = trainset.iterator();
-      while (iter.hasNext() && removed < toRemove) {
-        Link link = iter.next();
+      for (int i = removedLinks.nextClearBit(0); i < originalSize && removed < toRemove;
+           i = removedLinks.nextClearBit(i + 1)) {
         if (!rnd.nextBoolean()) {
           continue;
         }
-        long src = link.getSrc();
-        long dst = link.getDst();
-        double weight = link.getWeight();
+        long src = dataset.getSrc(i);
+        long dst = dataset.getDst(i);
+        double weight = dataset.getWeight(i);
 
         graph.removeEdge(src, dst);
         boolean isLCC = GraphController.isSingleConnectedComponent(graph);
@@ -87,18 +196,18 @@ public class DatagenDetection {
         if (!isLCC) {
           CustomWeightedEdge edge = graph.addEdge(src, dst);
           edge.setWeight(weight);
-          LOGGER.trace("Skipping removal of link: {}", link);
+          LOGGER.trace("Skipping removal of link: ({},{})", src, dst);
         } else {
-          iter.remove();
-          testset.add(link);
+          removedLinks.set(i);
+          testset.add(dataset, i);
           removed++;
           removalInScan = true;
-          LOGGER.trace("Removed link ({}/{}): {}", removed, toRemove, link);
+          LOGGER.trace("Removed link ({}/{}): ({},{})", removed, toRemove, src, dst);
         }
       }
     } while (removalInScan);
 
-    return new ImmutablePair<>(trainset, testset);
+    return new ImmutablePair<>(dataset.select(removedLinks, false), testset);
   }
 
 }
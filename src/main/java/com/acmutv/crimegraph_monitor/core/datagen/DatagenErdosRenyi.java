@@ -0,0 +1,246 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.tool.collection.LongHashSet;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Utility to generate Erdos-Renyi random graphs, G(n,p) and G(n,m).
+ * The space of the n(n-1)/2 node pairs (x,y), with 0 &le; x &lt; y &lt; n, is linearized as
+ * y(y-1)/2 + x and partitioned into chunks, generated concurrently with their own random
+ * stream (see {@link RandomManager}) and emitted in pair order.
+ * G(n,p) skips over non-links with geometric jumps (Batagelj-Brandes), in time proportional to
+ * the number of links.
+ * G(n,m) first distributes exactly m links over chunks by hypergeometric draws, then samples the
+ * positions within every chunk without replacement.
+ * Memory is bounded by the links of the chunks in flight.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class DatagenErdosRenyi {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenErdosRenyi.class);
+
+  /**
+   * Generates G({@code numNodes}, {@code probability}) into {@code consumer}.
+   * @param numNodes the number of nodes.
+   * @param probability the probability of every link.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when {@code probability} is not in [0,1].
+   */
+  public static long gnp(int numNodes, double probability, double minWeight, double maxWeight,
+                         LinkConsumer consumer, int parallelism) throws IOException {
+    if (!(probability >= 0.0 && probability <= 1.0)) {
+      throw new IllegalArgumentException("Link probability must be in [0,1]: " + probability);
+    }
+    final long numPairs = numPairs(numNodes);
+    final long numChunks = GeometricSkipSampler.numChunks(numPairs, probability);
+    final long chunkPairs = (numPairs == 0) ? 0 : (numPairs - 1) / numChunks + 1;
+    LOGGER.trace("G({},{}): {} pairs in {} chunks", numNodes, probability, numPairs, numChunks);
+
+    return DatagenChunks.generate(numChunks, chunk -> {
+      final long from = Math.min(numPairs, chunk * chunkPairs);
+      final long to = Math.min(numPairs, from + chunkPairs);
+      SplittableRandom rnd = RandomManager.stream("datagen.gnp", chunk);
+      LinkBuffer links = GeometricSkipSampler.buffer(probability, from, to);
+      GeometricSkipSampler.sample(from, to, probability, rnd, k -> addPair(links, k, rnd, minWeight, maxWeight));
+      return links;
+    }, consumer, parallelism);
+  }
+
+  /**
+   * Generates G({@code numNodes}, {@code numLinks}) into {@code consumer}.
+   * @param numNodes the number of nodes.
+   * @param numLinks the number of links.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when {@code numLinks} exceeds the number of node pairs.
+   */
+  public static long gnm(int numNodes, long numLinks, double minWeight, double maxWeight,
+                         LinkConsumer consumer, int parallelism) throws IOException {
+    final long numPairs = numPairs(numNodes);
+    if (numLinks < 0 || numLinks > numPairs) {
+      throw new IllegalArgumentException(String.format("Cannot generate %d links among %d nodes", numLinks, numNodes));
+    }
+    final long numChunks = Math.max(1, Math.min(numPairs, (numLinks - 1) / GeometricSkipSampler.CHUNK_LINKS + 1));
+    final long chunkPairs = (numPairs == 0) ? 0 : (numPairs - 1) / numChunks + 1;
+    LOGGER.trace("G({},{}): {} pairs in {} chunks", numNodes, numLinks, numPairs, numChunks);
+
+    final long[] counts = new long[(int) numChunks];
+    distribute(counts, 0, (int) numChunks, numLinks, numPairs, chunkPairs, 1);
+
+    return DatagenChunks.generate(numChunks, chunk -> {
+      final long from = Math.min(numPairs, chunk * chunkPairs);
+      final long to = Math.min(numPairs, from + chunkPairs);
+      final long size = to - from;
+      final int count = (int) counts[(int) chunk];
+      SplittableRandom rnd = RandomManager.stream("datagen.gnm", chunk);
+      LinkBuffer links = new LinkBuffer(count);
+      if (2L * count <= size) {
+        LongHashSet positions = new LongHashSet(count);
+        while (positions.size() < count) {
+          positions.add(rnd.nextLong(size));
+        }
+        long[] sorted = positions.toArray();
+        Arrays.sort(sorted);
+        for (long position : sorted) {
+          addPair(links, from + position, rnd, minWeight, maxWeight);
+        }
+      } else {
+        final int isize = (int) size;
+        BitSet excluded = new BitSet(isize);
+        for (int excludedCount = 0; excludedCount < isize - count; ) {
+          final int position = rnd.nextInt(isize);
+          if (!excluded.get(position)) {
+            excluded.set(position);
+            excludedCount++;
+          }
+        }
+        for (int position = excluded.nextClearBit(0); position < isize; position = excluded.nextClearBit(position + 1)) {
+          addPair(links, from + position, rnd, minWeight, maxWeight);
+        }
+      }
+      return links;
+    }, consumer, parallelism);
+  }
+
+  /**
+   * Returns the number of node pairs among {@code numNodes} nodes.
+   * @param numNodes the number of nodes.
+   * @return the number of node pairs.
+   */
+  static long numPairs(int numNodes) {
+    if (numNodes < 0) {
+      throw new IllegalArgumentException("Number of nodes must be non-negative: " + numNodes);
+    }
+    return (long) numNodes * (numNodes - 1) / 2;
+  }
+
+  /**
+   * Returns the node y of the pair at linear position {@code k}.
+   * @param k the linear position.
+   * @return the higher node of the pair.
+   */
+  static long pairHigh(long k) {
+    long y = (long) ((1.0 + Math.sqrt(1.0 + 8.0 * k)) / 2.0);
+    while (y * (y - 1) / 2 > k) y--;
+    while ((y + 1) * y / 2 <= k) y++;
+    return y;
+  }
+
+  /**
+   * Adds the pair at linear position {@code k} with a random weight.
+   * @param links the links.
+   * @param k the linear position.
+   * @param rnd the random stream.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   */
+  private static void addPair(LinkBuffer links, long k, SplittableRandom rnd, double minWeight, double maxWeight) {
+    final long y = pairHigh(k);
+    final long x = k - y * (y - 1) / 2;
+    final double weight = rnd.nextDouble() * (maxWeight - minWeight) + minWeight;
+    links.add(x, y, weight, LinkType.REAL);
+  }
+
+  /**
+   * Distributes {@code draws} links over chunks [{@code lo}, {@code hi}), halving the range
+   * with hypergeometric draws.
+   * @param counts the number of links of every chunk.
+   * @param lo the first chunk (inclusive).
+   * @param hi the last chunk (exclusive).
+   * @param draws the number of links in the range.
+   * @param numPairs the total number of pairs.
+   * @param chunkPairs the number of pairs of every chunk (except, possibly, the last one).
+   * @param node the identifier of the range in the halving tree, keying its random stream.
+   */
+  private static void distribute(long[] counts, int lo, int hi, long draws, long numPairs, long chunkPairs, long node) {
+    if (hi - lo == 1) {
+      counts[lo] = draws;
+      return;
+    }
+    final int mid = (lo + hi) >>> 1;
+    final long population = Math.min(numPairs, hi * chunkPairs) - Math.min(numPairs, lo * chunkPairs);
+    final long left = Math.min(numPairs, mid * chunkPairs) - Math.min(numPairs, lo * chunkPairs);
+    final long leftDraws = hypergeometric(RandomManager.stream("datagen.gnm.counts", node), population, left, draws);
+    distribute(counts, lo, mid, leftDraws, numPairs, chunkPairs, 2 * node);
+    distribute(counts, mid, hi, draws - leftDraws, numPairs, chunkPairs, 2 * node + 1);
+  }
+
+  /**
+   * Draws the number of successes in {@code draws} draws without replacement from
+   * {@code population} items, of which {@code successes} are successes.
+   * The draw is simulated in time proportional to the smallest of the symmetric parameters.
+   * @param rnd the random stream.
+   * @param population the number of items.
+   * @param successes the number of successes.
+   * @param draws the number of draws.
+   * @return the number of drawn successes.
+   */
+  static long hypergeometric(SplittableRandom rnd, long population, long successes, long draws) {
+    if (draws > population / 2) {
+      return successes - hypergeometric(rnd, population, successes, population - draws);
+    }
+    if (successes > population / 2) {
+      return draws - hypergeometric(rnd, population, population - successes, draws);
+    }
+    if (successes < draws) {
+      final long tmp = successes;
+      successes = draws;
+      draws = tmp;
+    }
+    long drawn = 0;
+    for (long remaining = successes; draws > 0 && remaining > 0; draws--, population--) {
+      if (rnd.nextLong(population) < remaining) {
+        remaining--;
+        drawn++;
+      }
+    }
+    return drawn;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkEventConsumer;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Utility to generate timestamped link events from a base graph.
+ * Event times follow the configured {@link ArrivalProcess}, simulated by thinning where the rate
+ * varies.
+ * Every event either introduces the next link of the base graph, in dataset order, or, with the
+ * repeat probability, repeats the interaction of a uniformly chosen link already introduced, whose
+ * weight drifts by a log-normal factor; once all links are introduced, events only repeat them.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class DatagenEvents {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenEvents.class);
+
+  /**
+   * Generates link events from {@code base} into {@code consumer}, in time order.
+   * @param base the base graph.
+   * @param conf the event configuration.
+   * @param consumer the event consumer.
+   * @return the number of generated events.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when the configuration is not valid.
+   */
+  public static long generate(LinkBuffer base, EventConfiguration conf, LinkEventConsumer consumer) throws IOException {
+    validate(base, conf);
+    LOGGER.trace("Generating {} events from {} links with {}", conf.getNumEvents(), base.size(), conf);
+    SplittableRandom rnd = RandomManager.stream("datagen.events");
+    final double[] weights = new double[base.size()];
+    final double repeat = conf.getRepeatProbability();
+    final double drift = conf.getDrift();
+    int introduced = 0;
+    double time = 0.0;
+    double excitation = 0.0;
+    for (long event = 0; event < conf.getNumEvents(); event++) {
+
+      /* arrival */
+      switch (conf.getProcess()) {
+        case HAWKES: {
+          final double baseline = conf.getRate() * (1.0 - conf.getBranching());
+          while (true) {
+            final double bound = baseline + excitation;
+            final double wait = exponential(rnd, bound);
+            time += wait;
+            excitation *= Math.exp(-conf.getDecay() * wait);
+            if (rnd.nextDouble() * bound <= baseline + excitation) break;
+          }
+          excitation += conf.getBranching() * conf.getDecay();
+          break;
+        }
+        case DIURNAL: {
+          final double bound = conf.getRate() * (1.0 + conf.getAmplitude());
+          do {
+            time += exponential(rnd, bound);
+          } while (rnd.nextDouble() * bound > conf.getRate() *
+              (1.0 + conf.getAmplitude() * Math.sin(2.0 * Math.PI * time / conf.getPeriod())));
+          break;
+        }
+        default:
+          time += exponential(rnd, conf.getRate());
+      }
+
+      /* interaction */
+      final int link;
+      if (introduced < base.size() && (introduced == 0 || rnd.nextDouble() >= repeat)) {
+        link = introduced++;
+        weights[link] = base.getWeight(link);
+      } else {
+        link = rnd.nextInt(introduced);
+        if (drift > 0.0) {
+          weights[link] *= Math.exp(drift * gaussian(rnd));
+        }
+      }
+      consumer.accept((long) (time * 1000.0), base.getSrc(link), base.getDst(link), weights[link], base.getType(link));
+    }
+    return conf.getNumEvents();
+  }
+
+  /**
+   * Checks that {@code conf} can generate events from {@code base}.
+   * @param base the base graph.
+   * @param conf the event configuration.
+   * @throws IllegalArgumentException when the configuration is not valid.
+   */
+  private static void validate(LinkBuffer base, EventConfiguration conf) {
+    if (conf.getNumEvents() > 0 && base.size() == 0) {
+      throw new IllegalArgumentException("Cannot generate events without links");
+    }
+    if (!(conf.getRate() > 0.0)) {
+      throw new IllegalArgumentException("Event rate must be positive: " + conf.getRate());
+    }
+    if (!(conf.getRepeatProbability() >= 0.0 && conf.getRepeatProbability() <= 1.0)) {
+      throw new IllegalArgumentException("Repeat probability must be in [0,1]: " + conf.getRepeatProbability());
+    }
+    if (!(conf.getBranching() >= 0.0 && conf.getBranching() < 1.0) || !(conf.getDecay() > 0.0)) {
+      throw new IllegalArgumentException(String.format("Not valid Hawkes parameters: branching %f, decay %f",
+          conf.getBranching(), conf.getDecay()));
+    }
+    if (!(conf.getAmplitude() >= 0.0 && conf.getAmplitude() <= 1.0) || !(conf.getPeriod() > 0.0)) {
+      throw new IllegalArgumentException(String.format("Not valid diurnal parameters: amplitude %f, period %f",
+          conf.getAmplitude(), conf.getPeriod()));
+    }
+  }
+
+  /**
+   * Samples an exponential waiting time.
+   * @param rnd the random stream.
+   * @param rate the rate.
+   * @return the waiting time.
+   */
+  private static double exponential(SplittableRandom rnd, double rate) {
+    return -Math.log1p(-rnd.nextDouble()) / rate;
+  }
+
+  /**
+   * Samples a standard normal value (Box-Muller).
+   * @param rnd the random stream.
+   * @return the normal value.
+   */
+  private static double gaussian(SplittableRandom rnd) {
+    return Math.sqrt(-2.0 * Math.log1p(-rnd.nextDouble())) * Math.cos(2.0 * Math.PI * rnd.nextDouble());
+  }
+}
@@ -28,7 +28,10 @@ package com.acmutv.crimegraph_monitor.core.datagen;
 import com.acmutv.crimegraph_monitor.core.CoreController;
 import com.acmutv.crimegraph_monitor.core.graph.CustomWeightedEdge;
 import com.acmutv.crimegraph_monitor.core.graph.GraphController;
+import com.acmutv.crimegraph_monitor.core.graph.NodeDictionary;
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.collection.UnionFind;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -36,9 +39,8 @@ import org.apache.logging.log4j.Logger;
 import org.jgrapht.UndirectedGraph;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.ListIterator;
 
 /**
  * Utility to generate training and test sets from a original dataset for prediction.
@@ -58,39 +60,124 @@ public class DatagenPrediction {
    * @throws IOException when datasets cannot be read or written.
    */
   public static Pair<List<Link>,List<Link>> datasets(List<Link> dataset, double ratio) throws IOException {
-    final long originalSize = dataset.size();
+    Pair<LinkBuffer,LinkBuffer> sets = datasets(LinkBuffer.of(dataset), ratio);
+    return new ImmutablePair<>(sets.getLeft().toList(), sets.getRight().toList());
+  }
+
+  /**
+   * Generates the training and test sets from the original dataset with {@code ratio}, for prediction.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  public static Pair<LinkBuffer,LinkBuffer> datasets(LinkBuffer dataset, double ratio) throws IOException {
+    return datasets(dataset, ratio, SplitMode.FAST);
+  }
+
+  /**
+   * Generates the training and test sets from the original dataset with {@code ratio}, for prediction.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @param mode the split mode.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  public static Pair<LinkBuffer,LinkBuffer> datasets(LinkBuffer dataset, double ratio, SplitMode mode) throws IOException {
+    switch (mode) {
+      case REFERENCE: return reference(dataset, ratio);
+      default: return temporal(dataset, ratio);
+    }
+  }
+
+  /**
+   * Splits {@code dataset} removing the newest links whose removal does not disconnect the graph.
+   * Removing links newest-first while skipping bridges keeps exactly the spanning forest that
+   * Kruskal's algorithm builds adding links oldest-first (reverse-delete), so a single union-find
+   * pass in time order marks every removable link, in O(E &alpha;(V)) overall.
+   * On a single connected component, the split equals the one of {@link SplitMode#REFERENCE};
+   * otherwise, every connected component stays connected.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   */
+  private static Pair<LinkBuffer,LinkBuffer> temporal(LinkBuffer dataset, double ratio) {
+    final int originalSize = dataset.size();
+    final long toRemove = Math.round(ratio * originalSize);
+
+    NodeDictionary nodes = NodeDictionary.of(dataset);
+    UnionFind forest = new UnionFind(nodes.size());
+    for (int v = 0; v < nodes.size(); v++) {
+      forest.add();
+    }
+
+    BitSet removable = new BitSet(originalSize);
+    for (int i = 0; i < originalSize; i++) {
+      final int src = nodes.indexOf(dataset.getSrc(i));
+      final int dst = nodes.indexOf(dataset.getDst(i));
+      if (forest.find(src) == forest.find(dst)) {
+        removable.set(i);
+      } else {
+        forest.union(src, dst);
+      }
+    }
+    LOGGER.trace("Found {} links out of the spanning forest", removable.cardinality());
+
+    BitSet removedLinks = new BitSet(originalSize);
+    LinkBuffer testset = new LinkBuffer((int) Math.min(toRemove, originalSize));
+    long removed = 0;
+    for (int i = removable.previousSetBit(originalSize - 1); i >= 0 && removed < toRemove;
+         i = removable.previousSetBit(i - 1)) {
+      removedLinks.set(i);
+      testset.add(dataset, i);
+      removed++;
+    }
+    if (removed < toRemove) {
+      LOGGER.warn("Cannot remove {} links without disconnecting the dataset, removed {}", toRemove, removed);
+    }
+
+    return new ImmutablePair<>(dataset.select(removedLinks, false), testset);
+  }
+
+  /**
+   * Splits {@code dataset} walking links newest-first, and restoring every link whose removal
+   * disconnects the graph, as checked by a full traversal.
+   * Nothing is removed when the dataset is not a single connected component.
+   * @param dataset the original dataset.
+   * @param ratio the test ratio.
+   * @return the pair of buffers, where the first is the trainset of links, and the second is the testset of links.
+   */
+  private static Pair<LinkBuffer,LinkBuffer> reference(LinkBuffer dataset, double ratio) {
+    final int originalSize = dataset.size();
     final long toRemove = Math.round(ratio * originalSize);
 
-    List<Link> trainset = new LinkedList<>(dataset);
-    List<Link> testset = new LinkedList<>();
+    BitSet removedLinks = new BitSet(originalSize);
+    LinkBuffer testset = new LinkBuffer((int) Math.min(toRemove, originalSize));
 
-    UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(trainset);
+    UndirectedGraph<Long, CustomWeightedEdge> graph = GraphController.asGraph(dataset);
     final boolean isDatasetLCC = GraphController.isSingleConnectedComponent(graph);
     LOGGER.trace("Dataset is {}single LCC", ((isDatasetLCC)?"": "not "));
 
     long removed = 0;
-    ListIterator iter = trainset.listIterator(trainset.size());
-    while (iter.hasPrevious() && removed < toRemove) {
-     Link link = (Link) iter.previous();
-     long src = link.getSrc();
-     long dst = link.getDst();
-     double weight = link.getWeight();
-
-     graph.removeEdge(src, dst);
-     boolean isLCC = GraphController.isSingleConnectedComponent(graph);
-
-     if (!isLCC) {
-       CustomWeightedEdge edge = graph.addEdge(src, dst);
-       edge.setWeight(weight);
-       LOGGER.trace("Skipping removal of link: {}", link);
-     } else {
-       iter.remove();
-       testset.add(link);
-       removed++;
-       LOGGER.trace("Removed link ({}/{}): {}", removed, toRemove, link);
-     }
+    for (int i = originalSize - 1; i >= 0 && removed < toRemove; i--) {
+      long src = dataset.getSrc(i);
+      long dst = dataset.getDst(i);
+      double weight = dataset.getWeight(i);
+
+      graph.removeEdge(src, dst);
+      boolean isLCC = GraphController.isSingleConnectedComponent(graph);
+
+      if (!isLCC) {
+        graph.addEdge(src, dst, new CustomWeightedEdge(weight, i));
+        LOGGER.trace("Skipping removal of link: ({},{})", src, dst);
+      } else {
+        removedLinks.set(i);
+        testset.add(dataset, i);
+        removed++;
+        LOGGER.trace("Removed link ({}/{}): ({},{})", removed, toRemove, src, dst);
+      }
     }
 
-    return new ImmutablePair<>(trainset, testset);
+    return new ImmutablePair<>(dataset.select(removedLinks, false), testset);
   }
 }
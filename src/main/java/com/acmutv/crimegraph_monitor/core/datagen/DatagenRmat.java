@@ -0,0 +1,328 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Utility to generate R-MAT (recursive matrix) graphs, with 2^scale nodes.
+ * Every link descends {@code scale} levels of the adjacency matrix, choosing the quadrant at
+ * every level with probabilities (a, b, c, d), where d = 1 - a - b - c.
+ * Links are generated in fixed-size chunks, each one with its own random stream, concurrently.
+ * Without deduplication, links are emitted in chunk order.
+ * With deduplication, sorted runs of distinct (src,dst) pairs are spilled to disk and merged, so
+ * links are emitted in (src,dst) order, with weights drawn from a single mix of their pair.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class DatagenRmat {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenRmat.class);
+
+  /**
+   * The number of links per chunk.
+   */
+  static final int CHUNK_LINKS = 1 << 16;
+
+  /**
+   * The number of pairs per spilled run.
+   */
+  static final int RUN_PAIRS = 1 << 23;
+
+  /**
+   * The maximum scale, so that pairs can be packed into longs.
+   */
+  public static final int MAX_SCALE = 31;
+
+  /**
+   * Generates the R-MAT graph into {@code consumer}.
+   * @param scale the scale, so that the graph has 2^scale nodes.
+   * @param numLinks the number of generated links (before deduplication).
+   * @param a the probability of the top-left quadrant.
+   * @param b the probability of the top-right quadrant.
+   * @param c the probability of the bottom-left quadrant.
+   * @param distribution the weight distribution.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param spill the directory of spilled runs, if links must be deduplicated; null, otherwise.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of emitted links.
+   * @throws IOException when runs cannot be spilled or {@code consumer} fails.
+   * @throws IllegalArgumentException when parameters are not valid.
+   */
+  public static long generate(int scale, long numLinks, double a, double b, double c,
+                              WeightDistribution distribution, double minWeight, double maxWeight,
+                              Path spill, LinkConsumer consumer, int parallelism) throws IOException {
+    return generate(scale, numLinks, a, b, c, distribution, minWeight, maxWeight, spill, RUN_PAIRS, consumer, parallelism);
+  }
+
+  /**
+   * Generates the R-MAT graph into {@code consumer}, spilling runs of at most {@code runPairs} pairs.
+   * @param scale the scale, so that the graph has 2^scale nodes.
+   * @param numLinks the number of generated links (before deduplication).
+   * @param a the probability of the top-left quadrant.
+   * @param b the probability of the top-right quadrant.
+   * @param c the probability of the bottom-left quadrant.
+   * @param distribution the weight distribution.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param spill the directory of spilled runs, if links must be deduplicated; null, otherwise.
+   * @param runPairs the maximum number of pairs per spilled run.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of emitted links.
+   * @throws IOException when runs cannot be spilled or {@code consumer} fails.
+   * @throws IllegalArgumentException when parameters are not valid.
+   */
+  static long generate(int scale, long numLinks, double a, double b, double c,
+                       WeightDistribution distribution, double minWeight, double maxWeight,
+                       Path spill, int runPairs, LinkConsumer consumer, int parallelism) throws IOException {
+    if (scale < 1 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException(String.format("Scale must be in [1,%d]: %d", MAX_SCALE, scale));
+    }
+    if (a < 0 || b < 0 || c < 0 || a + b + c > 1.0) {
+      throw new IllegalArgumentException(String.format("Not valid R-MAT probabilities: (%f,%f,%f)", a, b, c));
+    }
+    if (numLinks < 0) {
+      throw new IllegalArgumentException("Number of links must be non-negative: " + numLinks);
+    }
+    final double ab = a + b;
+    final double abc = a + b + c;
+    final long numChunks = (numLinks + CHUNK_LINKS - 1) / CHUNK_LINKS;
+    LOGGER.trace("R-MAT({},{}): ({},{},{}) in {} chunks", scale, numLinks, a, b, c, numChunks);
+
+    DatagenChunks.ChunkGenerator generator = chunk -> {
+      final int size = (int) Math.min(CHUNK_LINKS, numLinks - chunk * CHUNK_LINKS);
+      SplittableRandom rnd = RandomManager.stream("datagen.rmat", chunk);
+      LinkBuffer links = new LinkBuffer(size);
+      for (int i = 0; i < size; i++) {
+        long src = 0;
+        long dst = 0;
+        for (int level = 0; level < scale; level++) {
+          final double r = rnd.nextDouble();
+          src <<= 1;
+          dst <<= 1;
+          if (r >= ab) {
+            src |= 1;
+            if (r >= abc) dst |= 1;
+          } else if (r >= a) {
+            dst |= 1;
+          }
+        }
+        links.add(src, dst, distribution.sample(rnd, minWeight, maxWeight), LinkType.REAL);
+      }
+      return links;
+    };
+
+    if (spill == null) {
+      return DatagenChunks.generate(numChunks, generator, consumer, parallelism);
+    }
+
+    Files.createDirectories(spill);
+    Spill runs = new Spill(spill, runPairs);
+    try {
+      DatagenChunks.generate(numChunks, generator, runs, parallelism);
+      return runs.merge(distribution, minWeight, maxWeight, consumer);
+    } finally {
+      runs.delete();
+    }
+  }
+
+  /**
+   * A link consumer collecting (src,dst) pairs into sorted runs of distinct pairs, spilled to disk.
+   */
+  private static final class Spill implements LinkConsumer {
+
+    /**
+     * The directory of runs.
+     */
+    private final Path directory;
+
+    /**
+     * The maximum number of pairs per run.
+     */
+    private final int runPairs;
+
+    /**
+     * The spilled runs.
+     */
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * The pairs of the current run.
+     */
+    private long[] pairs = new long[16];
+
+    /**
+     * The number of pairs of the current run.
+     */
+    private int size = 0;
+
+    Spill(Path directory, int runPairs) {
+      this.directory = directory;
+      this.runPairs = runPairs;
+    }
+
+    @Override
+    public void accept(long src, long dst, double weight, LinkType type) throws IOException {
+      if (this.size == this.pairs.length) {
+        if (this.size == this.runPairs) {
+          this.spill();
+        } else {
+          this.pairs = Arrays.copyOf(this.pairs, Math.min(this.runPairs, 2 * this.size));
+        }
+      }
+      this.pairs[this.size++] = (src << 32) | dst;
+    }
+
+    /**
+     * Sorts and deduplicates the current run.
+     * @return the number of distinct pairs.
+     */
+    private int sort() {
+      Arrays.parallelSort(this.pairs, 0, this.size);
+      int distinct = 0;
+      for (int i = 0; i < this.size; i++) {
+        if (distinct == 0 || this.pairs[i] != this.pairs[distinct - 1]) {
+          this.pairs[distinct++] = this.pairs[i];
+        }
+      }
+      return distinct;
+    }
+
+    /**
+     * Spills the current run to disk.
+     * @throws IOException when the run cannot be written.
+     */
+    private void spill() throws IOException {
+      final int distinct = this.sort();
+      Path run = Files.createTempFile(this.directory, "rmat-", ".run");
+      this.runs.add(run);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+        for (int i = 0; i < distinct; i++) {
+          out.writeLong(this.pairs[i]);
+        }
+      }
+      LOGGER.trace("Spilled run {} with {} pairs", run, distinct);
+      this.size = 0;
+    }
+
+    /**
+     * Merges all runs, emitting every distinct pair once.
+     * @param distribution the weight distribution.
+     * @param minWeight the minimum link weight.
+     * @param maxWeight the maximum link weight.
+     * @param consumer the link consumer.
+     * @return the number of emitted links.
+     * @throws IOException when runs cannot be read or {@code consumer} fails.
+     */
+    long merge(WeightDistribution distribution, double minWeight, double maxWeight, LinkConsumer consumer) throws IOException {
+      final long key = RandomManager.key("datagen.rmat.weight");
+      if (this.runs.isEmpty()) {
+        final int distinct = this.sort();
+        for (int i = 0; i < distinct; i++) {
+          emit(this.pairs[i], key, distribution, minWeight, maxWeight, consumer);
+        }
+        return distinct;
+      }
+      if (this.size > 0) {
+        this.spill();
+      }
+      this.pairs = null;
+
+      List<DataInputStream> inputs = new ArrayList<>(this.runs.size());
+      try {
+        PriorityQueue<long[]> heads = new PriorityQueue<>(Comparator.comparingLong(head -> head[0]));
+        for (Path run : this.runs) {
+          DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+          inputs.add(in);
+          heads.add(new long[]{in.readLong(), inputs.size() - 1, Files.size(run) / 8 - 1});
+        }
+        long emitted = 0;
+        boolean first = true;
+        long last = 0;
+        while (!heads.isEmpty()) {
+          long[] head = heads.poll();
+          if (first || head[0] != last) {
+            emit(head[0], key, distribution, minWeight, maxWeight, consumer);
+            emitted++;
+            last = head[0];
+            first = false;
+          }
+          if (head[2] > 0) {
+            head[0] = inputs.get((int) head[1]).readLong();
+            head[2]--;
+            heads.add(head);
+          }
+        }
+        return emitted;
+      } finally {
+        for (DataInputStream in : inputs) {
+          in.close();
+        }
+      }
+    }
+
+    /**
+     * Deletes all runs.
+     * @throws IOException when runs cannot be deleted.
+     */
+    void delete() throws IOException {
+      for (Path run : this.runs) {
+        Files.deleteIfExists(run);
+      }
+    }
+
+    /**
+     * Emits the link of {@code pair}.
+     * @param pair the packed (src,dst) pair.
+     * @param key the key of weights.
+     * @param distribution the weight distribution.
+     * @param minWeight the minimum link weight.
+     * @param maxWeight the maximum link weight.
+     * @param consumer the link consumer.
+     * @throws IOException when {@code consumer} fails.
+     */
+    private static void emit(long pair, long key, WeightDistribution distribution, double minWeight, double maxWeight,
+                             LinkConsumer consumer) throws IOException {
+      final double weight = distribution.sample(RandomManager.uniform(key, pair), minWeight, maxWeight);
+      consumer.accept(pair >>> 32, pair & 0xFFFFFFFFL, weight, LinkType.REAL);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Utility to generate stochastic block model (planted partition) graphs.
+ * Nodes are numbered block by block, so that block b holds the nodes
+ * [size(0) + ... + size(b-1), size(0) + ... + size(b)).
+ * Every pair of nodes is linked with the intra-block probability if both nodes are in the same
+ * block, with the inter-block probability otherwise; weights are drawn from the intra-block or
+ * inter-block distribution likewise.
+ * Every block pair is an independent G(n,p) space, partitioned into chunks generated concurrently
+ * with their own random stream (see {@link RandomManager}) and emitted in block pair order.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class DatagenStochasticBlock {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenStochasticBlock.class);
+
+  /**
+   * Generates the stochastic block model graph into {@code consumer}.
+   * @param blockSizes the number of nodes of every block.
+   * @param intraProbability the probability of links within blocks.
+   * @param interProbability the probability of links between blocks.
+   * @param intraDistribution the weight distribution of links within blocks.
+   * @param interDistribution the weight distribution of links between blocks.
+   * @param minWeight the minimum link weight.
+   * @param maxWeight the maximum link weight.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when parameters are not valid.
+   */
+  public static long generate(int[] blockSizes, double intraProbability, double interProbability,
+                              WeightDistribution intraDistribution, WeightDistribution interDistribution,
+                              double minWeight, double maxWeight,
+                              LinkConsumer consumer, int parallelism) throws IOException {
+    if (!(intraProbability >= 0.0 && intraProbability <= 1.0) || !(interProbability >= 0.0 && interProbability <= 1.0)) {
+      throw new IllegalArgumentException(String.format("Link probabilities must be in [0,1]: (%f,%f)",
+          intraProbability, interProbability));
+    }
+    final int numBlocks = blockSizes.length;
+    final long[] offsets = offsets(blockSizes);
+
+    /* block pairs (i,j), with i <= j, and their first chunk */
+    final int numBlockPairs = numBlocks * (numBlocks + 1) / 2;
+    final int[] lows = new int[numBlockPairs];
+    final int[] highs = new int[numBlockPairs];
+    final long[] firstChunks = new long[numBlockPairs + 1];
+    final long[] chunkPairs = new long[numBlockPairs];
+    int blockPair = 0;
+    for (int i = 0; i < numBlocks; i++) {
+      for (int j = i; j < numBlocks; j++) {
+        final long numPairs = (i == j) ? DatagenErdosRenyi.numPairs(blockSizes[i]) : (long) blockSizes[i] * blockSizes[j];
+        final double probability = (i == j) ? intraProbability : interProbability;
+        final long numChunks = (numPairs == 0 || probability == 0.0) ? 0 :
+            GeometricSkipSampler.numChunks(numPairs, probability);
+        lows[blockPair] = i;
+        highs[blockPair] = j;
+        chunkPairs[blockPair] = (numChunks == 0) ? 0 : (numPairs - 1) / numChunks + 1;
+        firstChunks[blockPair + 1] = firstChunks[blockPair] + numChunks;
+        blockPair++;
+      }
+    }
+    final long numChunks = firstChunks[numBlockPairs];
+    LOGGER.trace("SBM({} blocks,{},{}): {} chunks", numBlocks, intraProbability, interProbability, numChunks);
+
+    return DatagenChunks.generate(numChunks, chunk -> {
+      int found = Arrays.binarySearch(firstChunks, chunk);
+      if (found < 0) {
+        found = -found - 2;
+      } else {
+        /* skip block pairs without chunks */
+        while (firstChunks[found + 1] == chunk) found++;
+      }
+      final int bp = found;
+      final int i = lows[bp];
+      final int j = highs[bp];
+      final boolean intra = (i == j);
+      final long numPairs = intra ? DatagenErdosRenyi.numPairs(blockSizes[i]) : (long) blockSizes[i] * blockSizes[j];
+      final double probability = intra ? intraProbability : interProbability;
+      final WeightDistribution distribution = intra ? intraDistribution : interDistribution;
+      final long from = Math.min(numPairs, (chunk - firstChunks[bp]) * chunkPairs[bp]);
+      final long to = Math.min(numPairs, from + chunkPairs[bp]);
+      SplittableRandom rnd = RandomManager.stream("datagen.sbm", chunk);
+      LinkBuffer links = GeometricSkipSampler.buffer(probability, from, to);
+      GeometricSkipSampler.sample(from, to, probability, rnd, k -> {
+        final long src;
+        final long dst;
+        if (intra) {
+          final long y = DatagenErdosRenyi.pairHigh(k);
+          src = offsets[i] + k - y * (y - 1) / 2;
+          dst = offsets[i] + y;
+        } else {
+          src = offsets[i] + k / blockSizes[j];
+          dst = offsets[j] + k % blockSizes[j];
+        }
+        links.add(src, dst, distribution.sample(rnd, minWeight, maxWeight), LinkType.REAL);
+      });
+      return links;
+    }, consumer, parallelism);
+  }
+
+  /**
+   * Writes into {@code output} the ground-truth community of every node, i.e. its block, as lines
+   * {@code (node,community)}.
+   * @param output the file to write.
+   * @param blockSizes the number of nodes of every block.
+   * @return the number of written nodes.
+   * @throws IOException when {@code output} cannot be written.
+   */
+  public static long communities(Path output, int[] blockSizes) throws IOException {
+    final long[] offsets = offsets(blockSizes);
+    try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      for (int block = 0; block < blockSizes.length; block++) {
+        for (long node = offsets[block]; node < offsets[block + 1]; node++) {
+          writer.write(String.format("(%d,%d)\n", node, block));
+        }
+      }
+    }
+    return offsets[blockSizes.length];
+  }
+
+  /**
+   * Returns the first node of every block, followed by the total number of nodes.
+   * @param blockSizes the number of nodes of every block.
+   * @return the offsets of blocks.
+   * @throws IllegalArgumentException when a block size is negative.
+   */
+  private static long[] offsets(int[] blockSizes) {
+    final long[] offsets = new long[blockSizes.length + 1];
+    for (int block = 0; block < blockSizes.length; block++) {
+      if (blockSizes[block] < 0) {
+        throw new IllegalArgumentException("Block size must be non-negative: " + blockSizes[block]);
+      }
+      offsets[block + 1] = offsets[block] + blockSizes[block];
+    }
+    return offsets;
+  }
+}
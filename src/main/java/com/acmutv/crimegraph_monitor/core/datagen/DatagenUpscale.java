@@ -0,0 +1,213 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.graph.NodeDictionary;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import com.acmutv.crimegraph_monitor.tool.collection.LongIntHashMap;
+import com.acmutv.crimegraph_monitor.tool.random.AliasTable;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Chung-Lu model fitted on a dataset, to generate graphs {@code factor} times larger with the
+ * same degree and weight distributions.
+ * The generated graph has {@code factor} replicas of every original node, numbered
+ * {@code replica * numNodes + index}, each one with the expected degree of its original node.
+ * Both endpoints of every link are drawn proportionally to degrees from an {@link AliasTable} over
+ * original nodes, followed by a uniform replica; weights are drawn from the weight histogram.
+ * Self-loops are rejected and drawn again; parallel links are kept, as in the Chung-Lu model.
+ * Links are generated in chunks, concurrently, with their own random stream
+ * (see {@link RandomManager}) and emitted in chunk order.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Getter
+public class DatagenUpscale {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatagenUpscale.class);
+
+  /**
+   * The number of links per chunk.
+   */
+  static final int CHUNK_LINKS = 1 << 16;
+
+  /**
+   * The number of original nodes.
+   */
+  private final int numNodes;
+
+  /**
+   * The number of original links, self-loops excluded.
+   */
+  private final long numLinks;
+
+  /**
+   * The degree of every original node.
+   */
+  private final int[] degrees;
+
+  /**
+   * The distinct original weights.
+   */
+  private final double[] weights;
+
+  /**
+   * The number of original links of every distinct weight.
+   */
+  private final int[] weightCounts;
+
+  /**
+   * The table to sample nodes proportionally to degrees.
+   */
+  @Getter(AccessLevel.NONE)
+  private final AliasTable nodeTable;
+
+  /**
+   * The table to sample weights from the histogram.
+   */
+  @Getter(AccessLevel.NONE)
+  private final AliasTable weightTable;
+
+  /**
+   * Constructs the model of the given degree sequence and weight histogram.
+   * @param degrees the degree of every original node.
+   * @param weights the distinct original weights.
+   * @param weightCounts the number of original links of every distinct weight.
+   * @throws IllegalArgumentException when there are no links.
+   */
+  DatagenUpscale(int[] degrees, double[] weights, int[] weightCounts) {
+    this.numNodes = degrees.length;
+    this.numLinks = Arrays.stream(weightCounts).asLongStream().sum();
+    if (this.numLinks == 0) {
+      throw new IllegalArgumentException("Cannot upscale a dataset without links");
+    }
+    this.degrees = degrees;
+    this.weights = weights;
+    this.weightCounts = weightCounts;
+    this.nodeTable = new AliasTable(Arrays.stream(degrees).asDoubleStream().toArray());
+    this.weightTable = new AliasTable(Arrays.stream(weightCounts).asDoubleStream().toArray());
+  }
+
+  /**
+   * Fits the degree sequence and the weight histogram of {@code dataset}.
+   * Self-loops are ignored.
+   * @param dataset the dataset to fit.
+   * @return the fitted model.
+   * @throws IOException when {@code dataset} cannot be read.
+   * @throws IllegalArgumentException when {@code dataset} has no links.
+   */
+  public static DatagenUpscale fit(Path dataset) throws IOException {
+    final NodeDictionary nodes = new NodeDictionary();
+    final LongIntHashMap weightIndices = new LongIntHashMap();
+    final int[][] degrees = {new int[16]};
+    final double[][] weights = {new double[16]};
+    final int[][] weightCounts = {new int[16]};
+    Links.forEach(dataset, (src, dst, weight, type) -> {
+      final int srcIndex = nodes.index(src);
+      final int dstIndex = nodes.index(dst);
+      if (src == dst) {
+        return;
+      }
+      if (nodes.size() > degrees[0].length) {
+        degrees[0] = Arrays.copyOf(degrees[0], 2 * nodes.size());
+      }
+      degrees[0][srcIndex]++;
+      degrees[0][dstIndex]++;
+      final int distinct = weightIndices.size();
+      final int weightIndex = weightIndices.putIfAbsent(Double.doubleToLongBits(weight), distinct);
+      if (weightIndex == distinct) {
+        if (distinct == weights[0].length) {
+          weights[0] = Arrays.copyOf(weights[0], 2 * distinct);
+          weightCounts[0] = Arrays.copyOf(weightCounts[0], 2 * distinct);
+        }
+        weights[0][distinct] = weight;
+      }
+      weightCounts[0][weightIndex]++;
+    });
+    final int numWeights = weightIndices.size();
+    LOGGER.trace("Fitted {}: {} nodes, {} distinct weights", dataset, nodes.size(), numWeights);
+    return new DatagenUpscale(Arrays.copyOf(degrees[0], nodes.size()),
+        Arrays.copyOf(weights[0], numWeights), Arrays.copyOf(weightCounts[0], numWeights));
+  }
+
+  /**
+   * Generates the graph {@code factor} times larger into {@code consumer}.
+   * @param factor the upscaling factor, i.e. the number of replicas of every node and link.
+   * @param consumer the link consumer.
+   * @param parallelism the number of workers.
+   * @return the number of generated links.
+   * @throws IOException when {@code consumer} fails.
+   * @throws IllegalArgumentException when {@code factor} is not positive.
+   */
+  public long generate(int factor, LinkConsumer consumer, int parallelism) throws IOException {
+    if (factor < 1) {
+      throw new IllegalArgumentException("Upscaling factor must be positive: " + factor);
+    }
+    final long total = this.numLinks * factor;
+    final long numChunks = (total + CHUNK_LINKS - 1) / CHUNK_LINKS;
+    LOGGER.trace("Upscaling by {}: {} links in {} chunks", factor, total, numChunks);
+    return DatagenChunks.generate(numChunks, chunk -> {
+      final int size = (int) Math.min(CHUNK_LINKS, total - chunk * CHUNK_LINKS);
+      SplittableRandom rnd = RandomManager.stream("datagen.upscale", chunk);
+      LinkBuffer links = new LinkBuffer(size);
+      for (int i = 0; i < size; i++) {
+        long src;
+        long dst;
+        do {
+          src = this.node(rnd, factor);
+          dst = this.node(rnd, factor);
+        } while (src == dst);
+        links.add(src, dst, this.weights[this.weightTable.sample(rnd)], LinkType.REAL);
+      }
+      return links;
+    }, consumer, parallelism);
+  }
+
+  /**
+   * Samples a node proportionally to degrees, in a uniform replica.
+   * @param rnd the random stream.
+   * @param factor the number of replicas.
+   * @return the node id.
+   */
+  private long node(SplittableRandom rnd, int factor) {
+    final long replica = (factor == 1) ? 0 : rnd.nextInt(factor);
+    return replica * this.numNodes + this.nodeTable.sample(rnd);
+  }
+}
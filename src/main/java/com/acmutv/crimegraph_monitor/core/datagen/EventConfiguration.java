@@ -0,0 +1,100 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import lombok.Data;
+
+import java.util.Properties;
+
+/**
+ * A configuration model of link event generation.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenEvents
+ */
+@Data
+public class EventConfiguration {
+
+  /**
+   * The arrival process.
+   */
+  private ArrivalProcess process = ArrivalProcess.POISSON;
+
+  /**
+   * The average number of events per second.
+   */
+  private double rate = 100.0;
+
+  /**
+   * The number of events.
+   */
+  private long numEvents = 1000;
+
+  /**
+   * The probability that an event repeats the interaction of an already introduced link.
+   */
+  private double repeatProbability = 0.0;
+
+  /**
+   * The standard deviation of the log-weight change at every repeated interaction.
+   */
+  private double drift = 0.0;
+
+  /**
+   * The branching ratio of {@link ArrivalProcess#HAWKES}, i.e. the expected number of events
+   * triggered by every event, in [0,1).
+   */
+  private double branching = 0.5;
+
+  /**
+   * The decay rate of excitation of {@link ArrivalProcess#HAWKES}, per second.
+   */
+  private double decay = 1.0;
+
+  /**
+   * The relative amplitude of the rate of {@link ArrivalProcess#DIURNAL}, in [0,1].
+   */
+  private double amplitude = 0.5;
+
+  /**
+   * The period of the rate of {@link ArrivalProcess#DIURNAL}, in seconds.
+   */
+  private double period = 86400.0;
+
+  /**
+   * Overrides process parameters with those in {@code params} (branching, decay, amplitude,
+   * period), when present.
+   * @param params the process parameters.
+   */
+  public void setParams(Properties params) {
+    this.branching = Double.valueOf(params.getProperty("branching", String.valueOf(this.branching)));
+    this.decay = Double.valueOf(params.getProperty("decay", String.valueOf(this.decay)));
+    this.amplitude = Double.valueOf(params.getProperty("amplitude", String.valueOf(this.amplitude)));
+    this.period = Double.valueOf(params.getProperty("period", String.valueOf(this.period)));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Utility to sample the positions of a linearized space of node pairs, each one independently
+ * with the same probability, skipping over non-links with geometric jumps (Batagelj-Brandes), in
+ * time proportional to the number of sampled positions.
+ * Spaces are partitioned into chunks of {@link #CHUNK_LINKS} expected links.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenErdosRenyi
+ * @see DatagenStochasticBlock
+ */
+final class GeometricSkipSampler {
+
+  /**
+   * The expected number of links per chunk.
+   */
+  static final long CHUNK_LINKS = 1 << 16;
+
+  private GeometricSkipSampler() {}
+
+  /**
+   * Returns the number of chunks of a space of {@code numPairs} positions, sampled with
+   * {@code probability}.
+   * @param numPairs the number of positions.
+   * @param probability the probability of every position.
+   * @return the number of chunks, at least 1.
+   */
+  static long numChunks(long numPairs, double probability) {
+    return Math.max(1, Math.min(numPairs, (long) Math.ceil(probability * numPairs / CHUNK_LINKS)));
+  }
+
+  /**
+   * Returns a buffer sized for the links sampled in positions [{@code from}, {@code to}).
+   * @param probability the probability of every position.
+   * @param from the first position (inclusive).
+   * @param to the last position (exclusive).
+   * @return the buffer.
+   */
+  static LinkBuffer buffer(double probability, long from, long to) {
+    return new LinkBuffer((int) Math.min(CHUNK_LINKS, probability * (to - from)) + 16);
+  }
+
+  /**
+   * Samples positions [{@code from}, {@code to}) with {@code probability}, pushing the sampled
+   * ones to {@code consumer} in increasing order.
+   * @param from the first position (inclusive).
+   * @param to the last position (exclusive).
+   * @param probability the probability of every position.
+   * @param rnd the random stream.
+   * @param consumer the consumer of sampled positions.
+   */
+  static void sample(long from, long to, double probability, SplittableRandom rnd, LongConsumer consumer) {
+    if (probability == 0.0) {
+      return;
+    }
+    final double logq = Math.log1p(-probability);
+    long k = from - 1;
+    while (true) {
+      if (probability == 1.0) {
+        k++;
+      } else {
+        final double skip = Math.floor(Math.log1p(-rnd.nextDouble()) / logq);
+        if (skip >= to - k - 1) break;
+        k += 1 + (long) skip;
+      }
+      if (k >= to) break;
+      consumer.accept(k);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import lombok.Getter;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distributions of generated link weights, in [min, max).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Getter
+public enum WeightDistribution {
+  UNIFORM ("UNIFORM"),
+  PARETO  ("PARETO");
+
+  private final String name;
+
+  WeightDistribution(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Samples a weight in [{@code min}, {@code max}).
+   * {@code PARETO} is the bounded Pareto distribution with shape 1, so that most weights are
+   * close to {@code min}; it requires {@code min} &gt; 0.
+   * @param rnd the random stream.
+   * @param min the minimum weight.
+   * @param max the maximum weight.
+   * @return the weight.
+   */
+  public double sample(SplittableRandom rnd, double min, double max) {
+    return this.sample(rnd.nextDouble(), min, max);
+  }
+
+  /**
+   * Returns the weight in [{@code min}, {@code max}) for the uniform value {@code u}.
+   * @param u the uniform value in [0,1).
+   * @param min the minimum weight.
+   * @param max the maximum weight.
+   * @return the weight.
+   */
+  public double sample(double u, double min, double max) {
+    switch (this) {
+      case PARETO: return min / (1.0 - u * (1.0 - min / max));
+      default: return u * (max - min) + min;
+    }
+  }
+
+  /**
+   * Returns the weight distribution from {@code string}.
+   * @param string the string to parse.
+   * @return the weight distribution.
+   */
+  public static WeightDistribution fromString(String string) {
+    for (WeightDistribution distribution : WeightDistribution.values()) {
+      if (distribution.name.equalsIgnoreCase(string)) {
+        return distribution;
+      }
+    }
+    return null;
+  }
+}
@@ -28,25 +28,25 @@ package com.acmutv.crimegraph_monitor.core.evaluation;
 
 import com.acmutv.crimegraph_monitor.core.db.DbConfiguration;
 import com.acmutv.crimegraph_monitor.core.db.Neo4JManager;
+import com.acmutv.crimegraph_monitor.core.graph.Communities;
+import com.acmutv.crimegraph_monitor.core.graph.NodeDictionary;
 import com.acmutv.crimegraph_monitor.core.metric.MetricType;
-import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.Links;
 import com.acmutv.crimegraph_monitor.core.link.LinkType;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
+import com.acmutv.crimegraph_monitor.tool.collection.LongHashSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.neo4j.driver.v1.*;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.acmutv.crimegraph_monitor.core.evaluation.EvaluationQueries.GET_PARTIAL_N1N2_GENERAL;
 import static com.acmutv.crimegraph_monitor.core.evaluation.EvaluationQueries.GET_TOP_GENERAL;
@@ -77,153 +77,122 @@ public class EvaluationController {
    * @throws IOException when datasets cannot be read.
    */
   public static Properties auc(DbConfiguration dbconf, MetricType metric, Path dataset, Path trainset, Path testset) throws IOException {
+    return auc(dbconf, metric, dataset, trainset, testset, null);
+  }
+
+  /**
+   * Writes in {@code output} the AUC analysis of detection on the graph pointed by {@code dbconf}
+   * with the specified {@code dataset}, {@code trainingset} and {@code testset}, broken down by
+   * intra-community and inter-community missing links when {@code communities} is given.
+   * @param dbconf the database configuration.
+   * @param metric the metric to evaluate.
+   * @param dataset the original dataset.
+   * @param trainset the training set.
+   * @param testset the test set.
+   * @param communities the ground-truth communities; null, for no breakdown.
+   * @return the result.
+   * @throws IOException when datasets cannot be read.
+   */
+  public static Properties auc(DbConfiguration dbconf, MetricType metric, Path dataset, Path trainset, Path testset,
+                               Communities communities) throws IOException {
     LOGGER.info("Evaluating AUC for {}", metric.name());
     Driver driver = Neo4JManager.open(dbconf);
     Session session = driver.session(AccessMode.READ);
 
     /* DATASET LINKS */
-    long examinedDataset = 0;
-    long totalDataset = Files.lines(dataset).count();
-    double progressDataset;
+    final AtomicLong examinedDataset = new AtomicLong();
+    final long totalDataset = Links.count(dataset);
     double paceDataset = 5.0;
     LOGGER.info("Generating dataset links: {} links", totalDataset);
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection") Set<Long> nodes_dataset = new HashSet<>(); // existent nodes
-    Set<Pair<Long,Long>> links_dataset = new HashSet<>(); // existent links
-    try (BufferedReader datasetReader = Files.newBufferedReader(dataset)) {
-      while (datasetReader.ready()) {
-        String line = datasetReader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-
-        long src = link.getSrc();
-        long dst = link.getDst();
-
-        nodes_dataset.add(src);
-        nodes_dataset.add(dst);
-
-        if (src < dst) {
-          links_dataset.add(new ImmutablePair<>(src, dst));
-        } else if (dst < src) {
-          links_dataset.add(new ImmutablePair<>(dst, src));
-        }
+    final NodeDictionary nodes = new NodeDictionary();
+    LongHashSet links_dataset = new LongHashSet(); // existent links
+    Links.forEach(dataset, (src, dst, weight, type) -> {
+      final int srcIndex = nodes.index(src);
+      final int dstIndex = nodes.index(dst);
+      if (src != dst) {
+        links_dataset.add(NodeDictionary.pair(srcIndex, dstIndex));
+      }
 
-        examinedDataset++;
-        progressDataset = 100.0 * ((double)examinedDataset / (double)totalDataset);
-        if (progressDataset % paceDataset < 0.01) {
-          LOGGER.info("progress (dataset): {}% :: examined : {}/{} ", Math.round(progressDataset), examinedDataset, totalDataset);
-        }
+      final long examined = examinedDataset.incrementAndGet();
+      final double progressDataset = 100.0 * ((double)examined / (double)totalDataset);
+      if (progressDataset % paceDataset < 0.01) {
+        LOGGER.info("progress (dataset): {}% :: examined : {}/{} ", Math.round(progressDataset), examined, totalDataset);
       }
-    }
+    });
 
-    long numnodes_dataset = nodes_dataset.size();
+    long numnodes_dataset = nodes.size(); // existent nodes
     long numlinks_dataset = links_dataset.size();
     LOGGER.info("Generated dataset links (nodes: {} | links: {})", numnodes_dataset, numlinks_dataset);
 
     /* TRAINSET LINKS */
-    long examinedTrainset = 0;
-    long totalTrainset = Files.lines(trainset).count();
-    double progressTrainset;
+    final AtomicLong examinedTrainset = new AtomicLong();
+    final long totalTrainset = Links.count(trainset);
     double paceTrainset = 5.0;
     LOGGER.info("Generating trainset links: {} links", totalTrainset);
-    Set<Long> nodes_trainset = new HashSet<>(); // existent nodes in training set
-    Set<Pair<Long,Long>> links_trainset = new HashSet<>(); // existent links in training set
-    try (BufferedReader trainingReader = Files.newBufferedReader(trainset)) {
-      while (trainingReader.ready()) {
-        String line = trainingReader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-        long src = link.getSrc();
-        long dst = link.getDst();
-
-        nodes_trainset.add(src);
-        nodes_trainset.add(dst);
-
-        if (src < dst) {
-          links_trainset.add(new ImmutablePair<>(src, dst));
-        } else if (dst < src) {
-          links_trainset.add(new ImmutablePair<>(dst, src));
-        }
+    BitSet nodes_trainset = new BitSet(nodes.size()); // existent nodes in training set
+    LongHashSet links_trainset = new LongHashSet(); // existent links in training set
+    Links.forEach(trainset, (src, dst, weight, type) -> {
+      final int srcIndex = nodes.index(src);
+      final int dstIndex = nodes.index(dst);
+      nodes_trainset.set(srcIndex);
+      nodes_trainset.set(dstIndex);
+
+      if (src != dst) {
+        links_trainset.add(NodeDictionary.pair(srcIndex, dstIndex));
+      }
 
-        examinedTrainset++;
-        progressTrainset = 100.0 * ((double)examinedTrainset / (double)totalTrainset);
-        if (progressTrainset % paceTrainset < 0.01) {
-          LOGGER.info("progress (trainset): {}% :: examined : {}/{} ", Math.round(progressTrainset), examinedTrainset, totalTrainset);
-        }
+      final long examined = examinedTrainset.incrementAndGet();
+      final double progressTrainset = 100.0 * ((double)examined / (double)totalTrainset);
+      if (progressTrainset % paceTrainset < 0.01) {
+        LOGGER.info("progress (trainset): {}% :: examined : {}/{} ", Math.round(progressTrainset), examined, totalTrainset);
       }
-    }
-    int numnodes_trainset = nodes_trainset.size();
+    });
+    int numnodes_trainset = nodes_trainset.cardinality();
     int numlinks_trainset = links_trainset.size();
     LOGGER.info("Generated trainset links (nodes: {} | links: {})", numnodes_trainset, numlinks_trainset);
 
     /* MISSING LINKS */
-    long examinedMissing = 0;
-    long totalMissing = Files.lines(testset).count();
-    double progressMissing;
+    final AtomicLong examinedMissing = new AtomicLong();
+    final long totalMissing = Links.count(testset);
     double paceMissing = 5.0;
     LOGGER.info("Generating missing links: {} links", totalMissing);
-    Set<Pair<Long,Long>> links_missing = new HashSet<>(); // links in test set between nodes connected in training set
-    try (BufferedReader testReader = Files.newBufferedReader(testset)) {
-      while (testReader.ready()) {
-        String line = testReader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-
-        long src = link.getSrc();
-        long dst = link.getDst();
-
-        if (nodes_trainset.contains(src) && nodes_trainset.contains(dst)) {
-          if (src < dst) {
-            links_missing.add(new ImmutablePair<>(src, dst));
-          } else if (dst < src) {
-            links_missing.add(new ImmutablePair<>(dst, src));
-          }
-          LOGGER.info("Missing link added: {}", link);
-        }
-        examinedMissing++;
-        progressMissing = 100.0 * ((double)examinedMissing / (double)totalMissing);
-        if (progressMissing % paceMissing < 0.01) {
-          LOGGER.info("progress (missing): {}% :: examined : {}/{} ", Math.round(progressMissing), examinedMissing, totalMissing);
+    LongHashSet links_missing = new LongHashSet(); // links in test set between nodes connected in training set
+    Links.forEach(testset, (src, dst, weight, type) -> {
+      final int srcIndex = nodes.indexOf(src);
+      final int dstIndex = nodes.indexOf(dst);
+      if (srcIndex >= 0 && dstIndex >= 0 && nodes_trainset.get(srcIndex) && nodes_trainset.get(dstIndex)) {
+        if (src != dst) {
+          links_missing.add(NodeDictionary.pair(srcIndex, dstIndex));
         }
+        LOGGER.info("Missing link added: ({},{})", src, dst);
       }
-    }
+      final long examined = examinedMissing.incrementAndGet();
+      final double progressMissing = 100.0 * ((double)examined / (double)totalMissing);
+      if (progressMissing % paceMissing < 0.01) {
+        LOGGER.info("progress (missing): {}% :: examined : {}/{} ", Math.round(progressMissing), examined, totalMissing);
+      }
+    });
     long numlinks_missing = links_missing.size();
     LOGGER.info("Generated missing links (links: {})", numlinks_missing);
 
     /* NOT EXISTING LINKS */
     long examinedNotexisting = 0;
     //long totalNotexisting = Files.lines(testset).count() * Files.lines(testset).count();
-    long totalNotexisting = ((nodes_dataset.size() * (nodes_dataset.size() - 1)) / 2) - links_dataset.size();
+    long totalNotexisting = ((numnodes_dataset * (numnodes_dataset - 1)) / 2) - links_dataset.size();
     double progressNotexisting;
     double paceNotexisting = 5.0;
     LOGGER.info("Generating not existing links: at most {} links", totalNotexisting);
-    Set<Pair<Long,Long>> links_notexistent = new HashSet<>(); // link not existent in origin, between nodes connected in training set
-    for (long src : nodes_trainset) {
-      for (long dst : nodes_trainset) {
-        if (src < dst) {
-          Pair<Long,Long> link = new ImmutablePair<>(src, dst);
-          if (!links_dataset.contains(link)) {
-            links_notexistent.add(link);
-            LOGGER.debug("Not existent link: ({},{})", src, dst);
-            examinedNotexisting++;
-            progressNotexisting = 100.0 * ((double)examinedNotexisting / (double)totalNotexisting);
-            if (progressNotexisting % paceNotexisting < 0.01) {
-              LOGGER.info("progress (not existing): {}% :: examined : {}/{} ", Math.round(progressNotexisting), examinedNotexisting, totalNotexisting);
-            }
+    LongHashSet links_notexistent = new LongHashSet(); // link not existent in origin, between nodes connected in training set
+    for (int src = nodes_trainset.nextSetBit(0); src >= 0; src = nodes_trainset.nextSetBit(src + 1)) {
+      for (int dst = nodes_trainset.nextSetBit(src + 1); dst >= 0; dst = nodes_trainset.nextSetBit(dst + 1)) {
+        final long link = NodeDictionary.pair(src, dst);
+        if (!links_dataset.contains(link)) {
+          links_notexistent.add(link);
+          LOGGER.debug("Not existent link: ({},{})", nodes.idOf(src), nodes.idOf(dst));
+          examinedNotexisting++;
+          progressNotexisting = 100.0 * ((double)examinedNotexisting / (double)totalNotexisting);
+          if (progressNotexisting % paceNotexisting < 0.01) {
+            LOGGER.info("progress (not existing): {}% :: examined : {}/{} ", Math.round(progressNotexisting), examinedNotexisting, totalNotexisting);
           }
         }
       }
@@ -242,12 +211,24 @@ public class EvaluationController {
     long n1 = 0; // numero di volte in cui lo score di un missing link è maggiore di quello di un link non esistente.
     long n2 = 0; // numero di volte in cui lo score di un missing link è uguale a quello di un link non esistente.
     long n = 0;
-    for (Pair<Long,Long> missingLink : links_missing) {
-      for (Pair<Long,Long> notExistentLink : links_notexistent) {
-        long src1 = missingLink.getLeft();
-        long dst1 = missingLink.getRight();
-        long src2 = notExistentLink.getLeft();
-        long dst2 = notExistentLink.getRight();
+    long intra_n1 = 0;
+    long intra_n2 = 0;
+    long intra_n = 0;
+    long intra_missing = 0;
+    final long[] missingLinks = links_missing.toArray();
+    final long[] notExistentLinks = links_notexistent.toArray();
+    for (long missingLink : missingLinks) {
+      final boolean intra = (communities != null) && isIntra(communities, nodes, missingLink);
+      if (intra) intra_missing++;
+      for (long notExistentLink : notExistentLinks) {
+        long x1 = nodes.idOf(NodeDictionary.pairLow(missingLink));
+        long y1 = nodes.idOf(NodeDictionary.pairHigh(missingLink));
+        long x2 = nodes.idOf(NodeDictionary.pairLow(notExistentLink));
+        long y2 = nodes.idOf(NodeDictionary.pairHigh(notExistentLink));
+        long src1 = Math.min(x1, y1);
+        long dst1 = Math.max(x1, y1);
+        long src2 = Math.min(x2, y2);
+        long dst2 = Math.max(x2, y2);
         Value params = parameters("src1", src1, "dst1", dst1, "src2", src2, "dst2", dst2);
         StatementResult result = session.run(GET_PARTIAL_N1N2_METRIC, params);
         if (result.hasNext()) {
@@ -260,6 +241,11 @@ public class EvaluationController {
           if (n1_bool) n1++;
           if (n2_bool) n2++;
           n++;
+          if (intra) {
+            if (n1_bool) intra_n1++;
+            if (n2_bool) intra_n2++;
+            intra_n++;
+          }
         } else {
           LOGGER.error("Ignored comparison ({},{}) ({},{})", src1, dst1, src2, dst2);
         }
@@ -283,6 +269,17 @@ public class EvaluationController {
     result.setProperty("n2", String.valueOf(n2));
     result.setProperty("n", String.valueOf(n));
     result.setProperty("result", String.valueOf(auc));
+    if (communities != null) {
+      final long inter_n1 = n1 - intra_n1;
+      final long inter_n2 = n2 - intra_n2;
+      final long inter_n = n - intra_n;
+      result.setProperty("intra_missing_links", String.valueOf(intra_missing));
+      result.setProperty("intra_n", String.valueOf(intra_n));
+      result.setProperty("intra_result", String.valueOf(((double)intra_n1 + 0.5*intra_n2) / (double)intra_n));
+      result.setProperty("inter_missing_links", String.valueOf(numlinks_missing - intra_missing));
+      result.setProperty("inter_n", String.valueOf(inter_n));
+      result.setProperty("inter_result", String.valueOf(((double)inter_n1 + 0.5*inter_n2) / (double)inter_n));
+    }
 
     session.close();
     driver.close();
@@ -303,6 +300,25 @@ public class EvaluationController {
    * @throws IOException when datasets cannot be read.
    */
   public static Properties precision(DbConfiguration dbconf, MetricType metric, Path dataset, Path trainset, Path testset, int rank) throws IOException {
+    return precision(dbconf, metric, dataset, trainset, testset, rank, null);
+  }
+
+  /**
+   * Writes in {@code output} the PRECISION analysis of detection on the graph pointed by {@code dbconf}
+   * with the specified {@code dataset}, {@code trainingset} and {@code testset}, broken down by
+   * intra-community and inter-community test links when {@code communities} is given.
+   * @param dbconf the database configuration.
+   * @param metric the metric to evaluate.
+   * @param dataset the original dataset.
+   * @param trainset the training set.
+   * @param testset the test set.
+   * @param rank the precision rank.
+   * @param communities the ground-truth communities; null, for no breakdown.
+   * @return the result.
+   * @throws IOException when datasets cannot be read.
+   */
+  public static Properties precision(DbConfiguration dbconf, MetricType metric, Path dataset, Path trainset, Path testset, int rank,
+                                     Communities communities) throws IOException {
     LOGGER.info("Evaluating PRECISION for {} with rank {}", metric.name(), rank);
     Driver driver = Neo4JManager.open(dbconf);
     Session session = driver.session();
@@ -310,7 +326,8 @@ public class EvaluationController {
     /* TOP */
     final String GET_TOP_METRIC = String.format(GET_TOP_GENERAL, metric.name());
 
-    Set<Pair<Long,Long>> links_top_trainset = new HashSet<>(); // top-rank detected
+    final NodeDictionary nodes = new NodeDictionary();
+    LongHashSet links_top_trainset = new LongHashSet(); // top-rank detected
     Value params = parameters("rank", rank);
     StatementResult topTrainingResult = session.run(GET_TOP_METRIC, params);
     while (topTrainingResult.hasNext()) {
@@ -318,65 +335,41 @@ public class EvaluationController {
       long src = rec.get("src").asLong();
       long dst = rec.get("dst").asLong();
 
-      if (src < dst) {
-        links_top_trainset.add(new ImmutablePair<>(src, dst));
-        LOGGER.info("TOP-TRAINING (rank:{}): ({},{})", rank, src, dst);
-      } else if (dst < src) {
-        links_top_trainset.add(new ImmutablePair<>(dst, src));
+      if (src != dst) {
+        links_top_trainset.add(NodeDictionary.pair(nodes.index(src), nodes.index(dst)));
         LOGGER.info("TOP-TRAINING (rank:{}): ({},{})", rank, src, dst);
       }
     }
 
-    Set<Long> nodes_trainset = new HashSet<>(); // existent nodes in training set
-    try (BufferedReader trainingReader = Files.newBufferedReader(trainset)) {
-      while (trainingReader.ready()) {
-        String line = trainingReader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-        long src = link.getSrc();
-        long dst = link.getDst();
-        nodes_trainset.add(src);
-        nodes_trainset.add(dst);
-      }
-    }
+    BitSet nodes_trainset = new BitSet(); // existent nodes in training set
+    Links.forEach(trainset, (src, dst, weight, type) -> {
+      nodes_trainset.set(nodes.index(src));
+      nodes_trainset.set(nodes.index(dst));
+    });
 
     /* EVALUATION */
-    Set<Pair<Long,Long>> links_testset = new HashSet<>();
-    try (BufferedReader testReader = Files.newBufferedReader(testset)) {
-      while (testReader.ready()) {
-        String line = testReader.readLine();
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
-          LOGGER.warn("Malformed link: {}", line);
-          continue;
-        }
-        long src = link.getSrc();
-        long dst = link.getDst();
-        if (nodes_trainset.contains(src) && nodes_trainset.contains(dst)) {
-          if (src < dst) {
-            links_testset.add(new ImmutablePair<>(src, dst));
-            LOGGER.debug("Can be detected: ({},{})", src, dst);
-          } else if (dst < src) {
-            links_testset.add(new ImmutablePair<>(dst, src));
-            LOGGER.debug("Can be detected: ({},{})", src, dst);
-          }
+    LongHashSet links_testset = new LongHashSet();
+    Links.forEach(testset, (src, dst, weight, type) -> {
+      final int srcIndex = nodes.indexOf(src);
+      final int dstIndex = nodes.indexOf(dst);
+      if (srcIndex >= 0 && dstIndex >= 0 && nodes_trainset.get(srcIndex) && nodes_trainset.get(dstIndex)) {
+        if (src != dst) {
+          links_testset.add(NodeDictionary.pair(srcIndex, dstIndex));
+          LOGGER.debug("Can be detected: ({},{})", src, dst);
         }
       }
-    }
+    });
     long numlinks_test = links_testset.size();
 
     /* COUNT TOP HIT */
     long hits = 0;
-    for (Pair<Long,Long> trainingLink : links_top_trainset) {
+    long intra_hits = 0;
+    for (long trainingLink : links_top_trainset.toArray()) {
       if (links_testset.contains(trainingLink)) {
         hits ++;
+        if (communities != null && isIntra(communities, nodes, trainingLink)) {
+          intra_hits ++;
+        }
       }
     }
 
@@ -389,6 +382,20 @@ public class EvaluationController {
     result.setProperty("hits", String.valueOf(hits));
     result.setProperty("links_test", String.valueOf(numlinks_test));
     result.setProperty("result", String.valueOf(precision));
+    if (communities != null) {
+      long intra_test = 0;
+      for (long testLink : links_testset.toArray()) {
+        if (isIntra(communities, nodes, testLink)) {
+          intra_test ++;
+        }
+      }
+      result.setProperty("intra_hits", String.valueOf(intra_hits));
+      result.setProperty("intra_links_test", String.valueOf(intra_test));
+      result.setProperty("intra_result", String.valueOf((double)intra_hits / (double)intra_test));
+      result.setProperty("inter_hits", String.valueOf(hits - intra_hits));
+      result.setProperty("inter_links_test", String.valueOf(numlinks_test - intra_test));
+      result.setProperty("inter_result", String.valueOf((double)(hits - intra_hits) / (double)(numlinks_test - intra_test)));
+    }
 
     session.close();
     driver.close();
@@ -396,4 +403,15 @@ public class EvaluationController {
     return result;
   }
 
+  /**
+   * Checks whether the nodes of {@code link} are in the same community.
+   * @param communities the ground-truth communities.
+   * @param nodes the node dictionary.
+   * @param link the link, as a pair of node indices.
+   * @return true, if the nodes of {@code link} are in the same community; false, otherwise.
+   */
+  private static boolean isIntra(Communities communities, NodeDictionary nodes, long link) {
+    return communities.isIntra(nodes.idOf(NodeDictionary.pairLow(link)), nodes.idOf(NodeDictionary.pairHigh(link)));
+  }
+
 }
@@ -0,0 +1,128 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.tool.collection.LongIntHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The ground-truth community of nodes, e.g. the blocks of a stochastic block model.
+ * Communities are stored as lines {@code (node,community)}.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class Communities {
+
+  private static final Logger LOGGER = LogManager.getLogger(Communities.class);
+
+  /**
+   * The community returned for unlabeled nodes.
+   */
+  public static final int NONE = -1;
+
+  /**
+   * The community of every labeled node.
+   */
+  private final LongIntHashMap labels = new LongIntHashMap();
+
+  /**
+   * Reads the communities stored in {@code input}.
+   * Malformed lines are logged and skipped.
+   * @param input the file to read.
+   * @return the communities.
+   * @throws IOException when {@code input} cannot be read.
+   */
+  public static Communities read(Path input) throws IOException {
+    Communities communities = new Communities();
+    try (BufferedReader reader = Files.newBufferedReader(input)) {
+      long lineno = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineno++;
+        final String trimmed = line.trim();
+        final int comma = trimmed.indexOf(',');
+        if (!trimmed.startsWith("(") || !trimmed.endsWith(")") || comma < 0) {
+          LOGGER.warn("Malformed community (line: {}): {}", lineno, line);
+          continue;
+        }
+        try {
+          final long node = Long.parseLong(trimmed.substring(1, comma).trim());
+          final int community = Integer.parseInt(trimmed.substring(comma + 1, trimmed.length() - 1).trim());
+          communities.label(node, community);
+        } catch (NumberFormatException exc) {
+          LOGGER.warn("Malformed community (line: {}): {}", lineno, line);
+        }
+      }
+    }
+    return communities;
+  }
+
+  /**
+   * Labels {@code node} with {@code community}, unless already labeled.
+   * @param node the node id.
+   * @param community the community.
+   */
+  public void label(long node, int community) {
+    this.labels.putIfAbsent(node, community);
+  }
+
+  /**
+   * Returns the community of {@code node}.
+   * @param node the node id.
+   * @return the community of {@code node}; {@link #NONE}, if unlabeled.
+   */
+  public int communityOf(long node) {
+    return this.labels.get(node, NONE);
+  }
+
+  /**
+   * Checks whether {@code src} and {@code dst} are labeled with the same community.
+   * @param src the source node id.
+   * @param dst the destination node id.
+   * @return true, if both nodes are labeled with the same community; false, otherwise.
+   */
+  public boolean isIntra(long src, long dst) {
+    final int community = this.communityOf(src);
+    return community != NONE && community == this.communityOf(dst);
+  }
+
+  /**
+   * Returns the number of labeled nodes.
+   * @return the number of labeled nodes.
+   */
+  public int size() {
+    return this.labels.size();
+  }
+}
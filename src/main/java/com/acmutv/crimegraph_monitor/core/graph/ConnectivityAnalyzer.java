@@ -0,0 +1,155 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkConsumer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.tool.collection.UnionFind;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Properties;
+
+/**
+ * A link consumer computing the connectivity analysis of a dataset in a single pass, without
+ * building its graph.
+ * Nodes are tracked by a {@link UnionFind}, whose roots hold the number of nodes, of linked
+ * nodes and of links (self-loops excluded) of their component.
+ * The analysis matches {@link GraphController#analyzeGraph(org.jgrapht.UndirectedGraph)}.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class ConnectivityAnalyzer implements LinkConsumer {
+
+  /**
+   * The node dictionary.
+   */
+  private final NodeDictionary nodes = new NodeDictionary();
+
+  /**
+   * The components.
+   */
+  private final UnionFind components = new UnionFind();
+
+  /**
+   * The nodes with at least one link, self-loops excluded.
+   */
+  private final BitSet linked = new BitSet();
+
+  /**
+   * The number of nodes of every root.
+   */
+  private int[] numNodes = new int[16];
+
+  /**
+   * The number of linked nodes of every root.
+   */
+  private int[] numLinkedNodes = new int[16];
+
+  /**
+   * The number of links, self-loops excluded, of every root.
+   */
+  private long[] numComponentLinks = new long[16];
+
+  /**
+   * The number of links.
+   */
+  private long numLinks = 0;
+
+  @Override
+  public void accept(long src, long dst, double weight, LinkType type) {
+    this.numLinks++;
+    final int a = this.node(src);
+    final int b = this.node(dst);
+    if (a == b) return;
+    final int ra = this.components.find(a);
+    final int rb = this.components.find(b);
+    final int root = this.components.union(ra, rb);
+    if (ra != rb) {
+      final int other = (root == ra) ? rb : ra;
+      this.numNodes[root] += this.numNodes[other];
+      this.numLinkedNodes[root] += this.numLinkedNodes[other];
+      this.numComponentLinks[root] += this.numComponentLinks[other];
+    }
+    this.numComponentLinks[root]++;
+    if (!this.linked.get(a)) {
+      this.linked.set(a);
+      this.numLinkedNodes[root]++;
+    }
+    if (!this.linked.get(b)) {
+      this.linked.set(b);
+      this.numLinkedNodes[root]++;
+    }
+  }
+
+  /**
+   * Returns the analysis of the consumed links.
+   * Among components of equal size, the LCC is the one with the node seen first.
+   * @return the collection of analysis properties.
+   */
+  public Properties getAnalysis() {
+    int lcc = -1;
+    int lccNumNodes = 0;
+    for (int v = 0; v < this.components.size(); v++) {
+      final int root = this.components.find(v);
+      if (this.numNodes[root] > lccNumNodes) {
+        lcc = root;
+        lccNumNodes = this.numNodes[root];
+      }
+    }
+
+    Properties analysis = new Properties();
+    analysis.put("numnodes", this.nodes.size());
+    analysis.put("numlinks", this.numLinks);
+    analysis.put("cc_vertexsets", (long) this.components.getCount());
+    analysis.put("lcc_numnodes", (lcc == -1) ? 0 : this.numLinkedNodes[lcc]);
+    analysis.put("lcc_numlinks", (lcc == -1) ? 0L : this.numComponentLinks[lcc]);
+    return analysis;
+  }
+
+  /**
+   * Returns the index of node {@code id}, registering it as a singleton component if new.
+   * @param id the node id.
+   * @return the node index.
+   */
+  private int node(long id) {
+    final int index = this.nodes.index(id);
+    if (index == this.components.size()) {
+      this.components.add();
+      if (index == this.numNodes.length) {
+        final int capacity = index + (index >> 1);
+        this.numNodes = Arrays.copyOf(this.numNodes, capacity);
+        this.numLinkedNodes = Arrays.copyOf(this.numLinkedNodes, capacity);
+        this.numComponentLinks = Arrays.copyOf(this.numComponentLinks, capacity);
+      }
+      this.numNodes[index] = 1;
+    }
+    return index;
+  }
+}
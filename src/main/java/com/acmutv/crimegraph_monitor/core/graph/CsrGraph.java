@@ -0,0 +1,371 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.link.BinaryLinks;
+import com.acmutv.crimegraph_monitor.core.link.DatasetIndex;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * An immutable undirected multigraph in compressed-sparse-row layout.
+ * Nodes are the dense indices of a {@link NodeDictionary}; edges are identified by their
+ * timestamp, that is the index of their link in the dataset, so that edge order is dataset order.
+ * The adjacency of node {@code v} is the range [{@code offsets[v]}, {@code offsets[v+1]}) of
+ * {@code neighbors} and {@code edges}; self-loops appear once in the adjacency of their node.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see GraphController
+ */
+public class CsrGraph {
+
+  private static final Logger LOGGER = LogManager.getLogger(CsrGraph.class);
+
+  /**
+   * The node dictionary.
+   */
+  private final NodeDictionary nodes;
+
+  /**
+   * The adjacency offset of every node, plus the final sentinel.
+   */
+  private final int[] offsets;
+
+  /**
+   * The neighbor of every adjacency entry.
+   */
+  private final int[] neighbors;
+
+  /**
+   * The edge of every adjacency entry.
+   */
+  private final int[] edges;
+
+  /**
+   * The source node of every edge.
+   */
+  private final int[] sources;
+
+  /**
+   * The target node of every edge.
+   */
+  private final int[] targets;
+
+  /**
+   * The weight of every edge.
+   */
+  private final double[] weights;
+
+  private CsrGraph(NodeDictionary nodes, int[] offsets, int[] neighbors, int[] edges,
+                   int[] sources, int[] targets, double[] weights) {
+    this.nodes = nodes;
+    this.offsets = offsets;
+    this.neighbors = neighbors;
+    this.edges = edges;
+    this.sources = sources;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * Builds the graph of {@code links}.
+   * Link endpoints are remapped to dense node indices, then adjacencies are built in two passes:
+   * the first one counts node degrees, the second one fills adjacencies.
+   * @param links the links.
+   * @return the graph.
+   */
+  public static CsrGraph of(LinkBuffer links) {
+    final int numEdges = links.size();
+    final NodeDictionary nodes = new NodeDictionary();
+    final int[] sources = new int[numEdges];
+    final int[] targets = new int[numEdges];
+    final double[] weights = new double[numEdges];
+    for (int e = 0; e < numEdges; e++) {
+      sources[e] = nodes.index(links.getSrc(e));
+      targets[e] = nodes.index(links.getDst(e));
+      weights[e] = links.getWeight(e);
+    }
+    LOGGER.trace("Counted {} nodes and {} edges", nodes.size(), numEdges);
+    return build(nodes, sources, targets, weights);
+  }
+
+  /**
+   * Builds the graph of {@code dataset}, straight from the dataset.
+   * Edge arrays are filled with a single pass that also builds the node dictionary, growing as
+   * links arrive; they are presized from the {@link DatasetIndex} only when it already exists (the
+   * record count, for binary datasets). Adjacencies are then built as in {@link #of(LinkBuffer)}.
+   * @param dataset the dataset.
+   * @return the graph.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static CsrGraph of(Path dataset) throws IOException {
+    LOGGER.trace("Reading the graph dataset {}", dataset);
+    final Edges edges;
+    final NodeDictionary nodes;
+    final DatasetIndex index = BinaryLinks.isBinary(dataset) ? null : DatasetIndex.find(dataset);
+    if (index != null) {
+      edges = new Edges(index.getNumLinks());
+      nodes = new NodeDictionary((int) Math.min(index.getNumNodes(), Integer.MAX_VALUE));
+    } else {
+      edges = new Edges(BinaryLinks.isBinary(dataset) ? Links.count(dataset) : Edges.DEFAULT_CAPACITY);
+      nodes = new NodeDictionary();
+    }
+    Links.forEach(dataset, (src, dst, weight, type) -> edges.add(nodes.index(src), nodes.index(dst), weight));
+    edges.trimToSize();
+    LOGGER.trace("Counted {} nodes and {} edges", nodes.size(), edges.size);
+    return build(nodes, edges.sources, edges.targets, edges.weights);
+  }
+
+  /**
+   * Fills the adjacencies of the edges ({@code sources}, {@code targets}).
+   * @param nodes the node dictionary.
+   * @param sources the source node of every edge.
+   * @param targets the target node of every edge.
+   * @param weights the weight of every edge.
+   * @return the graph.
+   */
+  private static CsrGraph build(NodeDictionary nodes, int[] sources, int[] targets, double[] weights) {
+    final int numNodes = nodes.size();
+    final int numEdges = sources.length;
+
+    final int[] offsets = new int[numNodes + 1];
+    for (int e = 0; e < numEdges; e++) {
+      offsets[sources[e] + 1]++;
+      if (sources[e] != targets[e]) {
+        offsets[targets[e] + 1]++;
+      }
+    }
+    for (int v = 0; v < numNodes; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+
+    final int numEntries = offsets[numNodes];
+    final int[] neighbors = new int[numEntries];
+    final int[] edges = new int[numEntries];
+    final int[] next = new int[numNodes];
+    System.arraycopy(offsets, 0, next, 0, numNodes);
+    for (int e = 0; e < numEdges; e++) {
+      final int src = sources[e];
+      final int dst = targets[e];
+      int pos = next[src]++;
+      neighbors[pos] = dst;
+      edges[pos] = e;
+      if (src != dst) {
+        pos = next[dst]++;
+        neighbors[pos] = src;
+        edges[pos] = e;
+      }
+    }
+    return new CsrGraph(nodes, offsets, neighbors, edges, sources, targets, weights);
+  }
+
+  /**
+   * Returns the node dictionary.
+   * @return the node dictionary.
+   */
+  public NodeDictionary getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns the number of nodes.
+   * @return the number of nodes.
+   */
+  public int getNumNodes() {
+    return this.nodes.size();
+  }
+
+  /**
+   * Returns the number of edges, including self-loops and parallel edges.
+   * @return the number of edges.
+   */
+  public int getNumEdges() {
+    return this.sources.length;
+  }
+
+  /**
+   * Returns the number of adjacency entries of node {@code v}.
+   * @param v the node index.
+   * @return the degree of {@code v}, counting self-loops once.
+   */
+  public int getDegree(int v) {
+    return this.offsets[v + 1] - this.offsets[v];
+  }
+
+  /**
+   * Returns the first adjacency entry of node {@code v}.
+   * @param v the node index.
+   * @return the first adjacency entry (inclusive).
+   */
+  public int getAdjacencyStart(int v) {
+    return this.offsets[v];
+  }
+
+  /**
+   * Returns the last adjacency entry of node {@code v}.
+   * @param v the node index.
+   * @return the last adjacency entry (exclusive).
+   */
+  public int getAdjacencyEnd(int v) {
+    return this.offsets[v + 1];
+  }
+
+  /**
+   * Returns the neighbor of the adjacency entry {@code pos}.
+   * @param pos the adjacency entry.
+   * @return the neighbor node index.
+   */
+  public int getNeighbor(int pos) {
+    return this.neighbors[pos];
+  }
+
+  /**
+   * Returns the edge of the adjacency entry {@code pos}.
+   * @param pos the adjacency entry.
+   * @return the edge timestamp.
+   */
+  public int getEdge(int pos) {
+    return this.edges[pos];
+  }
+
+  /**
+   * Returns the source node of edge {@code e}.
+   * @param e the edge timestamp.
+   * @return the source node index.
+   */
+  public int getSource(int e) {
+    return this.sources[e];
+  }
+
+  /**
+   * Returns the target node of edge {@code e}.
+   * @param e the edge timestamp.
+   * @return the target node index.
+   */
+  public int getTarget(int e) {
+    return this.targets[e];
+  }
+
+  /**
+   * Returns the weight of edge {@code e}.
+   * @param e the edge timestamp.
+   * @return the weight.
+   */
+  public double getWeight(int e) {
+    return this.weights[e];
+  }
+
+  /**
+   * Labels every node with its connected component.
+   * Components are numbered in order of their lowest node index, that is in the order jgrapht
+   * discovers them on graphs built by {@link GraphController#asGraph(LinkBuffer)}.
+   * @return the component of every node.
+   */
+  public int[] getComponents() {
+    final int numNodes = this.getNumNodes();
+    final int[] components = new int[numNodes];
+    Arrays.fill(components, -1);
+    final int[] queue = new int[numNodes];
+    int component = 0;
+    for (int root = 0; root < numNodes; root++) {
+      if (components[root] != -1) continue;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = root;
+      components[root] = component;
+      while (head < tail) {
+        final int v = queue[head++];
+        for (int pos = this.offsets[v]; pos < this.offsets[v + 1]; pos++) {
+          final int u = this.neighbors[pos];
+          if (components[u] == -1) {
+            components[u] = component;
+            queue[tail++] = u;
+          }
+        }
+      }
+      component++;
+    }
+    return components;
+  }
+
+  /**
+   * The growable edge arrays of a graph under construction.
+   */
+  private static final class Edges {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int[] sources;
+
+    private int[] targets;
+
+    private double[] weights;
+
+    private int size = 0;
+
+    Edges(long capacity) throws IOException {
+      if (capacity > Integer.MAX_VALUE) {
+        throw new IOException("Too many links to be buffered: " + capacity);
+      }
+      this.sources = new int[(int) capacity];
+      this.targets = new int[(int) capacity];
+      this.weights = new double[(int) capacity];
+    }
+
+    void add(int src, int dst, double weight) throws IOException {
+      if (this.size == this.sources.length) {
+        if (this.size == Integer.MAX_VALUE) {
+          throw new IOException("Too many links to be buffered");
+        }
+        this.resize((int) Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_CAPACITY, this.size + (long) (this.size >> 1))));
+      }
+      this.sources[this.size] = src;
+      this.targets[this.size] = dst;
+      this.weights[this.size] = weight;
+      this.size++;
+    }
+
+    void trimToSize() {
+      if (this.size < this.sources.length) {
+        this.resize(this.size);
+      }
+    }
+
+    private void resize(int capacity) {
+      this.sources = Arrays.copyOf(this.sources, capacity);
+      this.targets = Arrays.copyOf(this.targets, capacity);
+      this.weights = Arrays.copyOf(this.weights, capacity);
+    }
+  }
+}
@@ -27,6 +27,9 @@
 package com.acmutv.crimegraph_monitor.core.graph;
 
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.Links;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgrapht.UndirectedGraph;
@@ -34,11 +37,15 @@ import org.jgrapht.alg.ConnectivityInspector;
 import org.jgrapht.graph.Pseudograph;
 import org.jgrapht.graph.SimpleGraph;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * This class realizes the core business logic about graph manipulation.
+ * Analyses are available both on jgrapht graphs, convenient for small graphs and tests, and on
+ * the more compact {@link CsrGraph}.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
@@ -75,6 +82,51 @@ public class GraphController {
     return analysis;
   }
 
+  /**
+   * Analyzes the dataset, as {@link #analyzeGraph(UndirectedGraph)} does.
+   * @param graph the graph.
+   * @return the collection of analysis properties.
+   */
+  public static Properties analyzeGraph(CsrGraph graph) {
+    Properties analysis = new Properties();
+
+    final int[] components = graph.getComponents();
+    long ccVertexsets = 0;
+    for (int component : components) {
+      ccVertexsets = Math.max(ccVertexsets, component + 1);
+    }
+    LinkBuffer lccLinks = GraphController.datagenLargestConnectedComponent(graph);
+
+    BitSet lccNodes = new BitSet(graph.getNumNodes());
+    final NodeDictionary nodes = graph.getNodes();
+    for (int i = 0; i < lccLinks.size(); i++) {
+      lccNodes.set(nodes.indexOf(lccLinks.getSrc(i)));
+      lccNodes.set(nodes.indexOf(lccLinks.getDst(i)));
+    }
+
+    analysis.put("numnodes", graph.getNumNodes());
+    analysis.put("numlinks", graph.getNumEdges());
+    analysis.put("cc_vertexsets", ccVertexsets);
+    analysis.put("lcc_numnodes", lccNodes.cardinality());
+    analysis.put("lcc_numlinks", lccLinks.size());
+
+    return analysis;
+  }
+
+  /**
+   * Analyzes the dataset streaming its links through a {@link ConnectivityAnalyzer}, without
+   * building its graph.
+   * @param dataset the path of the dataset.
+   * @return the collection of analysis properties.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static Properties analyzeDataset(Path dataset) throws IOException {
+    LOGGER.trace("Analyzing the graph dataset {}", dataset);
+    ConnectivityAnalyzer analyzer = new ConnectivityAnalyzer();
+    Links.forEach(dataset, analyzer);
+    return analyzer.getAnalysis();
+  }
+
   /**
    * Creates the graph from the {@code dataset}.
    * @param dataset the dataset.
@@ -129,6 +181,64 @@ public class GraphController {
     return graph;
   }
 
+  /**
+   * Creates the graph from the {@code dataset} buffer.
+   * Edge timestamps are the link indices in the buffer.
+   * @param dataset the dataset.
+   * @return the graph.
+   */
+  public static UndirectedGraph<Long, CustomWeightedEdge> asGraph(LinkBuffer dataset) {
+    LOGGER.trace("Reading the graph dataset");
+    UndirectedGraph<Long, CustomWeightedEdge> graph = new Pseudograph<>(CustomWeightedEdge.class);
+
+    final int total = dataset.size();
+    for (int i = 0; i < total; i++) {
+      final long src = dataset.getSrc(i);
+      final long dst = dataset.getDst(i);
+      graph.addVertex(src);
+      graph.addVertex(dst);
+      CustomWeightedEdge edge = new CustomWeightedEdge(dataset.getWeight(i), i);
+      try {
+        boolean addedEdge = graph.addEdge(src, dst, edge);
+        LOGGER.trace("Link created ({},{}) {}: {}", src, dst, addedEdge, edge);
+      } catch (IllegalArgumentException exc) {
+        LOGGER.warn("Cannot add link ({},{}): {}", src, dst, exc.getMessage());
+      }
+    }
+    return graph;
+  }
+
+  /**
+   * Creates the graph streaming links from {@code dataset}, without materializing them.
+   * Edge timestamps are assigned in dataset order, as in {@link #asGraph(List)}.
+   * @param dataset the path of the dataset.
+   * @return the graph.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static UndirectedGraph<Long, CustomWeightedEdge> asGraph(Path dataset) throws IOException {
+    LOGGER.trace("Reading the graph dataset {}", dataset);
+    UndirectedGraph<Long, CustomWeightedEdge> graph = new Pseudograph<>(CustomWeightedEdge.class);
+
+    final long pace = 1000000;
+    final long[] examined = {0};
+    Links.forEach(dataset, (src, dst, weight, type) -> {
+      graph.addVertex(src);
+      graph.addVertex(dst);
+      CustomWeightedEdge edge = new CustomWeightedEdge(weight, examined[0]);
+      try {
+        boolean addedEdge = graph.addEdge(src, dst, edge);
+        LOGGER.trace("Link created ({},{}) {}: {}", src, dst, addedEdge, edge);
+      } catch (IllegalArgumentException exc) {
+        LOGGER.warn("Cannot add link ({},{}): {}", src, dst, exc.getMessage());
+      }
+      examined[0]++;
+      if (examined[0] % pace == 0) {
+        LOGGER.info("progress :: examined : {}", examined[0]);
+      }
+    });
+    return graph;
+  }
+
   /**
    * Return the ordered list of edges.
    * @param graph the graph.
@@ -158,6 +268,36 @@ public class GraphController {
     return largestConnectedSet;
   }
 
+  /**
+   * Computes the LCC vertex set, as {@link #getLCCVertexset(UndirectedGraph)} does: among
+   * components of equal size, the one discovered first wins.
+   * @param graph the graph.
+   * @return the node indices of the LCC vertex set.
+   */
+  public static BitSet getLCCVertexset(CsrGraph graph) {
+    final int[] components = graph.getComponents();
+    final int[] sizes = new int[components.length];
+    for (int component : components) {
+      sizes[component]++;
+    }
+    int largest = -1;
+    int largestSize = 0;
+    for (int component = 0; component < sizes.length; component++) {
+      if (sizes[component] > largestSize) {
+        largest = component;
+        largestSize = sizes[component];
+      }
+    }
+    BitSet largestConnectedSet = new BitSet(components.length);
+    for (int v = 0; v < components.length; v++) {
+      if (components[v] == largest) {
+        largestConnectedSet.set(v);
+      }
+    }
+    LOGGER.trace("Found LCC vertex sets with {} nodes", largestSize);
+    return largestConnectedSet;
+  }
+
   /**
    * Generates the list of links belonging to the largest connected component of the graph in
    * {@code graph}.
@@ -194,6 +334,30 @@ public class GraphController {
     return data;
   }
 
+  /**
+   * Generates the links belonging to the largest connected component of the graph in
+   * {@code graph}, as {@link #datagenLargestConnectedComponent(UndirectedGraph)} does.
+   * @param graph the graph.
+   * @return the links, in dataset order.
+   */
+  public static LinkBuffer datagenLargestConnectedComponent(CsrGraph graph) {
+    LOGGER.traceEntry();
+    final BitSet largestConnectedSet = GraphController.getLCCVertexset(graph);
+    final NodeDictionary nodes = graph.getNodes();
+
+    LinkBuffer data = new LinkBuffer();
+    for (int e = 0; e < graph.getNumEdges(); e++) {
+      final int src = graph.getSource(e);
+      final int dst = graph.getTarget(e);
+      if (src == dst) continue;
+      if (largestConnectedSet.get(src)) {
+        data.add(nodes.idOf(src), nodes.idOf(dst), graph.getWeight(e), LinkType.REAL);
+      }
+    }
+
+    return data;
+  }
+
   /**
    * Checks if the {@code graph} is a single CC.
    * @param graph the graph.
@@ -207,4 +371,18 @@ public class GraphController {
     LOGGER.trace("isLCC {} : {}/{}", result, numLccNodes, numNodes);
     return result;
   }
+
+  /**
+   * Checks if the {@code graph} is a single CC.
+   * @param graph the graph.
+   * @return true, if {@code graph} is a single CC; false, otherwise.
+   */
+  public static boolean isSingleConnectedComponent(CsrGraph graph) {
+    final BitSet lccNodes = GraphController.getLCCVertexset(graph);
+    final long numNodes = graph.getNumNodes();
+    final long numLccNodes = lccNodes.cardinality();
+    final boolean result = (numLccNodes == numNodes);
+    LOGGER.trace("isLCC {} : {}/{}", result, numLccNodes, numNodes);
+    return result;
+  }
 }
@@ -0,0 +1,237 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import com.acmutv.crimegraph_monitor.core.link.Sidecar;
+import com.acmutv.crimegraph_monitor.tool.collection.LongIntHashMap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A dictionary that remaps sparse node ids to dense indices in [0, {@link #size()}), assigned in
+ * order of first appearance.
+ * The dictionary of a dataset can be persisted next to it as the {@link Sidecar}
+ * {@code <dataset>.nodes}, and is rebuilt whenever the sidecar is stale.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class NodeDictionary {
+
+  /**
+   * The extension of dictionary files.
+   */
+  public static final String EXTENSION = "nodes";
+
+  /**
+   * The sidecar of dictionary files ("CGND").
+   */
+  private static final Sidecar SIDECAR = new Sidecar("node dictionary", EXTENSION, 0x43474E44, 1);
+
+  /**
+   * The index of every node id.
+   */
+  private final LongIntHashMap indices;
+
+  /**
+   * The node id of every index.
+   */
+  private long[] ids;
+
+  /**
+   * The number of nodes.
+   */
+  private int size = 0;
+
+  /**
+   * Constructs an empty dictionary.
+   */
+  public NodeDictionary() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty dictionary, sized for {@code expected} nodes.
+   * @param expected the expected number of nodes.
+   */
+  public NodeDictionary(int expected) {
+    this.indices = new LongIntHashMap(expected);
+    this.ids = new long[Math.max(expected, 16)];
+  }
+
+  /**
+   * Returns the dictionary of the nodes of {@code links}.
+   * @param links the links.
+   * @return the dictionary.
+   */
+  public static NodeDictionary of(LinkBuffer links) {
+    NodeDictionary dictionary = new NodeDictionary();
+    for (int i = 0; i < links.size(); i++) {
+      dictionary.index(links.getSrc(i));
+      dictionary.index(links.getDst(i));
+    }
+    return dictionary;
+  }
+
+  /**
+   * Returns the dictionary of {@code dataset}, loading it from its sidecar when valid, or building
+   * (and storing) it otherwise.
+   * A sidecar that cannot be written is only logged.
+   * @param dataset the dataset.
+   * @return the dictionary.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static NodeDictionary of(Path dataset) throws IOException {
+    return SIDECAR.of(dataset, NodeDictionary::read, () -> {
+      NodeDictionary dictionary = new NodeDictionary();
+      Links.forEach(dataset, (src, dst, weight, type) -> {
+        dictionary.index(src);
+        dictionary.index(dst);
+      });
+      return dictionary;
+    }, NodeDictionary::write);
+  }
+
+  /**
+   * Returns the path of the sidecar dictionary of {@code dataset}.
+   * @param dataset the dataset.
+   * @return the sidecar path.
+   */
+  public static Path sidecar(Path dataset) {
+    return SIDECAR.pathOf(dataset);
+  }
+
+  /**
+   * Returns the index of {@code id}, assigning the next index if {@code id} is new.
+   * @param id the node id.
+   * @return the node index.
+   */
+  public int index(long id) {
+    final int index = this.indices.putIfAbsent(id, this.size);
+    if (index == this.size) {
+      if (this.size == this.ids.length) {
+        this.ids = Arrays.copyOf(this.ids, this.size + (this.size >> 1));
+      }
+      this.ids[this.size++] = id;
+    }
+    return index;
+  }
+
+  /**
+   * Returns the index of {@code id}.
+   * @param id the node id.
+   * @return the node index; -1, if {@code id} is unknown.
+   */
+  public int indexOf(long id) {
+    return this.indices.get(id, -1);
+  }
+
+  /**
+   * Returns the node id of {@code index}.
+   * @param index the node index.
+   * @return the node id.
+   */
+  public long idOf(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException(String.format("%d out of [0,%d)", index, this.size));
+    }
+    return this.ids[index];
+  }
+
+  /**
+   * Returns the number of nodes.
+   * @return the number of nodes.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the key of the undirected pair of node indices {@code a} and {@code b}.
+   * @param a a node index.
+   * @param b a node index.
+   * @return the key, equal for ({@code a},{@code b}) and ({@code b},{@code a}).
+   */
+  public static long pair(int a, int b) {
+    return (a < b) ? ((long) a << 32) | b : ((long) b << 32) | a;
+  }
+
+  /**
+   * Returns the lower node index of the pair {@code key}.
+   * @param key the pair key.
+   * @return the lower node index.
+   */
+  public static int pairLow(long key) {
+    return (int) (key >>> 32);
+  }
+
+  /**
+   * Returns the higher node index of the pair {@code key}.
+   * @param key the pair key.
+   * @return the higher node index.
+   */
+  public static int pairHigh(long key) {
+    return (int) key;
+  }
+
+  /**
+   * Reads the content of a dictionary file.
+   * @param in the dictionary stream, past the header.
+   * @param size the size of the dataset.
+   * @param modified the last modification time of the dataset.
+   * @return the dictionary.
+   * @throws IOException when the dictionary cannot be read.
+   */
+  private static NodeDictionary read(DataInputStream in, long size, long modified) throws IOException {
+    final int numNodes = in.readInt();
+    NodeDictionary dictionary = new NodeDictionary(numNodes);
+    for (int i = 0; i < numNodes; i++) {
+      dictionary.index(in.readLong());
+    }
+    return dictionary;
+  }
+
+  /**
+   * Writes the content of a dictionary file.
+   * @param dictionary the dictionary.
+   * @param out the dictionary stream, past the header.
+   * @throws IOException when the dictionary cannot be written.
+   */
+  private static void write(NodeDictionary dictionary, DataOutputStream out) throws IOException {
+    out.writeInt(dictionary.size);
+    for (int i = 0; i < dictionary.size; i++) {
+      out.writeLong(dictionary.ids[i]);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import lombok.Getter;
+
+/**
+ * Strategies to key published links.
+ * Kafka assigns records with the same key to the same partition, so that links sharing the key
+ * are consumed in publishing order.
+ * {@code LINK} keys by the whole link (binary links are sent without key); {@code SRC} by the source node; {@code DST} by the
+ * destination node; {@code MIN} by the lowest endpoint, so that both directions of an edge
+ * share the key.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ParallelPublisher
+ */
+@Getter
+public enum KeyStrategy {
+  LINK  ("LINK"),
+  SRC   ("SRC"),
+  DST   ("DST"),
+  MIN   ("MIN");
+
+  private final String name;
+
+  KeyStrategy(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the key of link ({@code src},{@code dst}), whose message is {@code message}.
+   * @param src the source node.
+   * @param dst the destination node.
+   * @param message the message of the link; null, for binary links.
+   * @return the key; null, for binary links keyed by {@code LINK}.
+   */
+  public String key(long src, long dst, String message) {
+    switch (this) {
+      case SRC: return Long.toString(src);
+      case DST: return Long.toString(dst);
+      case MIN: return Long.toString(Math.min(src, dst));
+      default: return message;
+    }
+  }
+
+  /**
+   * Returns the key strategy from {@code string}.
+   * @param string the string to parse.
+   * @return the key strategy.
+   */
+  public static KeyStrategy fromString(String string) {
+    for (KeyStrategy strategy : KeyStrategy.values()) {
+      if (strategy.name.equalsIgnoreCase(string)) {
+        return strategy;
+      }
+    }
+    return null;
+  }
+}
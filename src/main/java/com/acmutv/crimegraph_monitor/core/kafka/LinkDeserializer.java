@@ -0,0 +1,109 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The Kafka deserializer of {@link Link}, decoding the formats of {@link LinkSerializer}.
+ * Malformed links raise {@link SerializationException}.
+ * When instantiated by Kafka, the format is read from the property
+ * {@value LinkSerializer#FORMAT_CONFIG}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkSerializer
+ */
+public class LinkDeserializer implements Deserializer<Link> {
+
+  private static final LinkType[] TYPES = LinkType.values();
+
+  private LinkFormat format;
+
+  /**
+   * Constructs a deserializer in {@link LinkFormat#BINARY}.
+   */
+  public LinkDeserializer() {
+    this(LinkFormat.BINARY);
+  }
+
+  /**
+   * Constructs a deserializer in {@code format}.
+   * @param format the link format.
+   */
+  public LinkDeserializer(LinkFormat format) {
+    this.format = format;
+  }
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    Object format = configs.get(LinkSerializer.FORMAT_CONFIG);
+    if (format != null) {
+      this.format = LinkFormat.fromString(format.toString());
+      if (this.format == null) {
+        throw new IllegalArgumentException("Unknown link format: " + format);
+      }
+    }
+  }
+
+  @Override
+  public Link deserialize(String topic, byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    if (this.format == LinkFormat.STRING) {
+      try {
+        return Link.valueOf(new String(data, StandardCharsets.UTF_8));
+      } catch (IllegalArgumentException exc) {
+        throw new SerializationException("Malformed link: " + new String(data, StandardCharsets.UTF_8));
+      }
+    }
+    if (data.length != LinkSerializer.SIZE && data.length != LinkSerializer.WEIGHTED_SIZE) {
+      throw new SerializationException("Malformed link: " + data.length + " bytes");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    final int tag = buffer.get() & 0xFF;
+    final boolean weighted = (tag & LinkSerializer.WEIGHT_FLAG) != 0;
+    final int type = tag & ~LinkSerializer.WEIGHT_FLAG;
+    if (type >= TYPES.length || weighted != (data.length == LinkSerializer.WEIGHTED_SIZE)) {
+      throw new SerializationException("Malformed link tag: " + tag);
+    }
+    final long src = buffer.getLong();
+    final long dst = buffer.getLong();
+    final double weight = weighted ? buffer.getDouble() : LinkSerializer.DEFAULT_WEIGHT;
+    return new Link(src, dst, weight, TYPES[type]);
+  }
+
+  @Override
+  public void close() {}
+}
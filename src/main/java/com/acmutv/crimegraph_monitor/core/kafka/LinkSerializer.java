@@ -0,0 +1,149 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The Kafka serializer of {@link Link}.
+ * In {@link LinkFormat#BINARY}, a link is encoded in big-endian order as a tag (byte), the source
+ * node (long), the destination node (long) and, unless it is {@value #DEFAULT_WEIGHT}, the weight
+ * (double), that is {@value #SIZE} or {@value #WEIGHTED_SIZE} bytes.
+ * The tag holds the type ordinal in its low 7 bits, and the presence of the weight in its high bit.
+ * In {@link LinkFormat#STRING}, a link is encoded as the UTF-8 bytes of its string representation,
+ * as with {@link org.apache.kafka.common.serialization.StringSerializer}.
+ * When instantiated by Kafka, the format is read from the property {@value #FORMAT_CONFIG}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkDeserializer
+ */
+public class LinkSerializer implements Serializer<Link> {
+
+  /**
+   * The property of the link format.
+   */
+  public static final String FORMAT_CONFIG = "link.format";
+
+  /**
+   * The size of a binary link without weight, in bytes.
+   */
+  public static final int SIZE = 1 + 8 + 8;
+
+  /**
+   * The size of a binary link with weight, in bytes.
+   */
+  public static final int WEIGHTED_SIZE = SIZE + 8;
+
+  /**
+   * The weight omitted from binary links.
+   */
+  public static final double DEFAULT_WEIGHT = 1.0;
+
+  /**
+   * The tag bit marking the presence of the weight.
+   */
+  static final int WEIGHT_FLAG = 0x80;
+
+  private LinkFormat format;
+
+  /**
+   * Constructs a serializer in {@link LinkFormat#BINARY}.
+   */
+  public LinkSerializer() {
+    this(LinkFormat.BINARY);
+  }
+
+  /**
+   * Constructs a serializer in {@code format}.
+   * @param format the link format.
+   */
+  public LinkSerializer(LinkFormat format) {
+    this.format = format;
+  }
+
+  /**
+   * Returns the size of {@code link} in {@code format}, in bytes.
+   * @param link the link.
+   * @param message the string representation of {@code link}.
+   * @param format the link format.
+   * @return the size of the encoded link.
+   */
+  public static int sizeOf(Link link, String message, LinkFormat format) {
+    if (format == LinkFormat.STRING) {
+      return message.length();
+    }
+    return isDefaultWeight(link.getWeight()) ? SIZE : WEIGHTED_SIZE;
+  }
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    Object format = configs.get(FORMAT_CONFIG);
+    if (format != null) {
+      this.format = LinkFormat.fromString(format.toString());
+      if (this.format == null) {
+        throw new IllegalArgumentException("Unknown link format: " + format);
+      }
+    }
+  }
+
+  @Override
+  public byte[] serialize(String topic, Link link) {
+    if (link == null) {
+      return null;
+    }
+    if (this.format == LinkFormat.STRING) {
+      return link.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    final double weight = link.getWeight();
+    final boolean weighted = !isDefaultWeight(weight);
+    ByteBuffer buffer = ByteBuffer.allocate(weighted ? WEIGHTED_SIZE : SIZE);
+    buffer.put((byte) (link.getType().ordinal() | (weighted ? WEIGHT_FLAG : 0)));
+    buffer.putLong(link.getSrc());
+    buffer.putLong(link.getDst());
+    if (weighted) {
+      buffer.putDouble(weight);
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public void close() {}
+
+  /**
+   * Checks if {@code weight} is omitted from binary links.
+   * @param weight the weight.
+   * @return true, if {@code weight} is {@link #DEFAULT_WEIGHT}; false, otherwise.
+   */
+  private static boolean isDefaultWeight(double weight) {
+    return Double.doubleToLongBits(weight) == Double.doubleToLongBits(DEFAULT_WEIGHT);
+  }
+}
@@ -0,0 +1,248 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multi-threaded publisher of datasets.
+ * The dataset is split into chunks of lines, located through its
+ * {@link com.acmutv.crimegraph_monitor.core.link.DatasetIndex}, and chunks are read concurrently
+ * by one reader per producer, that splits every chunk into one part per producer thread.
+ * Every key is owned by a single producer thread, that sends its parts in chunk order: links
+ * sharing the key are thus sent by the same producer in dataset order, and per-key ordering is
+ * preserved.
+ * Readers run ahead of producers by at most {@link #WINDOW} chunks per thread, bounding memory.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see KeyStrategy
+ */
+public class ParallelPublisher {
+
+  private static final Logger LOGGER = LogManager.getLogger(ParallelPublisher.class);
+
+  /**
+   * The number of lines in a chunk.
+   */
+  private static final int CHUNK_LINES = 1 << 18;
+
+  /**
+   * The number of chunks per thread that can be read and not yet sent.
+   */
+  private static final int WINDOW = 2;
+
+  /**
+   * A chunk of the dataset, split into one part per producer thread.
+   */
+  private static final class Chunk {
+
+    /**
+     * The parts, one per thread, completed by the reader of the chunk.
+     */
+    private final CompletableFuture<LinkBuffer[]> parts = new CompletableFuture<>();
+
+    /**
+     * The number of threads that have not sent their part yet.
+     */
+    private final AtomicInteger pending;
+
+    private Chunk(int threads) {
+      this.pending = new AtomicInteger(threads);
+    }
+  }
+
+  private ParallelPublisher() {}
+
+  /**
+   * Publishes {@code dataset} to {@code topic}, with one thread per producer of {@code producers}.
+   * @param dataset the dataset to publish.
+   * @param topic the topic.
+   * @param keys the key strategy.
+   * @param producers the producers, one per thread.
+   * @param pacer the pacer shared by all threads; null, to publish at full speed.
+   * @return the number of published links.
+   * @throws IOException when {@code dataset} cannot be read or a thread fails.
+   */
+  public static long publish(Path dataset, String topic, KeyStrategy keys, List<StringKafkaProducer> producers,
+                             RatePacer pacer) throws IOException {
+    return publish(dataset, topic, keys, producers, pacer, CHUNK_LINES);
+  }
+
+  /**
+   * Publishes {@code dataset} to {@code topic}, with one thread per producer of {@code producers},
+   * reading chunks of {@code chunkLines} lines.
+   * @param dataset the dataset to publish.
+   * @param topic the topic.
+   * @param keys the key strategy.
+   * @param producers the producers, one per thread.
+   * @param pacer the pacer shared by all threads; null, to publish at full speed.
+   * @param chunkLines the number of lines in a chunk.
+   * @return the number of published links.
+   * @throws IOException when {@code dataset} cannot be read or a thread fails.
+   */
+  static long publish(Path dataset, String topic, KeyStrategy keys, List<StringKafkaProducer> producers,
+                      RatePacer pacer, int chunkLines) throws IOException {
+    final int threads = producers.size();
+    final long total = Links.count(dataset);
+    final long step = Math.max(1, total / 20);
+    final AtomicLong published = new AtomicLong();
+
+    final Chunk[] chunks = new Chunk[(int) ((total + chunkLines - 1) / chunkLines)];
+    for (int c = 0; c < chunks.length; c++) {
+      chunks[c] = new Chunk(threads);
+    }
+    final AtomicInteger next = new AtomicInteger();
+    final Semaphore window = new Semaphore(WINDOW * threads);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2 * threads);
+    CompletionService<Void> tasks = new ExecutorCompletionService<>(pool);
+    try {
+      for (int r = 0; r < threads; r++) {
+        tasks.submit(() -> read(dataset, total, chunkLines, keys, threads, chunks, next, window));
+      }
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        final StringKafkaProducer producer = producers.get(t);
+        tasks.submit(() -> {
+          for (int c = 0; c < chunks.length; c++) {
+            final Chunk chunk = chunks[c];
+            final LinkBuffer part = chunk.parts.get()[thread];
+            for (int i = 0; i < part.size(); i++) {
+              if (pacer != null) {
+                synchronized (pacer) {
+                  pacer.acquire();
+                }
+              }
+              producer.send(topic, part.get(i), keys);
+              final long curr = published.incrementAndGet();
+              if (curr % step == 0) {
+                LOGGER.info("progress (publish): {}% :: examined : {}/{}", Math.round(100.0 * curr / total), curr, total);
+              }
+            }
+            if (chunk.pending.decrementAndGet() == 0) {
+              /* sent by all threads: release the chunk and let readers go ahead */
+              chunks[c] = null;
+              window.release();
+            }
+          }
+          return null;
+        });
+      }
+      for (int i = 0; i < 2 * threads; i++) {
+        tasks.take().get();
+      }
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while publishing " + dataset, exc);
+    } catch (ExecutionException exc) {
+      Throwable cause = exc.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(cause.getMessage(), cause);
+    } finally {
+      pool.shutdownNow();
+    }
+    return published.get();
+  }
+
+  /**
+   * Reads the next chunks of {@code dataset} in order, as long as the window allows, splitting
+   * every chunk into the parts of the owner threads of its links.
+   * @param dataset the dataset to read.
+   * @param total the number of lines of {@code dataset}.
+   * @param chunkLines the number of lines in a chunk.
+   * @param keys the key strategy.
+   * @param threads the number of threads.
+   * @param chunks the chunks.
+   * @param next the index of the next chunk to read.
+   * @param window the chunks that can be read ahead of producers.
+   * @return null.
+   * @throws IOException when {@code dataset} cannot be read.
+   * @throws InterruptedException when interrupted.
+   */
+  private static Void read(Path dataset, long total, int chunkLines, KeyStrategy keys, int threads,
+                           Chunk[] chunks, AtomicInteger next, Semaphore window) throws IOException, InterruptedException {
+    while (true) {
+      window.acquire();
+      final int c = next.getAndIncrement();
+      if (c >= chunks.length) {
+        window.release();
+        return null;
+      }
+      final long from = (long) c * chunkLines;
+      final long to = Math.min(total, from + chunkLines);
+      final LinkBuffer[] parts = new LinkBuffer[threads];
+      for (int t = 0; t < threads; t++) {
+        parts[t] = new LinkBuffer((int) ((to - from) / threads) + 16);
+      }
+      Links.forEach(dataset, from, to, (src, dst, weight, type) ->
+          parts[owner(keys, src, dst, weight, type, threads)].add(src, dst, weight, type));
+      chunks[c].parts.complete(parts);
+    }
+  }
+
+  /**
+   * Returns the thread owning the key of link ({@code src},{@code dst},{@code weight},{@code type}).
+   * Links with the same key have the same owner.
+   * @param keys the key strategy.
+   * @param src the source node.
+   * @param dst the destination node.
+   * @param weight the weight.
+   * @param type the type.
+   * @param threads the number of threads.
+   * @return the owner thread.
+   */
+  static int owner(KeyStrategy keys, long src, long dst, double weight, LinkType type, int threads) {
+    final long hash;
+    switch (keys) {
+      case SRC: hash = src; break;
+      case DST: hash = dst; break;
+      case MIN: hash = Math.min(src, dst); break;
+      default: hash = Objects.hash(src, dst, weight, type); break;
+    }
+    return Math.floorMod(Long.hashCode(hash * 0x9E3779B97F4A7C15L), threads);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import lombok.Data;
+
+/**
+ * A Kafka producer configuration model.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see StringKafkaProducer
+ */
+@Data
+public class ProducerConfiguration {
+
+  /**
+   * The maximum size of a batch of records, per partition, in bytes ({@code batch.size}).
+   */
+  private int batchSize = 16384;
+
+  /**
+   * The time to wait for records to fill a batch, in milliseconds ({@code linger.ms}).
+   */
+  private long lingerMs = 1;
+
+  /**
+   * The compression of batches (none, gzip, snappy or lz4) ({@code compression.type}).
+   */
+  private String compressionType = "none";
+
+  /**
+   * The acknowledgements required from the broker (0, 1 or all) ({@code acks}).
+   */
+  private String acks = "all";
+
+  /**
+   * The maximum number of records sent but not yet acknowledged.
+   */
+  private int maxInFlight = 10000;
+
+  /**
+   * The format of published links.
+   */
+  private LinkFormat format = LinkFormat.STRING;
+}
@@ -0,0 +1,196 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A token-bucket pacer, following the rate of a {@link RateProfile}.
+ * Every permit is scheduled one interval (the inverse of the current rate) after the previous one,
+ * but never earlier than the bucket capacity allows, so that a stalled sender catches up with at
+ * most {@link RateProfile#burstAt(double)} back-to-back permits.
+ * The pacer parks the thread until shortly before the due time, then spins, as parking alone
+ * oversleeps by tens of microseconds.
+ * Every second, the achieved rate and the slip (how many permits the sender is behind the
+ * schedule of the profile from the start) are logged.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class RatePacer {
+
+  private static final Logger LOGGER = LogManager.getLogger(RatePacer.class);
+
+  /**
+   * The nanoseconds per second.
+   */
+  private static final double NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * The time before the due time when parking ends and spinning starts, in nanoseconds.
+   */
+  private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  /**
+   * The load profile.
+   */
+  @Getter
+  private final RateProfile profile;
+
+  /**
+   * The clock, in nanoseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * The parker, blocking for the given nanoseconds.
+   */
+  private final LongConsumer parker;
+
+  /**
+   * The start time, in nanoseconds.
+   */
+  private long start = -1;
+
+  /**
+   * The time of the last permit, in nanoseconds from the start.
+   */
+  private long last = 0;
+
+  /**
+   * The schedule of the last permit, in nanoseconds from the start.
+   */
+  private double scheduled = 0.0;
+
+  /**
+   * The number of permits due by the last permit, following the profile from the start.
+   */
+  private double target = 0.0;
+
+  /**
+   * The number of granted permits.
+   */
+  @Getter
+  private long permits = 0;
+
+  /**
+   * The slip of the last permit, i.e. the number of permits behind the profile.
+   */
+  @Getter
+  private long slip = 0;
+
+  /**
+   * The start of the current report second, in nanoseconds from the start.
+   */
+  private long reportStart = 0;
+
+  /**
+   * The number of permits granted in the current report second.
+   */
+  private long reportPermits = 0;
+
+  /**
+   * The maximum slip of permits granted in the current report second.
+   */
+  private long reportMaxSlip = 0;
+
+  /**
+   * Constructs a pacer following {@code profile}.
+   * @param profile the load profile.
+   */
+  public RatePacer(RateProfile profile) {
+    this(profile, System::nanoTime, LockSupport::parkNanos);
+  }
+
+  /**
+   * Constructs a pacer following {@code profile}, on {@code clock}.
+   * @param profile the load profile.
+   * @param clock the clock, in nanoseconds.
+   * @param parker the parker, blocking for the given nanoseconds.
+   */
+  RatePacer(RateProfile profile, LongSupplier clock, LongConsumer parker) {
+    this.profile = profile;
+    this.clock = clock;
+    this.parker = parker;
+  }
+
+  /**
+   * Blocks until the next permit is due.
+   * @return the slip of the permit, i.e. the number of permits behind the profile.
+   */
+  public long acquire() {
+    long now = this.clock.getAsLong();
+    if (this.start < 0) {
+      this.start = now;
+    }
+    final double rate = this.profile.rateAt(this.scheduled / NANOS);
+    final double interval = NANOS / rate;
+    final double burst = this.profile.burstAt(rate) * interval;
+    this.scheduled = Math.max(this.scheduled + interval, (now - this.start) - burst);
+    final long due = this.start + (long) this.scheduled;
+    while (due - now > SPIN_NANOS) {
+      this.parker.accept(due - now - SPIN_NANOS);
+      now = this.clock.getAsLong();
+    }
+    while (due - now > 0) {
+      now = this.clock.getAsLong();
+    }
+    final long elapsed = now - this.start;
+    this.target += this.profile.rateAt(this.last / NANOS) * (elapsed - this.last) / NANOS;
+    this.last = elapsed;
+    this.permits++;
+    this.slip = Math.max(0, (long) (this.target - this.permits));
+    this.report(elapsed, rate);
+    return this.slip;
+  }
+
+  /**
+   * Accounts a permit, and logs the report of the current second when over.
+   * @param elapsed the time from the start, in nanoseconds.
+   * @param rate the target rate of the permit, in links per second.
+   */
+  private void report(long elapsed, double rate) {
+    if (elapsed - this.reportStart >= NANOS) {
+      final double seconds = (elapsed - this.reportStart) / NANOS;
+      LOGGER.info("publish :: rate: {} links/s (target: {}) | slip: {} links (max: {} links)",
+          Math.round(this.reportPermits / seconds), Math.round(rate), this.slip, this.reportMaxSlip);
+      this.reportStart = elapsed;
+      this.reportPermits = 0;
+      this.reportMaxSlip = 0;
+    }
+    this.reportPermits++;
+    this.reportMaxSlip = Math.max(this.reportMaxSlip, this.slip);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Data;
+
+/**
+ * A phase of a {@link RateProfile}, lasting {@code duration} seconds.
+ * {@code CONSTANT} holds {@code rate}; {@code RAMP} grows linearly from {@code rate} to
+ * {@code peak}; {@code STEP} grows from {@code rate} to {@code peak} in {@code steps} equal
+ * steps; {@code SPIKE} holds {@code rate}, except for {@code peak} during {@code width} seconds
+ * in the middle of the phase.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+public class RatePhase {
+
+  /**
+   * Types of phases.
+   */
+  public enum Type {
+    CONSTANT, RAMP, STEP, SPIKE;
+
+    /**
+     * Returns the phase type from {@code string}, ignoring case.
+     * @param string the string to parse.
+     * @return the phase type; null, if unknown.
+     */
+    @JsonCreator
+    public static Type fromString(String string) {
+      for (Type type : Type.values()) {
+        if (type.name().equalsIgnoreCase(string)) {
+          return type;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * The phase type.
+   */
+  private Type type = Type.CONSTANT;
+
+  /**
+   * The base rate, in links per second.
+   */
+  private double rate;
+
+  /**
+   * The peak rate, in links per second.
+   */
+  private double peak;
+
+  /**
+   * The duration, in seconds.
+   */
+  private double duration;
+
+  /**
+   * The number of steps of {@code STEP}.
+   */
+  private int steps = 1;
+
+  /**
+   * The spike width of {@code SPIKE}, in seconds.
+   */
+  private double width;
+
+  /**
+   * Returns the rate at {@code time} seconds from the start of the phase.
+   * @param time the time from the start of the phase, in seconds.
+   * @return the rate, in links per second.
+   */
+  public double rateAt(double time) {
+    switch (this.type) {
+      case RAMP:
+        return this.rate + (this.peak - this.rate) * Math.min(1.0, time / this.duration);
+      case STEP:
+        final int step = (int) Math.min(this.steps, Math.floor(time / this.duration * (this.steps + 1)));
+        return this.rate + (this.peak - this.rate) * step / this.steps;
+      case SPIKE:
+        final double start = (this.duration - this.width) / 2.0;
+        return (time >= start && time < start + this.width) ? this.peak : this.rate;
+      default:
+        return this.rate;
+    }
+  }
+
+  /**
+   * Returns the rate at the end of the phase.
+   * @return the rate, in links per second.
+   */
+  public double finalRate() {
+    switch (this.type) {
+      case RAMP:
+      case STEP:
+        return this.peak;
+      default:
+        return this.rate;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A load profile for publishing, i.e. a sequence of {@link RatePhase}, whose last rate holds
+ * after the last phase, and the capacity of the token bucket, i.e. the number of links that can
+ * be sent back-to-back to catch up after a stall.
+ * When the capacity is not set, it holds the links of {@link #BURST_WINDOW} seconds at the
+ * current rate, so that timer oversleeps are recovered instead of lowering the achieved rate.
+ * Profiles are read from YAML files, e.g.
+ * <pre>
+ * burst: 1000
+ * phases:
+ *   - {type: RAMP, rate: 1000, peak: 20000, duration: 60}
+ *   - {type: SPIKE, rate: 20000, peak: 100000, duration: 30, width: 5}
+ * </pre>
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RatePacer
+ */
+@Data
+public class RateProfile {
+
+  /**
+   * The time window of the default capacity of the token bucket, in seconds.
+   */
+  public static final double BURST_WINDOW = 0.01;
+
+  /**
+   * The capacity of the token bucket, in links (0 for the links of {@link #BURST_WINDOW}).
+   */
+  private double burst = 0.0;
+
+  /**
+   * The phases.
+   */
+  private List<RatePhase> phases = new ArrayList<>();
+
+  /**
+   * Returns the profile holding {@code rate}.
+   * @param rate the rate, in links per second.
+   * @return the profile.
+   */
+  public static RateProfile constant(double rate) {
+    RatePhase phase = new RatePhase();
+    phase.setRate(rate);
+    RateProfile profile = new RateProfile();
+    profile.getPhases().add(phase);
+    return profile;
+  }
+
+  /**
+   * Reads the profile from the YAML file {@code path}.
+   * @param path the profile file.
+   * @return the profile.
+   * @throws IOException when {@code path} cannot be read or is not a valid profile.
+   */
+  public static RateProfile of(Path path) throws IOException {
+    ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+    final RateProfile profile;
+    try (InputStream in = Files.newInputStream(path)) {
+      profile = mapper.readValue(in, RateProfile.class);
+    }
+    profile.validate();
+    return profile;
+  }
+
+  /**
+   * Returns the rate at {@code time} seconds from the start of publishing.
+   * @param time the time from the start, in seconds.
+   * @return the rate, in links per second.
+   */
+  public double rateAt(double time) {
+    double start = 0.0;
+    for (RatePhase phase : this.phases) {
+      if (time < start + phase.getDuration()) {
+        return phase.rateAt(time - start);
+      }
+      start += phase.getDuration();
+    }
+    return this.phases.get(this.phases.size() - 1).finalRate();
+  }
+
+  /**
+   * Returns the capacity of the token bucket at {@code rate}.
+   * @param rate the rate, in links per second.
+   * @return the capacity, in links.
+   */
+  public double burstAt(double rate) {
+    return (this.burst > 0.0) ? this.burst : Math.max(1.0, rate * BURST_WINDOW);
+  }
+
+  /**
+   * Checks that the profile has phases, with positive rates and non-negative durations.
+   * @throws IOException when the profile is not valid.
+   */
+  public void validate() throws IOException {
+    if (this.phases == null || this.phases.isEmpty()) {
+      throw new IOException("Rate profile without phases");
+    }
+    if (!(this.burst == 0.0 || this.burst >= 1.0)) {
+      throw new IOException("Rate profile burst must be 0 or at least 1: " + this.burst);
+    }
+    for (RatePhase phase : this.phases) {
+      if (phase.getType() == null) {
+        throw new IOException("Unknown rate phase type: " + phase);
+      }
+      final boolean peaked = phase.getType() != RatePhase.Type.CONSTANT;
+      if (!(phase.getRate() > 0.0) || (peaked && !(phase.getPeak() > 0.0)) || !(phase.getDuration() >= 0.0)
+          || phase.getSteps() < 1 || !(phase.getWidth() >= 0.0)) {
+        throw new IOException("Not valid rate phase: " + phase);
+      }
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A high-resolution scheduler replaying event timestamps, warped by a speedup factor, so that
+ * the first event is due immediately and every following event is due after its original
+ * inter-arrival time divided by the speedup.
+ * The scheduler parks the thread until shortly before the due time, then spins, as parking alone
+ * oversleeps by tens of microseconds.
+ * Every second, the number of sent events and the drift (how late events are sent with respect to
+ * their schedule) are logged.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class ReplayScheduler {
+
+  private static final Logger LOGGER = LogManager.getLogger(ReplayScheduler.class);
+
+  /**
+   * The nanoseconds per second.
+   */
+  private static final long NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * The time before the due time when parking ends and spinning starts, in nanoseconds.
+   */
+  private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+  /**
+   * The speedup factor.
+   */
+  @Getter
+  private final double speedup;
+
+  /**
+   * The clock, in nanoseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * The parker, blocking for the given nanoseconds.
+   */
+  private final LongConsumer parker;
+
+  /**
+   * The start time, in nanoseconds.
+   */
+  private long start = -1;
+
+  /**
+   * The timestamp of the first event, in milliseconds.
+   */
+  private long first;
+
+  /**
+   * The number of scheduled events.
+   */
+  @Getter
+  private long events = 0;
+
+  /**
+   * The maximum drift, in nanoseconds.
+   */
+  @Getter
+  private long maxDrift = 0;
+
+  /**
+   * The start of the current report second, in nanoseconds from the start.
+   */
+  private long reportStart = 0;
+
+  /**
+   * The number of events scheduled in the current report second.
+   */
+  private long reportEvents = 0;
+
+  /**
+   * The total drift of events scheduled in the current report second, in nanoseconds.
+   */
+  private long reportDrift = 0;
+
+  /**
+   * The maximum drift of events scheduled in the current report second, in nanoseconds.
+   */
+  private long reportMaxDrift = 0;
+
+  /**
+   * Constructs a scheduler warping time by {@code speedup}.
+   * @param speedup the speedup factor, e.g. 144 to replay a day in 10 minutes.
+   * @throws IllegalArgumentException when {@code speedup} is not positive.
+   */
+  public ReplayScheduler(double speedup) {
+    this(speedup, System::nanoTime, LockSupport::parkNanos);
+  }
+
+  /**
+   * Constructs a scheduler warping time by {@code speedup}, on {@code clock}.
+   * @param speedup the speedup factor.
+   * @param clock the clock, in nanoseconds.
+   * @param parker the parker, blocking for the given nanoseconds.
+   * @throws IllegalArgumentException when {@code speedup} is not positive.
+   */
+  ReplayScheduler(double speedup, LongSupplier clock, LongConsumer parker) {
+    if (!(speedup > 0.0)) {
+      throw new IllegalArgumentException("Speedup must be positive: " + speedup);
+    }
+    this.speedup = speedup;
+    this.clock = clock;
+    this.parker = parker;
+  }
+
+  /**
+   * Blocks until the event with {@code timestamp} is due.
+   * @param timestamp the event timestamp, in milliseconds.
+   * @return the drift of the event, in nanoseconds.
+   */
+  public long await(long timestamp) {
+    long now = this.clock.getAsLong();
+    if (this.start < 0) {
+      this.start = now;
+      this.first = timestamp;
+    }
+    final long due = this.start + (long) ((timestamp - this.first) * 1e6 / this.speedup);
+    while (due - now > SPIN_NANOS) {
+      this.parker.accept(due - now - SPIN_NANOS);
+      now = this.clock.getAsLong();
+    }
+    while (due - now > 0) {
+      now = this.clock.getAsLong();
+    }
+    final long drift = now - due;
+    this.events++;
+    this.maxDrift = Math.max(this.maxDrift, drift);
+    this.report(now - this.start, drift);
+    return drift;
+  }
+
+  /**
+   * Accounts an event, and logs the report of the current second when over.
+   * @param elapsed the time from the start, in nanoseconds.
+   * @param drift the drift of the event, in nanoseconds.
+   */
+  private void report(long elapsed, long drift) {
+    if (elapsed - this.reportStart >= NANOS) {
+      final double seconds = (double) (elapsed - this.reportStart) / NANOS;
+      LOGGER.info("replay :: rate: {} events/s | drift: {} ms (max: {} ms)",
+          Math.round(this.reportEvents / seconds),
+          String.format("%.3f", (this.reportEvents == 0) ? 0.0 : this.reportDrift / 1e6 / this.reportEvents),
+          String.format("%.3f", this.reportMaxDrift / 1e6));
+      this.reportStart = elapsed;
+      this.reportEvents = 0;
+      this.reportDrift = 0;
+      this.reportMaxDrift = 0;
+    }
+    this.reportEvents++;
+    this.reportDrift += drift;
+    this.reportMaxDrift = Math.max(this.reportMaxDrift, drift);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +41,7 @@ import java.util.Properties;
 
 /**
  * A simple Kafka consumer.
+ * Links are received in a {@link LinkFormat}, decoded by {@link LinkDeserializer}.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
@@ -48,9 +50,13 @@ public class StringKafkaConsumer {
 
   private static final Logger LOGGER = LogManager.getLogger(StringKafkaConsumer.class);
 
-  private Consumer<String,String> consumer;
+  private Consumer<String,Link> consumer;
 
   public StringKafkaConsumer(String bootstrapServers, String groupId) {
+    this(bootstrapServers, groupId, LinkFormat.STRING);
+  }
+
+  public StringKafkaConsumer(String bootstrapServers, String groupId, LinkFormat format) {
     Properties props = new Properties();
     props.put("bootstrap.servers", bootstrapServers);
     props.put("group.id", groupId);
@@ -59,30 +65,22 @@ public class StringKafkaConsumer {
     props.put("batch.size", 16384);
     props.put("linger.ms", 1);
     props.put("buffer.memory", 33554432);
-    props.put("key.deserializer", StringDeserializer.class.getName());
-    props.put("value.deserializer", StringDeserializer.class.getName());
-    this.consumer = new KafkaConsumer<>(props);
+    this.consumer = new KafkaConsumer<>(props, new StringDeserializer(), new LinkDeserializer(format));
   }
 
   public Link receive(String topic) {
     this.consumer.subscribe(Collections.singletonList(topic));
-    String message = null;
+    Link link = null;
     try {
-      ConsumerRecords<String, String> records = this.consumer.poll(3000);
-      Iterator<ConsumerRecord<String, String>> iter = records.iterator();
-      if (iter.hasNext()) message = iter.next().value();
+      ConsumerRecords<String, Link> records = this.consumer.poll(3000);
+      Iterator<ConsumerRecord<String, Link>> iter = records.iterator();
+      if (iter.hasNext()) link = iter.next().value();
+    } catch (SerializationException exc) {
+      LOGGER.warn(exc.getMessage());
     } finally {
       this.consumer.close();
     }
 
-    Link link;
-    try {
-      link = Link.valueOf(message);
-    } catch (IllegalArgumentException exc) {
-      LOGGER.warn("Malformed link: {}", message);
-      link = null;
-    }
-
     return link;
   }
 
@@ -30,38 +30,174 @@ import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A simple Kafka producer.
+ * Links are sent in the {@link LinkFormat} of {@link ProducerConfiguration#getFormat()}.
+ * Records are sent asynchronously, with at most {@link ProducerConfiguration#getMaxInFlight()}
+ * records not yet acknowledged, and callbacks counting acknowledged and failed records.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
 public class StringKafkaProducer {
 
-  private Producer<String,String> producer;
+  private static final Logger LOGGER = LogManager.getLogger(StringKafkaProducer.class);
+
+  private Producer<String,Link> producer;
+
+  /**
+   * The format of sent links.
+   */
+  private final LinkFormat format;
+
+  /**
+   * The permits of in-flight records.
+   */
+  private final Semaphore inFlight;
+
+  /**
+   * The number of sent records.
+   */
+  private final AtomicLong sent = new AtomicLong();
+
+  /**
+   * The number of sent bytes (keys and values).
+   */
+  private final AtomicLong bytes = new AtomicLong();
+
+  /**
+   * The number of acknowledged records.
+   */
+  private final AtomicLong acked = new AtomicLong();
+
+  /**
+   * The number of failed records.
+   */
+  private final AtomicLong failed = new AtomicLong();
+
+  /**
+   * The first send error.
+   */
+  private final AtomicReference<Exception> error = new AtomicReference<>();
 
   public StringKafkaProducer(String bootstrapServers) {
+    this(bootstrapServers, new ProducerConfiguration());
+  }
+
+  public StringKafkaProducer(String bootstrapServers, ProducerConfiguration conf) {
     Properties props = new Properties();
     props.put("bootstrap.servers", bootstrapServers);
-    props.put("acks", "all");
+    props.put("acks", conf.getAcks());
     props.put("retries", 0);
-    props.put("batch.size", 16384);
-    props.put("linger.ms", 1);
+    props.put("batch.size", conf.getBatchSize());
+    props.put("linger.ms", conf.getLingerMs());
+    props.put("compression.type", conf.getCompressionType());
     props.put("buffer.memory", 33554432);
-    props.put("key.serializer", StringSerializer.class.getName());
-    props.put("value.serializer", StringSerializer.class.getName());
-    this.producer = new KafkaProducer<>(props);
+    this.producer = new KafkaProducer<>(props, new StringSerializer(), new LinkSerializer(conf.getFormat()));
+    this.inFlight = new Semaphore(conf.getMaxInFlight());
+    this.format = conf.getFormat();
+  }
+
+  /**
+   * Constructs a producer wrapping {@code producer}.
+   * @param producer the wrapped producer.
+   * @param maxInFlight the maximum number of records sent but not yet acknowledged.
+   * @param format the format of sent links, as serialized by {@code producer}.
+   */
+  StringKafkaProducer(Producer<String,Link> producer, int maxInFlight, LinkFormat format) {
+    this.producer = producer;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.format = format;
   }
 
   public void send(String topic, Link link) {
-    String message = link.toString();
-    ProducerRecord<String,String> record = new ProducerRecord<>(topic, message, message);
-    this.producer.send(record);
+    this.send(topic, link, KeyStrategy.LINK);
+  }
+
+  /**
+   * Sends {@code link} to {@code topic}, keyed by {@code keys}.
+   * Binary links keyed by {@link KeyStrategy#LINK} are sent without key, as the string key would
+   * be larger than the link.
+   * @param topic the topic.
+   * @param link the link to send.
+   * @param keys the key strategy.
+   */
+  public void send(String topic, Link link, KeyStrategy keys) {
+    String message = (this.format == LinkFormat.STRING) ? link.toString() : null;
+    String key = keys.key(link.getSrc(), link.getDst(), message);
+    ProducerRecord<String,Link> record = new ProducerRecord<>(topic, key, link);
+    this.inFlight.acquireUninterruptibly();
+    this.sent.incrementAndGet();
+    this.bytes.addAndGet(((key == null) ? 0 : key.length()) + LinkSerializer.sizeOf(link, message, this.format));
+    try {
+      this.producer.send(record, (metadata, exc) -> {
+        this.inFlight.release();
+        if (exc == null) {
+          this.acked.incrementAndGet();
+        } else if (this.failed.getAndIncrement() == 0) {
+          this.error.compareAndSet(null, exc);
+          LOGGER.error("Cannot send record to {}: {}", topic, exc.getMessage());
+        }
+      });
+    } catch (RuntimeException exc) {
+      this.inFlight.release();
+      this.failed.incrementAndGet();
+      this.error.compareAndSet(null, exc);
+      throw exc;
+    }
+  }
+
+  /**
+   * Returns the number of sent records.
+   * @return the number of sent records.
+   */
+  public long getSent() {
+    return this.sent.get();
+  }
+
+  /**
+   * Returns the number of sent bytes (keys and values).
+   * @return the number of sent bytes.
+   */
+  public long getBytes() {
+    return this.bytes.get();
+  }
+
+  /**
+   * Returns the number of acknowledged records.
+   * @return the number of acknowledged records.
+   */
+  public long getAcked() {
+    return this.acked.get();
+  }
+
+  /**
+   * Returns the number of failed records.
+   * @return the number of failed records.
+   */
+  public long getFailed() {
+    return this.failed.get();
+  }
+
+  /**
+   * Returns the first send error.
+   * @return the first send error; null, if none.
+   */
+  public Exception getError() {
+    return this.error.get();
   }
 
+  /**
+   * Closes the producer, waiting for in-flight records.
+   */
   public void close() {
     this.producer.close();
   }
@@ -0,0 +1,279 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped reader of binary datasets.
+ * Records are accessed in place, so that opening a dataset costs no parsing.
+ * Datasets larger than 2GB are mapped as multiple regions.
+ * Instances are thread-safe, as they only perform absolute reads.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BinaryLinks
+ */
+public class BinaryLinkReader {
+
+  /**
+   * The number of records per mapped region.
+   */
+  private static final int RECORDS_PER_REGION = Integer.MAX_VALUE / BinaryLinks.RECORD_SIZE;
+
+  /**
+   * The number of records.
+   */
+  @Getter
+  private final long size;
+
+  /**
+   * The link types, indexed by their position in the type dictionary.
+   */
+  private final LinkType[] types;
+
+  /**
+   * The mapped regions.
+   */
+  private final MappedByteBuffer[] regions;
+
+  /**
+   * The size of the header, that is the file offset of the first record, in bytes.
+   */
+  private final long headerSize;
+
+  /**
+   * Constructs a new reader.
+   * @param size the number of records.
+   * @param types the type dictionary.
+   * @param regions the mapped regions.
+   * @param headerSize the size of the header, in bytes.
+   */
+  private BinaryLinkReader(long size, LinkType[] types, MappedByteBuffer[] regions, long headerSize) {
+    this.size = size;
+    this.types = types;
+    this.regions = regions;
+    this.headerSize = headerSize;
+  }
+
+  /**
+   * Opens the binary dataset {@code dataset}.
+   * @param dataset the dataset to open.
+   * @return the reader.
+   * @throws IOException when {@code dataset} cannot be read or is not a valid binary dataset.
+   */
+  public static BinaryLinkReader open(Path dataset) throws IOException {
+    try (FileChannel channel = FileChannel.open(dataset, StandardOpenOption.READ)) {
+      ByteBuffer fixed = ByteBuffer.allocate(20);
+      readFully(channel, fixed, 0, dataset);
+      if (fixed.getInt(0) != BinaryLinks.MAGIC) {
+        throw new IOException("Not a binary dataset: " + dataset);
+      }
+      if (fixed.getInt(4) != BinaryLinks.VERSION) {
+        throw new IOException("Unsupported binary dataset version: " + fixed.getInt(4));
+      }
+      final long size = fixed.getLong(BinaryLinks.COUNT_POSITION);
+      final int numTypes = fixed.getInt(16);
+
+      long position = fixed.capacity();
+      LinkType[] types = new LinkType[numTypes];
+      ByteBuffer length = ByteBuffer.allocate(1);
+      for (int t = 0; t < numTypes; t++) {
+        length.clear();
+        readFully(channel, length, position, dataset);
+        ByteBuffer name = ByteBuffer.allocate(length.get(0) & 0xFF);
+        readFully(channel, name, position + 1, dataset);
+        position += 1 + name.capacity();
+        types[t] = typeOf(new String(name.array(), StandardCharsets.US_ASCII), dataset);
+      }
+
+      if (channel.size() != position + size * BinaryLinks.RECORD_SIZE) {
+        throw new IOException("Truncated binary dataset: " + dataset);
+      }
+
+      final int numRegions = (int) ((size + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION);
+      MappedByteBuffer[] regions = new MappedByteBuffer[numRegions];
+      for (int r = 0; r < numRegions; r++) {
+        final long first = (long) r * RECORDS_PER_REGION;
+        final long records = Math.min(RECORDS_PER_REGION, size - first);
+        regions[r] = channel.map(FileChannel.MapMode.READ_ONLY,
+            position + first * BinaryLinks.RECORD_SIZE, records * BinaryLinks.RECORD_SIZE);
+      }
+
+      return new BinaryLinkReader(size, types, regions, position);
+    }
+  }
+
+  /**
+   * Returns the source node of the {@code i}-th record.
+   * @param i the record index.
+   * @return the source node.
+   */
+  public long getSrc(long i) {
+    return this.regions[region(i)].getLong(offset(i));
+  }
+
+  /**
+   * Returns the destination node of the {@code i}-th record.
+   * @param i the record index.
+   * @return the destination node.
+   */
+  public long getDst(long i) {
+    return this.regions[region(i)].getLong(offset(i) + 8);
+  }
+
+  /**
+   * Returns the weight of the {@code i}-th record.
+   * @param i the record index.
+   * @return the weight.
+   */
+  public double getWeight(long i) {
+    return this.regions[region(i)].getDouble(offset(i) + 16);
+  }
+
+  /**
+   * Returns the type of the {@code i}-th record.
+   * @param i the record index.
+   * @return the type.
+   * @throws IOException when the record has an unknown type index.
+   */
+  public LinkType getType(long i) throws IOException {
+    return this.typeOf(this.regions[region(i)], i);
+  }
+
+  /**
+   * Returns the {@code i}-th record as a new {@link Link}.
+   * @param i the record index.
+   * @return the link.
+   * @throws IOException when the record has an unknown type index.
+   */
+  public Link get(long i) throws IOException {
+    return new Link(this.getSrc(i), this.getDst(i), this.getWeight(i), this.getType(i));
+  }
+
+  /**
+   * Streams records in range [{@code from}, {@code to}) to {@code consumer}, in dataset order.
+   * @param from the first record (inclusive).
+   * @param to the last record (exclusive).
+   * @param consumer the link consumer.
+   * @throws IOException when a record has an unknown type index or {@code consumer} fails.
+   */
+  public void forEach(long from, long to, LinkConsumer consumer) throws IOException {
+    if (from < 0 || to > this.size || from > to) {
+      throw new IndexOutOfBoundsException(String.format("[%d,%d) out of [0,%d)", from, to, this.size));
+    }
+    for (long i = from; i < to; i++) {
+      final ByteBuffer region = this.regions[region(i)];
+      final int offset = offset(i);
+      consumer.accept(region.getLong(offset), region.getLong(offset + 8),
+          region.getDouble(offset + 16), this.typeOf(region, i));
+    }
+  }
+
+  /**
+   * Streams all records to {@code consumer}, in dataset order.
+   * @param consumer the link consumer.
+   * @throws IOException when a record has an unknown type index or {@code consumer} fails.
+   */
+  public void forEach(LinkConsumer consumer) throws IOException {
+    this.forEach(0, this.size, consumer);
+  }
+
+  /**
+   * Returns the type of the {@code i}-th record, held by {@code region}.
+   * @param region the region holding the record.
+   * @param i the record index.
+   * @return the type.
+   * @throws IOException when the type index is out of the type dictionary.
+   */
+  private LinkType typeOf(ByteBuffer region, long i) throws IOException {
+    final int type = region.get(offset(i) + 24) & 0xFF;
+    if (type >= this.types.length) {
+      throw new IOException(String.format("Unknown type index %d in record at offset %d",
+          type, this.headerSize + i * BinaryLinks.RECORD_SIZE));
+    }
+    return this.types[type];
+  }
+
+  /**
+   * Returns the region holding the {@code i}-th record.
+   * @param i the record index.
+   * @return the region index.
+   */
+  private static int region(long i) {
+    return (int) (i / RECORDS_PER_REGION);
+  }
+
+  /**
+   * Returns the offset of the {@code i}-th record within its region.
+   * @param i the record index.
+   * @return the offset, in bytes.
+   */
+  private static int offset(long i) {
+    return (int) (i % RECORDS_PER_REGION) * BinaryLinks.RECORD_SIZE;
+  }
+
+  /**
+   * Fills {@code buffer} with bytes of {@code channel} from {@code position}.
+   * @param channel the channel to read.
+   * @param buffer the buffer to fill.
+   * @param position the starting position.
+   * @param dataset the dataset, for error reporting.
+   * @throws IOException when the channel ends before {@code buffer} is filled.
+   */
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position, Path dataset) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Truncated binary dataset: " + dataset);
+      }
+    }
+  }
+
+  /**
+   * Returns the link type named {@code name}.
+   * @param name the type name.
+   * @param dataset the dataset, for error reporting.
+   * @return the link type.
+   * @throws IOException when there is no link type named {@code name}.
+   */
+  private static LinkType typeOf(String name, Path dataset) throws IOException {
+    for (LinkType type : LinkType.values()) {
+      if (type.getName().equals(name)) {
+        return type;
+      }
+    }
+    throw new IOException(String.format("Unknown link type %s in binary dataset %s", name, dataset));
+  }
+}
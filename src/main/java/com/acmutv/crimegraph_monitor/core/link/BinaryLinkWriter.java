@@ -0,0 +1,140 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A streaming writer of binary datasets.
+ * The number of records is written into the header when the writer is closed.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BinaryLinks
+ */
+public class BinaryLinkWriter implements LinkConsumer, Closeable {
+
+  /**
+   * The size of the write buffer, in records.
+   */
+  private static final int BUFFERED_RECORDS = 4096;
+
+  /**
+   * The output channel.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The write buffer.
+   */
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFERED_RECORDS * BinaryLinks.RECORD_SIZE);
+
+  /**
+   * The number of written records.
+   */
+  private long count = 0;
+
+  /**
+   * Creates (or overwrites) the binary dataset {@code dataset}.
+   * @param dataset the dataset to write.
+   * @throws IOException when {@code dataset} cannot be written.
+   */
+  public BinaryLinkWriter(Path dataset) throws IOException {
+    if (dataset.getParent() != null && !Files.isDirectory(dataset.getParent())) {
+      Files.createDirectories(dataset.getParent());
+    }
+    this.channel = FileChannel.open(dataset,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    this.buffer.putInt(BinaryLinks.MAGIC);
+    this.buffer.putInt(BinaryLinks.VERSION);
+    this.buffer.putLong(0);
+    this.buffer.putInt(LinkType.values().length);
+    for (LinkType type : LinkType.values()) {
+      byte[] name = type.getName().getBytes(StandardCharsets.US_ASCII);
+      this.buffer.put((byte) name.length);
+      this.buffer.put(name);
+    }
+  }
+
+  /**
+   * Writes the binary dataset {@code dataset} with all links of {@code links}.
+   * @param dataset the dataset to write.
+   * @param links the links to write.
+   * @throws IOException when {@code dataset} cannot be written.
+   */
+  public static void write(Path dataset, LinkBuffer links) throws IOException {
+    try (BinaryLinkWriter writer = new BinaryLinkWriter(dataset)) {
+      links.forEach(writer);
+    }
+  }
+
+  @Override
+  public void accept(long src, long dst, double weight, LinkType type) throws IOException {
+    if (this.buffer.remaining() < BinaryLinks.RECORD_SIZE) {
+      this.flush();
+    }
+    this.buffer.putLong(src);
+    this.buffer.putLong(dst);
+    this.buffer.putDouble(weight);
+    this.buffer.put((byte) type.ordinal());
+    this.count++;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.flush();
+      ByteBuffer count = ByteBuffer.allocate(8);
+      count.putLong(0, this.count);
+      while (count.hasRemaining()) {
+        this.channel.write(count, BinaryLinks.COUNT_POSITION + count.position());
+      }
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Writes the buffered bytes to the channel.
+   * @throws IOException when the channel cannot be written.
+   */
+  private void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
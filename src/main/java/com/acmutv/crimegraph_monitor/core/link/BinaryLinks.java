@@ -0,0 +1,84 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.nio.file.Path;
+
+/**
+ * The compact binary format for datasets.
+ * A binary dataset is made of a header followed by fixed-width records, all in big-endian order.
+ * <ul>
+ *   <li>header: magic (int), version (int), number of records (long), number of types (int),
+ *   then, for each type, the length (byte) and the ASCII bytes of its name.</li>
+ *   <li>record: source node (long), destination node (long), weight (double), type index (byte),
+ *   where the type index refers to the type dictionary in the header.</li>
+ * </ul>
+ * Binary datasets are recognized by the extension {@value #EXTENSION}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BinaryLinkReader
+ * @see BinaryLinkWriter
+ */
+public class BinaryLinks {
+
+  /**
+   * The file extension of binary datasets.
+   */
+  public static final String EXTENSION = "bin";
+
+  /**
+   * The magic number of binary datasets ("CGLB").
+   */
+  static final int MAGIC = 0x43474C42;
+
+  /**
+   * The format version.
+   */
+  static final int VERSION = 1;
+
+  /**
+   * The position of the number of records in the header.
+   */
+  static final int COUNT_POSITION = 8;
+
+  /**
+   * The size of a record, in bytes.
+   */
+  public static final int RECORD_SIZE = 8 + 8 + 8 + 1;
+
+  /**
+   * Checks if {@code dataset} is a binary dataset, according to its extension.
+   * @param dataset the dataset.
+   * @return true, if {@code dataset} is binary; false, otherwise.
+   */
+  public static boolean isBinary(Path dataset) {
+    return EXTENSION.equalsIgnoreCase(FilenameUtils.getExtension(dataset.toString()));
+  }
+}
@@ -0,0 +1,319 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import com.acmutv.crimegraph_monitor.tool.collection.LongHashSet;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The sidecar index of a dataset, stored next to the dataset as {@code <dataset>.idx}.
+ * The index holds the number of lines and links, the byte offset of every {@link #STEP}-th line,
+ * the number of distinct nodes and the minimum/maximum node id.
+ * The index is built on first request and rebuilt whenever the {@link Sidecar} is stale.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see Links#forEach(Path, long, long, LinkConsumer)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class DatasetIndex {
+
+  private static final Logger LOGGER = LogManager.getLogger(DatasetIndex.class);
+
+  /**
+   * The extension of index files.
+   */
+  public static final String EXTENSION = "idx";
+
+  /**
+   * The number of lines between two indexed offsets.
+   */
+  public static final int STEP = 1024;
+
+  /**
+   * The sidecar of index files ("CGIX").
+   */
+  private static final Sidecar SIDECAR = new Sidecar("index", EXTENSION, 0x43474958, 1);
+
+  /**
+   * The size of the indexed dataset, in bytes.
+   */
+  private final long datasetSize;
+
+  /**
+   * The last modification time of the indexed dataset, in milliseconds.
+   */
+  private final long datasetModified;
+
+  /**
+   * The number of lines (records, for binary datasets).
+   */
+  private final long numLines;
+
+  /**
+   * The number of well-formed links.
+   */
+  private final long numLinks;
+
+  /**
+   * The number of distinct nodes.
+   */
+  private final long numNodes;
+
+  /**
+   * The minimum node id; -1 if there are no links.
+   */
+  private final long minId;
+
+  /**
+   * The maximum node id; -1 if there are no links.
+   */
+  private final long maxId;
+
+  /**
+   * The byte offset of every {@link #STEP}-th line (empty for binary datasets).
+   */
+  @Getter(AccessLevel.NONE)
+  private final long[] offsets;
+
+  /**
+   * Returns the index of {@code dataset}, loading it from its sidecar when valid, or building
+   * (and storing) it otherwise.
+   * A sidecar that cannot be written is only logged.
+   * @param dataset the dataset.
+   * @return the index.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static DatasetIndex of(Path dataset) throws IOException {
+    return SIDECAR.of(dataset, DatasetIndex::read, () -> build(dataset), DatasetIndex::write);
+  }
+
+  /**
+   * Returns the index of {@code dataset} when its sidecar is valid, without building it.
+   * @param dataset the dataset.
+   * @return the index; null, if the sidecar is missing, stale or not valid.
+   * @throws IOException when {@code dataset} cannot be accessed.
+   */
+  public static DatasetIndex find(Path dataset) throws IOException {
+    return SIDECAR.find(dataset, DatasetIndex::read);
+  }
+
+  /**
+   * Returns the path of the sidecar index of {@code dataset}.
+   * @param dataset the dataset.
+   * @return the sidecar path.
+   */
+  public static Path sidecar(Path dataset) {
+    return SIDECAR.pathOf(dataset);
+  }
+
+  /**
+   * Builds the index of {@code dataset} with a single pass.
+   * @param dataset the dataset.
+   * @return the index.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static DatasetIndex build(Path dataset) throws IOException {
+    LOGGER.info("Indexing dataset {}", dataset);
+    final long size = Files.size(dataset);
+    final long modified = Files.getLastModifiedTime(dataset).toMillis();
+    final Stats stats = new Stats();
+
+    if (BinaryLinks.isBinary(dataset)) {
+      BinaryLinkReader reader = BinaryLinkReader.open(dataset);
+      reader.forEach(stats);
+      return new DatasetIndex(size, modified, reader.getSize(), stats.links, stats.nodes.size(),
+          stats.min, stats.max, new long[0]);
+    }
+
+    long[] offsets = new long[16];
+    int numOffsets = 0;
+    long numLines = 0;
+    LinkParser parser = new LinkParser();
+    byte[] block = new byte[1 << 16];
+    byte[] line = new byte[256];
+    int lineLength = 0;
+    long position = 0;
+    long lineStart = 0;
+    try (InputStream in = Files.newInputStream(dataset)) {
+      int read;
+      while ((read = in.read(block)) > 0) {
+        for (int i = 0; i < read; i++, position++) {
+          final byte b = block[i];
+          if (b != '\n') {
+            if (lineLength == line.length) line = Arrays.copyOf(line, 2 * line.length);
+            line[lineLength++] = b;
+            continue;
+          }
+          if (numLines % STEP == 0) {
+            if (numOffsets == offsets.length) offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+            offsets[numOffsets++] = lineStart;
+          }
+          stats.line(parser, line, lineLength);
+          numLines++;
+          lineLength = 0;
+          lineStart = position + 1;
+        }
+      }
+    }
+    if (lineLength > 0) {
+      if (numLines % STEP == 0) {
+        if (numOffsets == offsets.length) offsets = Arrays.copyOf(offsets, offsets.length + 1);
+        offsets[numOffsets++] = lineStart;
+      }
+      stats.line(parser, line, lineLength);
+      numLines++;
+    }
+
+    LOGGER.info("Indexed dataset {} (lines: {} | links: {} | nodes: {})",
+        dataset, numLines, stats.links, stats.nodes.size());
+    return new DatasetIndex(size, modified, numLines, stats.links, stats.nodes.size(),
+        stats.min, stats.max, Arrays.copyOf(offsets, numOffsets));
+  }
+
+  /**
+   * Checks if the index is still valid for {@code dataset}.
+   * @param dataset the dataset.
+   * @return true, if size and last modification time of {@code dataset} did not change; false, otherwise.
+   * @throws IOException when {@code dataset} cannot be accessed.
+   */
+  public boolean isValidFor(Path dataset) throws IOException {
+    return this.datasetSize == Files.size(dataset)
+        && this.datasetModified == Files.getLastModifiedTime(dataset).toMillis();
+  }
+
+  /**
+   * Returns the byte offset of the closest indexed line at or before {@code line}.
+   * The first line to read from that offset is {@code line - (line % STEP)}.
+   * @param line the line index.
+   * @return the byte offset.
+   */
+  public long offsetOf(long line) {
+    if (line < 0 || line > this.numLines) {
+      throw new IndexOutOfBoundsException(String.format("%d out of [0,%d]", line, this.numLines));
+    }
+    final int slot = (int) (line / STEP);
+    return (slot < this.offsets.length) ? this.offsets[slot] : this.datasetSize;
+  }
+
+  /**
+   * Loads an index from {@code sidecar}, whether stale or not.
+   * @param sidecar the index file.
+   * @return the index.
+   * @throws IOException when {@code sidecar} cannot be read or is not a valid index.
+   */
+  static DatasetIndex load(Path sidecar) throws IOException {
+    return SIDECAR.load(sidecar, DatasetIndex::read);
+  }
+
+  /**
+   * Reads the content of an index file.
+   * @param in the index stream, past the header.
+   * @param size the size of the indexed dataset.
+   * @param modified the last modification time of the indexed dataset.
+   * @return the index.
+   * @throws IOException when the index cannot be read.
+   */
+  private static DatasetIndex read(DataInputStream in, long size, long modified) throws IOException {
+    final long numLines = in.readLong();
+    final long numLinks = in.readLong();
+    final long numNodes = in.readLong();
+    final long min = in.readLong();
+    final long max = in.readLong();
+    final long[] offsets = new long[in.readInt()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = in.readLong();
+    }
+    return new DatasetIndex(size, modified, numLines, numLinks, numNodes, min, max, offsets);
+  }
+
+  /**
+   * Writes the content of an index file.
+   * @param index the index.
+   * @param out the index stream, past the header.
+   * @throws IOException when the index cannot be written.
+   */
+  private static void write(DatasetIndex index, DataOutputStream out) throws IOException {
+    out.writeLong(index.numLines);
+    out.writeLong(index.numLinks);
+    out.writeLong(index.numNodes);
+    out.writeLong(index.minId);
+    out.writeLong(index.maxId);
+    out.writeInt(index.offsets.length);
+    for (long offset : index.offsets) {
+      out.writeLong(offset);
+    }
+  }
+
+  /**
+   * The statistics accumulated while indexing.
+   */
+  private static final class Stats implements LinkConsumer {
+
+    private final LongHashSet nodes = new LongHashSet();
+
+    private long links = 0;
+
+    private long min = -1;
+
+    private long max = -1;
+
+    @Override
+    public void accept(long src, long dst, double weight, LinkType type) {
+      this.nodes.add(src);
+      this.nodes.add(dst);
+      final long lo = Math.min(src, dst);
+      final long hi = Math.max(src, dst);
+      if (this.min < 0 || lo < this.min) this.min = lo;
+      if (hi > this.max) this.max = hi;
+      this.links++;
+    }
+
+    /**
+     * Accounts the line made of the first {@code length} bytes of {@code line}.
+     * @param parser the parser.
+     * @param line the line bytes.
+     * @param length the line length, including a possible trailing carriage return.
+     */
+    void line(LinkParser parser, byte[] line, int length) {
+      if (length > 0 && line[length - 1] == '\r') length--;
+      if (parser.parse(line, 0, length)) {
+        this.accept(parser.getSrc(), parser.getDst(), parser.getWeight(), parser.getType());
+      }
+    }
+  }
+}
@@ -30,8 +30,6 @@ import lombok.Data;
 import lombok.NonNull;
 
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,18 +55,14 @@ public class Link {
   private LinkType type;
 
   /**
-   * The regular expression
+   * The regular expression defining the string representation.
+   * Parsing is realized by {@link LinkParser}, which accepts exactly the same strings.
    */
-  private static final String REGEXP =
+  static final String REGEXP =
       String.format("^\\(([0-9]+),([0-9]+),([0-9]+\\.*[0-9]+)(?:,)?(%s)?\\)$",
           Stream.of(LinkType.values())
               .map(LinkType::toString).collect(Collectors.joining("|")));
 
-  /**
-   * The pattern matcher used to match strings on {@code REGEXP}.
-   */
-  private static final Pattern PATTERN = Pattern.compile(REGEXP);
-
   /**
    * Creates a new interaction.
    * @param src the id of the source node.
@@ -116,14 +110,8 @@ public class Link {
    */
   public static Link valueOf(String string) throws IllegalArgumentException {
     if (string == null || string.isEmpty()) throw new IllegalArgumentException();
-    Matcher matcher = PATTERN.matcher(string);
-    if (!matcher.matches()) throw new IllegalArgumentException(string);
-    long src = Long.valueOf(matcher.group(1));
-    long dst = Long.valueOf(matcher.group(2));
-    double weight = Double.valueOf(matcher.group(3));
-    String strType = matcher.group(4);
-    LinkType type = (strType != null) ?
-        LinkType.valueOf(matcher.group(4)) : LinkType.REAL;
-    return new Link(src, dst, weight, type);
+    LinkParser parser = new LinkParser();
+    if (!parser.parse(string)) throw new IllegalArgumentException(string);
+    return parser.toLink();
   }
 }
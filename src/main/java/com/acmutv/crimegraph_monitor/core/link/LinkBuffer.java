@@ -0,0 +1,519 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A growable, columnar buffer of links.
+ * Links are stored as primitive columns ({@code src}, {@code dst}, {@code weight}, {@code type}),
+ * so that a link costs 25 bytes and iteration does not chase pointers.
+ * The position of a link in the buffer is its index; buffers preserve insertion order.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see Link
+ */
+public class LinkBuffer {
+
+  /**
+   * The default initial capacity.
+   */
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * The link types, indexed by ordinal.
+   */
+  private static final LinkType[] TYPES = LinkType.values();
+
+  /**
+   * The column of source nodes.
+   */
+  private long[] src;
+
+  /**
+   * The column of destination nodes.
+   */
+  private long[] dst;
+
+  /**
+   * The column of weights.
+   */
+  private double[] weight;
+
+  /**
+   * The column of link types, as ordinals.
+   */
+  private byte[] type;
+
+  /**
+   * The number of links.
+   */
+  private int size;
+
+  /**
+   * Compares two links by their index in the buffer.
+   */
+  @FunctionalInterface
+  public interface IndexComparator {
+
+    /**
+     * Compares the links at index {@code i} and {@code j}.
+     * @param i the index of the first link.
+     * @param j the index of the second link.
+     * @return a negative integer, zero, or a positive integer as the first link is less than,
+     * equal to, or greater than the second.
+     */
+    int compare(int i, int j);
+  }
+
+  /**
+   * Creates an empty buffer with default capacity.
+   */
+  public LinkBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty buffer with the given capacity.
+   * @param capacity the initial capacity.
+   */
+  public LinkBuffer(int capacity) {
+    capacity = Math.max(capacity, 1);
+    this.src = new long[capacity];
+    this.dst = new long[capacity];
+    this.weight = new double[capacity];
+    this.type = new byte[capacity];
+  }
+
+  /**
+   * Creates a buffer holding {@code links}, in iteration order.
+   * @param links the links.
+   * @return the buffer.
+   */
+  public static LinkBuffer of(Collection<Link> links) {
+    LinkBuffer buffer = new LinkBuffer(links.size());
+    for (Link link : links) {
+      buffer.add(link);
+    }
+    return buffer;
+  }
+
+  /**
+   * Appends a link.
+   * @param src the id of the source node.
+   * @param dst the id of the destination node.
+   * @param weight the weight of the interaction.
+   * @param type the link type.
+   */
+  public void add(long src, long dst, double weight, LinkType type) {
+    if (this.size == this.src.length) {
+      this.grow(this.size + 1);
+    }
+    this.src[this.size] = src;
+    this.dst[this.size] = dst;
+    this.weight[this.size] = weight;
+    this.type[this.size] = (byte) type.ordinal();
+    this.size++;
+  }
+
+  /**
+   * Appends a link.
+   * @param link the link.
+   */
+  public void add(Link link) {
+    this.add(link.getSrc(), link.getDst(), link.getWeight(), link.getType());
+  }
+
+  /**
+   * Appends the link at index {@code i} of {@code other}.
+   * @param other the buffer to copy from.
+   * @param i the index of the link in {@code other}.
+   */
+  public void add(LinkBuffer other, int i) {
+    if (this.size == this.src.length) {
+      this.grow(this.size + 1);
+    }
+    this.src[this.size] = other.src[i];
+    this.dst[this.size] = other.dst[i];
+    this.weight[this.size] = other.weight[i];
+    this.type[this.size] = other.type[i];
+    this.size++;
+  }
+
+  /**
+   * Appends all links of {@code other}, in order.
+   * @param other the buffer to copy from.
+   */
+  public void addAll(LinkBuffer other) {
+    if (this.size + other.size > this.src.length) {
+      this.grow(this.size + other.size);
+    }
+    System.arraycopy(other.src, 0, this.src, this.size, other.size);
+    System.arraycopy(other.dst, 0, this.dst, this.size, other.size);
+    System.arraycopy(other.weight, 0, this.weight, this.size, other.size);
+    System.arraycopy(other.type, 0, this.type, this.size, other.size);
+    this.size += other.size;
+  }
+
+  /**
+   * Writes a link at index {@code i}, within capacity, without changing the number of links.
+   * Writers of disjoint indices can run concurrently; see {@link #setSize(int)}.
+   * @param i the index.
+   * @param src the id of the source node.
+   * @param dst the id of the destination node.
+   * @param weight the weight of the interaction.
+   * @param type the link type.
+   */
+  void set(int i, long src, long dst, double weight, LinkType type) {
+    this.src[i] = src;
+    this.dst[i] = dst;
+    this.weight[i] = weight;
+    this.type[i] = (byte) type.ordinal();
+  }
+
+  /**
+   * Moves {@code length} links from index {@code from} to index {@code to}, within capacity.
+   * @param from the source index.
+   * @param to the destination index.
+   * @param length the number of links to move.
+   */
+  void move(int from, int to, int length) {
+    System.arraycopy(this.src, from, this.src, to, length);
+    System.arraycopy(this.dst, from, this.dst, to, length);
+    System.arraycopy(this.weight, from, this.weight, to, length);
+    System.arraycopy(this.type, from, this.type, to, length);
+  }
+
+  /**
+   * Sets the number of links, within capacity, after links have been written by
+   * {@link #set(int, long, long, double, LinkType)}.
+   * @param size the number of links.
+   */
+  void setSize(int size) {
+    if (size < 0 || size > this.src.length) {
+      throw new IndexOutOfBoundsException(String.format("%d out of [0,%d]", size, this.src.length));
+    }
+    this.size = size;
+  }
+
+  /**
+   * Returns the number of links.
+   * @return the number of links.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks if the buffer is empty.
+   * @return true, if the buffer is empty; false, otherwise.
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the source node of link at index {@code i}.
+   * @param i the link index.
+   * @return the source node.
+   */
+  public long getSrc(int i) {
+    this.check(i);
+    return this.src[i];
+  }
+
+  /**
+   * Returns the destination node of link at index {@code i}.
+   * @param i the link index.
+   * @return the destination node.
+   */
+  public long getDst(int i) {
+    this.check(i);
+    return this.dst[i];
+  }
+
+  /**
+   * Returns the weight of link at index {@code i}.
+   * @param i the link index.
+   * @return the weight.
+   */
+  public double getWeight(int i) {
+    this.check(i);
+    return this.weight[i];
+  }
+
+  /**
+   * Returns the type of link at index {@code i}.
+   * @param i the link index.
+   * @return the link type.
+   */
+  public LinkType getType(int i) {
+    this.check(i);
+    return TYPES[this.type[i]];
+  }
+
+  /**
+   * Returns the link at index {@code i} as a new {@link Link}.
+   * @param i the link index.
+   * @return the link.
+   */
+  public Link get(int i) {
+    this.check(i);
+    return new Link(this.src[i], this.dst[i], this.weight[i], TYPES[this.type[i]]);
+  }
+
+  /**
+   * Feeds all links to {@code consumer}, in buffer order.
+   * @param consumer the link consumer.
+   * @throws IOException when {@code consumer} fails.
+   */
+  public void forEach(LinkConsumer consumer) throws IOException {
+    this.forEach(0, this.size, consumer);
+  }
+
+  /**
+   * Feeds links in range [{@code from}, {@code to}) to {@code consumer}, in buffer order.
+   * @param from the first index (inclusive).
+   * @param to the last index (exclusive).
+   * @param consumer the link consumer.
+   * @throws IOException when {@code consumer} fails.
+   */
+  public void forEach(int from, int to, LinkConsumer consumer) throws IOException {
+    this.checkRange(from, to);
+    for (int i = from; i < to; i++) {
+      consumer.accept(this.src[i], this.dst[i], this.weight[i], TYPES[this.type[i]]);
+    }
+  }
+
+  /**
+   * Returns a new buffer with a copy of links in range [{@code from}, {@code to}).
+   * @param from the first index (inclusive).
+   * @param to the last index (exclusive).
+   * @return the new buffer.
+   */
+  public LinkBuffer slice(int from, int to) {
+    this.checkRange(from, to);
+    LinkBuffer slice = new LinkBuffer(to - from);
+    System.arraycopy(this.src, from, slice.src, 0, to - from);
+    System.arraycopy(this.dst, from, slice.dst, 0, to - from);
+    System.arraycopy(this.weight, from, slice.weight, 0, to - from);
+    System.arraycopy(this.type, from, slice.type, 0, to - from);
+    slice.size = to - from;
+    return slice;
+  }
+
+  /**
+   * Returns a new buffer with a copy of links whose index is (or is not) set in {@code selection},
+   * in buffer order.
+   * @param selection the selected indices.
+   * @param selected true to copy selected links; false to copy the other ones.
+   * @return the new buffer.
+   */
+  public LinkBuffer select(BitSet selection, boolean selected) {
+    final int count = selected ?
+        selection.get(0, this.size).cardinality() : this.size - selection.get(0, this.size).cardinality();
+    LinkBuffer result = new LinkBuffer(count);
+    for (int i = 0; i < this.size; i++) {
+      if (selection.get(i) == selected) {
+        result.add(this, i);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Sorts links with the stable order defined by {@code comparator}.
+   * @param comparator the comparator of link indices.
+   */
+  public void sort(IndexComparator comparator) {
+    int[] order = new int[this.size];
+    for (int i = 0; i < this.size; i++) order[i] = i;
+    mergeSort(order, new int[this.size], 0, this.size, comparator);
+
+    long[] src = new long[this.src.length];
+    long[] dst = new long[this.dst.length];
+    double[] weight = new double[this.weight.length];
+    byte[] type = new byte[this.type.length];
+    for (int i = 0; i < this.size; i++) {
+      final int j = order[i];
+      src[i] = this.src[j];
+      dst[i] = this.dst[j];
+      weight[i] = this.weight[j];
+      type[i] = this.type[j];
+    }
+    this.src = src;
+    this.dst = dst;
+    this.weight = weight;
+    this.type = type;
+  }
+
+  /**
+   * Sorts links by source node and then by destination node, keeping the original order of ties.
+   */
+  public void sortBySrcDst() {
+    this.sort((i, j) -> {
+      final int cmp = Long.compare(this.src[i], this.src[j]);
+      return (cmp != 0) ? cmp : Long.compare(this.dst[i], this.dst[j]);
+    });
+  }
+
+  /**
+   * Returns the links as a list of new {@link Link}.
+   * @return the list of links.
+   */
+  public List<Link> toList() {
+    List<Link> links = new ArrayList<>(this.size);
+    for (int i = 0; i < this.size; i++) {
+      links.add(this.get(i));
+    }
+    return links;
+  }
+
+  /**
+   * Shrinks the columns to the number of links.
+   */
+  public void trimToSize() {
+    if (this.size < this.src.length) {
+      this.resize(Math.max(this.size, 1));
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof LinkBuffer)) return false;
+    LinkBuffer other = (LinkBuffer) obj;
+    if (this.size != other.size) return false;
+    for (int i = 0; i < this.size; i++) {
+      if (this.src[i] != other.src[i] || this.dst[i] != other.dst[i] ||
+          Double.compare(this.weight[i], other.weight[i]) != 0 || this.type[i] != other.type[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < this.size; i++) {
+      hash = 31 * hash + Long.hashCode(this.src[i]);
+      hash = 31 * hash + Long.hashCode(this.dst[i]);
+      hash = 31 * hash + Double.hashCode(this.weight[i]);
+      hash = 31 * hash + this.type[i];
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LinkBuffer(size=%d)", this.size);
+  }
+
+  /**
+   * Grows the columns to hold at least {@code minCapacity} links.
+   * @param minCapacity the minimum capacity.
+   */
+  private void grow(int minCapacity) {
+    if (minCapacity < 0) throw new OutOfMemoryError("Too many links");
+    int capacity = this.src.length + (this.src.length >> 1);
+    if (capacity < minCapacity || capacity < 0) capacity = minCapacity;
+    this.resize(capacity);
+  }
+
+  /**
+   * Resizes the columns to {@code capacity}.
+   * @param capacity the new capacity.
+   */
+  private void resize(int capacity) {
+    this.src = Arrays.copyOf(this.src, capacity);
+    this.dst = Arrays.copyOf(this.dst, capacity);
+    this.weight = Arrays.copyOf(this.weight, capacity);
+    this.type = Arrays.copyOf(this.type, capacity);
+  }
+
+  /**
+   * Checks that {@code i} is a valid index.
+   * @param i the index.
+   */
+  private void check(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", i, this.size));
+    }
+  }
+
+  /**
+   * Checks that [{@code from}, {@code to}) is a valid range.
+   * @param from the first index (inclusive).
+   * @param to the last index (exclusive).
+   */
+  private void checkRange(int from, int to) {
+    if (from < 0 || to > this.size || from > to) {
+      throw new IndexOutOfBoundsException(String.format("Range: [%d,%d), Size: %d", from, to, this.size));
+    }
+  }
+
+  /**
+   * Stable merge sort of {@code order} in range [{@code from}, {@code to}).
+   * @param order the indices to sort.
+   * @param tmp the temporary array.
+   * @param from the first position (inclusive).
+   * @param to the last position (exclusive).
+   * @param comparator the index comparator.
+   */
+  private static void mergeSort(int[] order, int[] tmp, int from, int to, IndexComparator comparator) {
+    if (to - from < 16) {
+      for (int i = from + 1; i < to; i++) {
+        final int x = order[i];
+        int j = i - 1;
+        while (j >= from && comparator.compare(order[j], x) > 0) {
+          order[j + 1] = order[j];
+          j--;
+        }
+        order[j + 1] = x;
+      }
+      return;
+    }
+    final int mid = (from + to) >>> 1;
+    mergeSort(order, tmp, from, mid, comparator);
+    mergeSort(order, tmp, mid, to, comparator);
+    if (comparator.compare(order[mid - 1], order[mid]) <= 0) return;
+    System.arraycopy(order, from, tmp, from, to - from);
+    int i = from, j = mid, k = from;
+    while (i < mid && j < to) {
+      order[k++] = (comparator.compare(tmp[j], tmp[i]) < 0) ? tmp[j++] : tmp[i++];
+    }
+    while (i < mid) order[k++] = tmp[i++];
+    while (j < to) order[k++] = tmp[j++];
+  }
+}
@@ -0,0 +1,97 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A writer of event streams, formatting every event as its timestamp, a space and the link as
+ * in text datasets, e.g. {@code 1500 (1,2,10.000000)}.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkEvents
+ */
+public class LinkEventWriter implements LinkEventConsumer, Closeable {
+
+  /**
+   * The output stream.
+   */
+  private final OutputStream out;
+
+  /**
+   * The line buffer.
+   */
+  private final byte[] line = new byte[2 * LinkWriter.MAX_LINE_SIZE];
+
+  /**
+   * The timestamp of the last written event.
+   */
+  private long last = Long.MIN_VALUE;
+
+  /**
+   * Creates (or overwrites) the event stream {@code events}.
+   * @param events the event stream to write.
+   * @throws IOException when {@code events} cannot be written.
+   */
+  public LinkEventWriter(Path events) throws IOException {
+    this.out = new BufferedOutputStream(Files.newOutputStream(events), 1 << 20);
+  }
+
+  /**
+   * Writes an event.
+   * @param timestamp the event time, in milliseconds from the start of the stream.
+   * @param src the id of the source node.
+   * @param dst the id of the destination node.
+   * @param weight the weight of the interaction.
+   * @param type the link type.
+   * @throws IOException when the event cannot be written.
+   * @throws IllegalArgumentException when {@code timestamp} precedes the last written one.
+   */
+  @Override
+  public void accept(long timestamp, long src, long dst, double weight, LinkType type) throws IOException {
+    if (timestamp < this.last) {
+      throw new IllegalArgumentException(String.format("Events out of order: %d after %d", timestamp, this.last));
+    }
+    this.last = timestamp;
+    int pos = LinkWriter.formatLong(this.line, 0, timestamp);
+    this.line[pos++] = ' ';
+    pos = LinkWriter.formatLine(this.line, pos, src, dst, weight, type);
+    this.out.write(this.line, 0, pos);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.out.close();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class realizes services related to event streams, i.e. text files of timestamped links in
+ * non-decreasing time order, one per line, as written by {@link LinkEventWriter}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class LinkEvents {
+
+  private static final Logger LOGGER = LogManager.getLogger(LinkEvents.class);
+
+  /**
+   * The extension of event streams.
+   */
+  public static final String EXTENSION = "events";
+
+  /**
+   * Streams events from {@code events} to {@code consumer}, in stream order.
+   * Malformed events are logged and skipped.
+   * @param events the event stream to read.
+   * @param consumer the event consumer.
+   * @return the number of consumed events.
+   * @throws IOException when {@code events} cannot be read or {@code consumer} fails.
+   */
+  public static long forEach(Path events, LinkEventConsumer consumer) throws IOException {
+    LOGGER.trace("Reading events from {}", events);
+    LinkParser parser = new LinkParser();
+    long consumed = 0;
+    try (BufferedReader reader = Files.newBufferedReader(events)) {
+      long lineno = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineno++;
+        final long timestamp = parseTimestamp(line);
+        if (timestamp < 0 || !parser.parse(line.subSequence(line.indexOf(' ') + 1, line.length()))) {
+          LOGGER.warn("Malformed event (line: {}): {}", lineno, line);
+          continue;
+        }
+        consumer.accept(timestamp, parser.getSrc(), parser.getDst(), parser.getWeight(), parser.getType());
+        consumed++;
+      }
+    }
+    return consumed;
+  }
+
+  /**
+   * Parses the timestamp of an event line, i.e. the digits before the first space.
+   * @param line the event line.
+   * @return the timestamp; -1, if missing or malformed.
+   */
+  static long parseTimestamp(String line) {
+    final int space = line.indexOf(' ');
+    if (space <= 0) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = 0; i < space; i++) {
+      final int digit = line.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+}
@@ -0,0 +1,271 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable, regex-free parser for the string representation of {@link Link}.
+ * The parser accepts exactly the strings matched by {@code Link.REGEXP} whose numbers can be
+ * converted by {@link Long#valueOf(String)} and {@link Double#valueOf(String)}, and stores the
+ * parsed fields as primitives, so that a single instance can be reused for a whole dataset.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see Link
+ */
+@Getter
+public class LinkParser {
+
+  /**
+   * The powers of ten exactly representable as double.
+   */
+  private static final double[] POW10 = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+      1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * The maximum number of significant digits that can be converted without rounding errors.
+   */
+  private static final int MAX_EXACT_DIGITS = 15;
+
+  /**
+   * The link types, indexed by ordinal.
+   */
+  private static final LinkType[] TYPES = LinkType.values();
+
+  /**
+   * The last parsed source node.
+   */
+  private long src;
+
+  /**
+   * The last parsed destination node.
+   */
+  private long dst;
+
+  /**
+   * The last parsed weight.
+   */
+  private double weight;
+
+  /**
+   * The last parsed link type.
+   */
+  private LinkType type;
+
+  /**
+   * The reusable view on byte buffers.
+   */
+  @Getter(AccessLevel.NONE)
+  private final AsciiSequence ascii = new AsciiSequence();
+
+  /**
+   * The current parsing position.
+   */
+  @Getter(AccessLevel.NONE)
+  private int pos;
+
+  /**
+   * Parses {@code string}.
+   * @param string the string to parse.
+   * @return true, if {@code string} is a valid link; false, otherwise.
+   */
+  public boolean parse(CharSequence string) {
+    return string != null && this.parse(string, 0, string.length());
+  }
+
+  /**
+   * Parses the ASCII bytes of {@code buffer} in range [{@code from}, {@code to}).
+   * @param buffer the buffer to parse.
+   * @param from the first byte (inclusive).
+   * @param to the last byte (exclusive).
+   * @return true, if the range holds a valid link; false, otherwise.
+   */
+  public boolean parse(byte[] buffer, int from, int to) {
+    this.ascii.wrap(buffer);
+    return this.parse(this.ascii, from, to);
+  }
+
+  /**
+   * Returns the last parsed link as a new {@link Link}.
+   * @return the last parsed link.
+   */
+  public Link toLink() {
+    return new Link(this.src, this.dst, this.weight, this.type);
+  }
+
+  /**
+   * Parses the range [{@code from}, {@code to}) of {@code seq}.
+   * @param seq the characters to parse.
+   * @param from the first character (inclusive).
+   * @param to the last character (exclusive).
+   * @return true, if the range holds a valid link; false, otherwise.
+   */
+  private boolean parse(CharSequence seq, int from, int to) {
+    if (to - from < 7 || seq.charAt(from) != '(' || seq.charAt(to - 1) != ')') {
+      return false;
+    }
+    final int end = to - 1;
+    this.pos = from + 1;
+
+    final long src = this.parseId(seq, end);
+    if (src < 0 || this.pos >= end || seq.charAt(this.pos++) != ',') return false;
+
+    final long dst = this.parseId(seq, end);
+    if (dst < 0 || this.pos >= end || seq.charAt(this.pos++) != ',') return false;
+
+    if (!this.parseWeight(seq, end)) return false;
+
+    if (this.pos < end && seq.charAt(this.pos) == ',') this.pos++;
+
+    LinkType type = LinkType.REAL;
+    if (this.pos < end) {
+      type = matchType(seq, this.pos, end);
+      if (type == null) return false;
+    }
+
+    this.src = src;
+    this.dst = dst;
+    this.type = type;
+    return true;
+  }
+
+  /**
+   * Parses a non-empty sequence of digits as a non-negative long, starting at {@code pos}.
+   * @param seq the characters to parse.
+   * @param end the parsing limit (exclusive).
+   * @return the parsed id; -1 if there are no digits or the id overflows.
+   */
+  private long parseId(CharSequence seq, int end) {
+    final int start = this.pos;
+    long value = 0;
+    while (this.pos < end) {
+      final int digit = seq.charAt(this.pos) - '0';
+      if (digit < 0 || digit > 9) break;
+      if (value > (Long.MAX_VALUE - digit) / 10) return -1;
+      value = value * 10 + digit;
+      this.pos++;
+    }
+    return (this.pos == start) ? -1 : value;
+  }
+
+  /**
+   * Parses the weight, i.e. either at least two digits or digits, a dot and digits.
+   * @param seq the characters to parse.
+   * @param end the parsing limit (exclusive).
+   * @return true, if a weight has been parsed; false, otherwise.
+   */
+  private boolean parseWeight(CharSequence seq, int end) {
+    final int start = this.pos;
+    long mantissa = 0;
+    int significant = 0;
+    int intDigits = 0;
+    int fracDigits = 0;
+    boolean dot = false;
+    while (this.pos < end) {
+      final char c = seq.charAt(this.pos);
+      if (c == '.') {
+        if (dot || intDigits == 0) return false;
+        dot = true;
+      } else if (c >= '0' && c <= '9') {
+        if (dot) fracDigits++; else intDigits++;
+        if (significant > 0 || c != '0') {
+          significant++;
+          if (significant <= MAX_EXACT_DIGITS) mantissa = mantissa * 10 + (c - '0');
+        }
+      } else {
+        break;
+      }
+      this.pos++;
+    }
+    if (dot ? fracDigits == 0 : intDigits < 2) return false;
+
+    if (significant <= MAX_EXACT_DIGITS && fracDigits < POW10.length) {
+      this.weight = (double) mantissa / POW10[fracDigits];
+    } else {
+      this.weight = Double.parseDouble(seq.subSequence(start, this.pos).toString());
+    }
+    return true;
+  }
+
+  /**
+   * Matches the range [{@code from}, {@code to}) of {@code seq} against link type names.
+   * @param seq the characters to match.
+   * @param from the first character (inclusive).
+   * @param to the last character (exclusive).
+   * @return the matched link type; null, if no type matches.
+   */
+  private static LinkType matchType(CharSequence seq, int from, int to) {
+    final int length = to - from;
+    for (LinkType type : TYPES) {
+      final String name = type.getName();
+      if (name.length() != length) continue;
+      int i = 0;
+      while (i < length && name.charAt(i) == seq.charAt(from + i)) i++;
+      if (i == length) return type;
+    }
+    return null;
+  }
+
+  /**
+   * A reusable {@link CharSequence} view on ASCII bytes.
+   */
+  private static final class AsciiSequence implements CharSequence {
+
+    private byte[] buffer;
+
+    void wrap(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int length() {
+      return this.buffer.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (this.buffer[index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new String(this.buffer, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+      return new String(this.buffer, StandardCharsets.US_ASCII);
+    }
+  }
+}
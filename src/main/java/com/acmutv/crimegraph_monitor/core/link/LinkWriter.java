@@ -0,0 +1,310 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A writer of text datasets, whose output is byte-compatible with {@link Link#toString()}.
+ * Numbers are formatted directly into a reusable byte buffer; weights fall back to
+ * {@link String#format(Locale, String, Object...)} only when the fast path could round differently.
+ * Instances are not thread-safe; {@link #write(Path, LinkBuffer, int)} formats chunks in parallel.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see Link#toString()
+ */
+public class LinkWriter implements LinkConsumer, Closeable {
+
+  /**
+   * The size of the output buffer, in bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  /**
+   * The maximum size of a formatted line, in bytes.
+   */
+  static final int MAX_LINE_SIZE = 512;
+
+  /**
+   * The number of links formatted by a single parallel task.
+   */
+  private static final int CHUNK_LINKS = 1 << 16;
+
+  /**
+   * The type names, indexed by ordinal.
+   */
+  private static final byte[][] TYPE_NAMES = new byte[LinkType.values().length][];
+
+  static {
+    for (LinkType type : LinkType.values()) {
+      TYPE_NAMES[type.ordinal()] = type.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  /**
+   * The output channel.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The output buffer.
+   */
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  /**
+   * The number of buffered bytes.
+   */
+  private int position = 0;
+
+  /**
+   * Creates (or overwrites) the text dataset {@code dataset}.
+   * @param dataset the dataset to write.
+   * @throws IOException when {@code dataset} cannot be written.
+   */
+  public LinkWriter(Path dataset) throws IOException {
+    this.channel = open(dataset);
+  }
+
+  /**
+   * Writes the text dataset {@code dataset} with all links of {@code links}.
+   * Chunks of links are formatted on {@code parallelism} workers and written in order.
+   * @param dataset the dataset to write.
+   * @param links the links to write.
+   * @param parallelism the number of workers.
+   * @throws IOException when {@code dataset} cannot be written.
+   */
+  public static void write(Path dataset, LinkBuffer links, int parallelism) throws IOException {
+    final int size = links.size();
+    if (parallelism <= 1 || size <= CHUNK_LINKS) {
+      try (LinkWriter writer = new LinkWriter(dataset)) {
+        links.forEach(writer);
+      }
+      return;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try (FileChannel channel = open(dataset)) {
+      final int window = 2 * parallelism;
+      Deque<Future<ByteBuffer>> pending = new ArrayDeque<>(window);
+      int next = 0;
+      while (next < size || !pending.isEmpty()) {
+        while (next < size && pending.size() < window) {
+          final int from = next;
+          final int to = (int) Math.min((long) from + CHUNK_LINKS, size);
+          pending.addLast(pool.submit(() -> format(links, from, to)));
+          next = to;
+        }
+        ByteBuffer chunk = pending.removeFirst().get();
+        while (chunk.hasRemaining()) {
+          channel.write(chunk);
+        }
+      }
+    } catch (ExecutionException exc) {
+      throw new IOException(exc.getCause());
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IOException(exc);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Override
+  public void accept(long src, long dst, double weight, LinkType type) throws IOException {
+    if (BUFFER_SIZE - this.position < MAX_LINE_SIZE) {
+      this.flush();
+    }
+    this.position = formatLine(this.buffer, this.position, src, dst, weight, type);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.flush();
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Formats the link as {@link Link#toString()} followed by a newline into {@code buf}.
+   * {@code buf} must have at least {@link #MAX_LINE_SIZE} bytes available from {@code pos}.
+   * @param buf the output buffer.
+   * @param pos the output position.
+   * @param src the id of the source node.
+   * @param dst the id of the destination node.
+   * @param weight the weight of the interaction.
+   * @param type the link type.
+   * @return the position following the formatted line.
+   */
+  static int formatLine(byte[] buf, int pos, long src, long dst, double weight, LinkType type) {
+    buf[pos++] = '(';
+    pos = formatLong(buf, pos, src);
+    buf[pos++] = ',';
+    pos = formatLong(buf, pos, dst);
+    buf[pos++] = ',';
+    pos = formatWeight(buf, pos, weight);
+    if (type != LinkType.REAL) {
+      buf[pos++] = ',';
+      final byte[] name = TYPE_NAMES[type.ordinal()];
+      System.arraycopy(name, 0, buf, pos, name.length);
+      pos += name.length;
+    }
+    buf[pos++] = ')';
+    buf[pos++] = '\n';
+    return pos;
+  }
+
+  /**
+   * Formats {@code value} as {@code %d} into {@code buf}.
+   * @param buf the output buffer.
+   * @param pos the output position.
+   * @param value the value to format.
+   * @return the position following the formatted value.
+   */
+  static int formatLong(byte[] buf, int pos, long value) {
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        return copy(buf, pos, Long.toString(value));
+      }
+      buf[pos++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long v = value; v >= 10; v /= 10) digits++;
+    int end = pos + digits;
+    for (int i = end - 1; i >= pos; i--) {
+      buf[i] = (byte) ('0' + (value % 10));
+      value /= 10;
+    }
+    return end;
+  }
+
+  /**
+   * Formats {@code value} as {@code %f} (i.e. with 6 decimal digits, rounded half-up) into {@code buf}.
+   * The fast path is taken for non-negative values under 10^7 whose scaled fraction is not close
+   * to a rounding tie, where it agrees with {@link java.util.Formatter}; other values fall back to it.
+   * @param buf the output buffer.
+   * @param pos the output position.
+   * @param value the value to format.
+   * @return the position following the formatted value.
+   */
+  static int formatWeight(byte[] buf, int pos, double value) {
+    if (value >= 0 && value < 1e7 && Double.doubleToRawLongBits(value) >= 0) {
+      final double scaled = value * 1e6;
+      long micros = (long) scaled;
+      final double fraction = scaled - micros;
+      if (Math.abs(fraction - 0.5) > 0.01) {
+        if (fraction > 0.5) micros++;
+        pos = formatLong(buf, pos, micros / 1000000);
+        buf[pos++] = '.';
+        long decimals = micros % 1000000;
+        for (int i = pos + 5; i >= pos; i--) {
+          buf[i] = (byte) ('0' + (decimals % 10));
+          decimals /= 10;
+        }
+        return pos + 6;
+      }
+    }
+    return copy(buf, pos, String.format(Locale.ROOT, "%f", value));
+  }
+
+  /**
+   * Formats the links in range [{@code from}, {@code to}) of {@code links}.
+   * @param links the links.
+   * @param from the first link (inclusive).
+   * @param to the last link (exclusive).
+   * @return the buffer of formatted lines, ready to be written.
+   */
+  private static ByteBuffer format(LinkBuffer links, int from, int to) {
+    byte[] buf = new byte[(to - from) * 32 + MAX_LINE_SIZE];
+    int pos = 0;
+    for (int i = from; i < to; i++) {
+      if (buf.length - pos < MAX_LINE_SIZE) {
+        buf = Arrays.copyOf(buf, 2 * buf.length);
+      }
+      pos = formatLine(buf, pos, links.getSrc(i), links.getDst(i), links.getWeight(i), links.getType(i));
+    }
+    return ByteBuffer.wrap(buf, 0, pos);
+  }
+
+  /**
+   * Copies the ASCII bytes of {@code string} into {@code buf}.
+   * @param buf the output buffer.
+   * @param pos the output position.
+   * @param string the string to copy.
+   * @return the position following the copied bytes.
+   */
+  private static int copy(byte[] buf, int pos, String string) {
+    final int length = string.length();
+    for (int i = 0; i < length; i++) {
+      buf[pos++] = (byte) string.charAt(i);
+    }
+    return pos;
+  }
+
+  /**
+   * Opens {@code dataset} for writing, creating parent directories and truncating previous content.
+   * @param dataset the dataset to open.
+   * @return the channel.
+   * @throws IOException when {@code dataset} cannot be opened.
+   */
+  private static FileChannel open(Path dataset) throws IOException {
+    if (dataset.getParent() != null && !Files.isDirectory(dataset.getParent())) {
+      Files.createDirectories(dataset.getParent());
+    }
+    return FileChannel.open(dataset,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Writes the buffered bytes to the channel.
+   * @throws IOException when the channel cannot be written.
+   */
+  private void flush() throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(this.buffer, 0, this.position);
+    while (bytes.hasRemaining()) {
+      this.channel.write(bytes);
+    }
+    this.position = 0;
+  }
+}
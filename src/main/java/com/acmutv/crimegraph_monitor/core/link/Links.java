@@ -25,15 +25,25 @@
  */
 package com.acmutv.crimegraph_monitor.core.link;
 
+import com.acmutv.crimegraph_monitor.tool.runtime.RuntimeManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedList;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * This class realizes services related to {@code Link}.
@@ -52,24 +62,210 @@ public class Links {
    * @throws IOException when {@code dataset} cannot be read.
    */
   public static List<Link> readLinks(Path dataset) throws IOException {
-    LOGGER.trace("Reading links from {}", dataset);
-    List<Link> links = new LinkedList<>();
+    return readBuffer(dataset).toList();
+  }
+
+  /**
+   * Reads links from {@code dataset} into a columnar buffer.
+   * Text datasets are parsed in parallel by {@link ParallelLinkReader}, with one worker per core.
+   * @param dataset the dataset to read.
+   * @return the buffer of read links.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static LinkBuffer readBuffer(Path dataset) throws IOException {
+    if (BinaryLinks.isBinary(dataset)) {
+      BinaryLinkReader reader = BinaryLinkReader.open(dataset);
+      if (reader.getSize() > Integer.MAX_VALUE) {
+        throw new IOException("Too many links to be buffered: " + reader.getSize());
+      }
+      LinkBuffer links = new LinkBuffer((int) reader.getSize());
+      reader.forEach(links::add);
+      return links;
+    }
+    return ParallelLinkReader.read(dataset, RuntimeManager.getCores());
+  }
+
+  /**
+   * Counts the lines in {@code dataset} (records, for binary datasets).
+   * The count is taken from a valid {@link DatasetIndex}, when present; otherwise, lines are
+   * counted by a plain scan, without building the index.
+   * @param dataset the dataset.
+   * @return the number of lines.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static long count(Path dataset) throws IOException {
+    if (BinaryLinks.isBinary(dataset)) {
+      return BinaryLinkReader.open(dataset).getSize();
+    }
+    final DatasetIndex index = DatasetIndex.find(dataset);
+    if (index != null) {
+      return index.getNumLines();
+    }
+    long numLines = 0;
+    byte last = '\n';
+    try (InputStream in = Files.newInputStream(dataset)) {
+      byte[] block = new byte[1 << 16];
+      int read;
+      while ((read = in.read(block)) > 0) {
+        for (int i = 0; i < read; i++) {
+          if (block[i] == '\n') {
+            numLines++;
+          }
+        }
+        last = block[read - 1];
+      }
+    }
+    return (last == '\n') ? numLines : numLines + 1;
+  }
+
+  /**
+   * Converts {@code input} into {@code output}, where formats are given by extensions.
+   * @param input the dataset to read.
+   * @param output the dataset to write.
+   * @return the number of converted links.
+   * @throws IOException when {@code input} cannot be read or {@code output} cannot be written.
+   */
+  public static long convert(Path input, Path output) throws IOException {
+    return write(output, consumer -> forEach(input, consumer));
+  }
+
+  /**
+   * Writes all links of {@code producer} into {@code output}, where the format is given by the
+   * extension.
+   * @param output the dataset to write.
+   * @param producer the link producer.
+   * @return the number of written links.
+   * @throws IOException when {@code output} cannot be written or {@code producer} fails.
+   */
+  public static long write(Path output, LinkProducer producer) throws IOException {
+    if (BinaryLinks.isBinary(output)) {
+      try (BinaryLinkWriter writer = new BinaryLinkWriter(output)) {
+        return producer.produce(writer);
+      }
+    }
+    try (LinkWriter writer = new LinkWriter(output)) {
+      return producer.produce(writer);
+    }
+  }
 
+  /**
+   * Streams links from {@code dataset} to {@code consumer}, in dataset order.
+   * Malformed links are logged and skipped.
+   * Binary datasets are read through {@link BinaryLinkReader}.
+   * @param dataset the dataset to read.
+   * @param consumer the link consumer.
+   * @return the number of consumed links.
+   * @throws IOException when {@code dataset} cannot be read or {@code consumer} fails.
+   */
+  public static long forEach(Path dataset, LinkConsumer consumer) throws IOException {
+    LOGGER.trace("Reading links from {}", dataset);
+    if (BinaryLinks.isBinary(dataset)) {
+      BinaryLinkReader reader = BinaryLinkReader.open(dataset);
+      reader.forEach(consumer);
+      return reader.getSize();
+    }
+    LinkParser parser = new LinkParser();
+    long consumed = 0;
     try (BufferedReader reader = Files.newBufferedReader(dataset)) {
       long lineno = 0;
-      while (reader.ready()) {
-        String line = reader.readLine();
+      String line;
+      while ((line = reader.readLine()) != null) {
         lineno++;
-        Link link;
-        try {
-          link = Link.valueOf(line);
-        } catch (IllegalArgumentException exc) {
+        if (!parser.parse(line)) {
           LOGGER.warn("Malformed link (line: {}): {}", lineno, line);
           continue;
         }
-        links.add(link);
+        consumer.accept(parser.getSrc(), parser.getDst(), parser.getWeight(), parser.getType());
+        consumed++;
+      }
+    }
+    return consumed;
+  }
+
+  /**
+   * Streams links from lines [{@code from}, {@code to}) of {@code dataset} to {@code consumer},
+   * in dataset order (records, for binary datasets).
+   * Text datasets are accessed by seeking through their {@link DatasetIndex}.
+   * Malformed links are logged and skipped.
+   * @param dataset the dataset to read.
+   * @param from the first line (inclusive).
+   * @param to the last line (exclusive).
+   * @param consumer the link consumer.
+   * @return the number of consumed links.
+   * @throws IOException when {@code dataset} cannot be read or {@code consumer} fails.
+   */
+  public static long forEach(Path dataset, long from, long to, LinkConsumer consumer) throws IOException {
+    LOGGER.trace("Reading links [{},{}) from {}", from, to, dataset);
+    if (BinaryLinks.isBinary(dataset)) {
+      BinaryLinkReader reader = BinaryLinkReader.open(dataset);
+      reader.forEach(from, to, consumer);
+      return to - from;
+    }
+    final DatasetIndex index = DatasetIndex.of(dataset);
+    if (from < 0 || to > index.getNumLines() || from > to) {
+      throw new IndexOutOfBoundsException(String.format("[%d,%d) out of [0,%d)", from, to, index.getNumLines()));
+    }
+    LinkParser parser = new LinkParser();
+    long consumed = 0;
+    try (FileChannel channel = FileChannel.open(dataset, StandardOpenOption.READ)) {
+      channel.position(index.offsetOf(from));
+      BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+      for (long skip = from % DatasetIndex.STEP; skip > 0; skip--) {
+        reader.readLine();
+      }
+      for (long lineno = from; lineno < to; lineno++) {
+        String line = reader.readLine();
+        if (line == null) {
+          throw new IOException("Unexpected end of dataset: " + dataset);
+        }
+        if (!parser.parse(line)) {
+          LOGGER.warn("Malformed link (line: {}): {}", lineno + 1, line);
+          continue;
+        }
+        consumer.accept(parser.getSrc(), parser.getDst(), parser.getWeight(), parser.getType());
+        consumed++;
       }
     }
-    return links;
+    return consumed;
+  }
+
+  /**
+   * Returns a lazy stream of links from {@code dataset}, in dataset order.
+   * Malformed links are logged and skipped.
+   * The stream is sequential and must be closed to release the underlying file.
+   * @param dataset the dataset to read.
+   * @return the stream of links.
+   * @throws IOException when {@code dataset} cannot be opened.
+   */
+  public static Stream<Link> stream(Path dataset) throws IOException {
+    LOGGER.trace("Streaming links from {}", dataset);
+    if (BinaryLinks.isBinary(dataset)) {
+      final BinaryLinkReader reader = BinaryLinkReader.open(dataset);
+      return LongStream.range(0, reader.getSize()).mapToObj(i -> {
+        try {
+          return reader.get(i);
+        } catch (IOException exc) {
+          throw new UncheckedIOException(exc);
+        }
+      });
+    }
+    final BufferedReader reader = Files.newBufferedReader(dataset);
+    final LinkParser parser = new LinkParser();
+    return reader.lines()
+        .map(line -> {
+          if (!parser.parse(line)) {
+            LOGGER.warn("Malformed link: {}", line);
+            return null;
+          }
+          return parser.toLink();
+        })
+        .filter(Objects::nonNull)
+        .onClose(() -> {
+          try {
+            reader.close();
+          } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+          }
+        });
   }
 }
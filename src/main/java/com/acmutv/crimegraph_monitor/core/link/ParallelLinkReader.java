@@ -0,0 +1,353 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A parallel reader of text datasets.
+ * The dataset is split into chunks of lines, through its {@link DatasetIndex} when a valid one
+ * already exists, or else by scanning concurrently from nominal offsets to the next line boundary
+ * and counting the lines of every chunk. Chunks are memory-mapped and parsed concurrently on a
+ * {@link ForkJoinPool}, each into its own slice of a single buffer sized by the number of lines.
+ * Slices are then compacted in line order, so that the result is the same as the one of the
+ * sequential {@link Links#forEach(Path, LinkConsumer)}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkParser
+ */
+public class ParallelLinkReader {
+
+  private static final Logger LOGGER = LogManager.getLogger(ParallelLinkReader.class);
+
+  /**
+   * The dataset size under which the dataset is read as a single chunk.
+   */
+  private static final long MIN_PARALLEL_SIZE = 1L << 20;
+
+  /**
+   * The maximum size of a chunk, so that every chunk can be mapped at once.
+   */
+  private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+  /**
+   * Reads links from the text dataset {@code dataset} with {@code parallelism} workers.
+   * Malformed links are logged and skipped.
+   * @param dataset the dataset to read.
+   * @param parallelism the number of workers.
+   * @return the buffer of read links, in dataset order.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public static LinkBuffer read(Path dataset, int parallelism) throws IOException {
+    LOGGER.trace("Reading links from {} with parallelism {}", dataset, parallelism);
+    final DatasetIndex index = DatasetIndex.find(dataset);
+    final List<long[]> chunks = (index != null) ? split(index, parallelism) : split(dataset, parallelism);
+    long numLines = 0;
+    for (long[] chunk : chunks) {
+      final long lines = chunk[2];
+      chunk[2] = numLines;
+      numLines += lines;
+    }
+    if (numLines > Integer.MAX_VALUE) {
+      throw new IOException("Too many links to be buffered: " + dataset);
+    }
+    final LinkBuffer links = new LinkBuffer((int) numLines);
+
+    List<Callable<Integer>> tasks = new ArrayList<>(chunks.size());
+    for (long[] chunk : chunks) {
+      tasks.add(new ChunkReader(dataset, links, (int) chunk[2], chunk[0], chunk[1]));
+    }
+    final List<Integer> counts = invokeAll(tasks, parallelism);
+
+    int size = 0;
+    for (int c = 0; c < counts.size(); c++) {
+      final int first = (int) chunks.get(c)[2];
+      if (first != size) {
+        links.move(first, size, counts.get(c));
+      }
+      size += counts.get(c);
+    }
+    links.setSize(size);
+    return links;
+  }
+
+  /**
+   * Runs {@code tasks} with {@code parallelism} workers, or in the calling thread when there is a
+   * single task.
+   * @param tasks the tasks.
+   * @param parallelism the number of workers.
+   * @param <T> the type of task results.
+   * @return the task results, in task order.
+   * @throws IOException when a task fails.
+   */
+  private static <T> List<T> invokeAll(List<Callable<T>> tasks, int parallelism) throws IOException {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (tasks.size() == 1) {
+      try {
+        results.add(tasks.get(0).call());
+      } catch (IOException | RuntimeException exc) {
+        throw exc;
+      } catch (Exception exc) {
+        throw new IOException(exc);
+      }
+      return results;
+    }
+    ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+    try {
+      for (Future<T> result : pool.invokeAll(tasks)) {
+        results.add(result.get());
+      }
+    } catch (ExecutionException exc) {
+      if (exc.getCause() instanceof IOException) {
+        throw (IOException) exc.getCause();
+      }
+      throw new IOException(exc.getCause());
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IOException(exc);
+    } finally {
+      pool.shutdown();
+    }
+    return results;
+  }
+
+  /**
+   * Splits the lines indexed by {@code index} into chunks of similar size, starting at indexed
+   * lines, and not larger than {@link #MAX_CHUNK_SIZE} bytes.
+   * @param index the dataset index.
+   * @param parallelism the number of workers.
+   * @return the list of chunks, as byte ranges [start, end) and their number of lines.
+   */
+  private static List<long[]> split(DatasetIndex index, int parallelism) {
+    final long numLines = index.getNumLines();
+    final int numChunks = (index.getDatasetSize() < MIN_PARALLEL_SIZE) ? 1 : Math.max(1, parallelism);
+    final long nominal = (numLines + numChunks - 1) / numChunks;
+    List<long[]> chunks = new ArrayList<>();
+    long from = 0;
+    while (from < numLines) {
+      long to = Math.min(from + DatasetIndex.STEP, numLines);
+      while (to < numLines && to - from < nominal) {
+        final long next = Math.min(to + DatasetIndex.STEP, numLines);
+        if (endOf(index, next) - index.offsetOf(from) > MAX_CHUNK_SIZE) {
+          break;
+        }
+        to = next;
+      }
+      chunks.add(new long[]{index.offsetOf(from), endOf(index, to), to - from});
+      from = to;
+    }
+    return chunks;
+  }
+
+  /**
+   * Splits {@code dataset} into chunks of similar size, not larger than {@link #MAX_CHUNK_SIZE}
+   * bytes, aligning nominal offsets to the next line boundary and counting the lines of every
+   * chunk concurrently.
+   * @param dataset the dataset.
+   * @param parallelism the number of workers.
+   * @return the list of chunks, as byte ranges [start, end) and their number of lines.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  private static List<long[]> split(Path dataset, int parallelism) throws IOException {
+    final long size = Files.size(dataset);
+    final long numChunks = (size < MIN_PARALLEL_SIZE && size <= MAX_CHUNK_SIZE) ? 1 :
+        Math.max(Math.max(1, parallelism), (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    final long nominal = Math.max(1, (size + numChunks - 1) / numChunks);
+    List<Callable<long[]>> tasks = new ArrayList<>();
+    long start = 0;
+    do {
+      final long end = Math.min(start + nominal, size);
+      tasks.add(new ChunkScanner(dataset, start, end, size));
+      start = end;
+    } while (start < size);
+    return invokeAll(tasks, parallelism);
+  }
+
+  /**
+   * Returns the byte offset where line {@code line} starts, for indexed lines or the end of the
+   * dataset.
+   * @param index the dataset index.
+   * @param line the line, either a multiple of {@link DatasetIndex#STEP} or the number of lines.
+   * @return the byte offset.
+   */
+  private static long endOf(DatasetIndex index, long line) {
+    return (line == index.getNumLines()) ? index.getDatasetSize() : index.offsetOf(line);
+  }
+
+  /**
+   * Returns the position following the first newline at or after {@code position}.
+   * @param channel the channel to scan.
+   * @param position the starting position.
+   * @param scan the scan buffer.
+   * @return the start of the next line; the channel size, if there are no more newlines.
+   * @throws IOException when {@code channel} cannot be read.
+   */
+  private static long nextLine(FileChannel channel, long position, ByteBuffer scan) throws IOException {
+    long base = position;
+    while (true) {
+      scan.clear();
+      final int read = channel.read(scan, base);
+      if (read <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (scan.get(i) == '\n') {
+          return base + i + 1;
+        }
+      }
+      base += read;
+    }
+  }
+
+  /**
+   * The scanner of a single chunk, aligning its nominal range to line boundaries and counting
+   * its lines.
+   * Lines belong to the chunk where they start, so that adjacent chunks align to the same boundary.
+   */
+  private static final class ChunkScanner implements Callable<long[]> {
+
+    private final Path dataset;
+
+    private final long start;
+
+    private final long end;
+
+    private final long size;
+
+    ChunkScanner(Path dataset, long start, long end, long size) {
+      this.dataset = dataset;
+      this.start = start;
+      this.end = end;
+      this.size = size;
+    }
+
+    @Override
+    public long[] call() throws IOException {
+      try (FileChannel channel = FileChannel.open(this.dataset, StandardOpenOption.READ)) {
+        ByteBuffer scan = ByteBuffer.allocate(8192);
+        final long first = (this.start == 0) ? 0 : nextLine(channel, this.start - 1, scan);
+        final long last = (this.end == this.size) ? this.size : nextLine(channel, this.end - 1, scan);
+        if (first >= last) {
+          return new long[]{last, last, 0};
+        }
+        final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, first, last - first);
+        final int limit = chunk.limit();
+        long lines = 0;
+        for (int i = 0; i < limit; i++) {
+          if (chunk.get(i) == '\n') {
+            lines++;
+          }
+        }
+        if (chunk.get(limit - 1) != '\n') {
+          lines++;
+        }
+        return new long[]{first, last, lines};
+      }
+    }
+  }
+
+  /**
+   * The parser of a single chunk, writing links into its slice of the shared buffer.
+   */
+  private static final class ChunkReader implements Callable<Integer> {
+
+    private final Path dataset;
+
+    private final LinkBuffer links;
+
+    private final int first;
+
+    private final long start;
+
+    private final long end;
+
+    ChunkReader(Path dataset, LinkBuffer links, int first, long start, long end) {
+      this.dataset = dataset;
+      this.links = links;
+      this.first = first;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public Integer call() throws IOException {
+      final MappedByteBuffer chunk;
+      try (FileChannel channel = FileChannel.open(this.dataset, StandardOpenOption.READ)) {
+        chunk = channel.map(FileChannel.MapMode.READ_ONLY, this.start, this.end - this.start);
+      }
+      final int limit = chunk.limit();
+      LinkParser parser = new LinkParser();
+      byte[] line = new byte[256];
+      int count = 0;
+      int lineStart = 0;
+      for (int i = 0; i <= limit; i++) {
+        if (i < limit && chunk.get(i) != '\n') {
+          continue;
+        }
+        if (i == limit && lineStart == limit) {
+          break;
+        }
+        int lineEnd = i;
+        if (lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r') {
+          lineEnd--;
+        }
+        final int length = lineEnd - lineStart;
+        if (length > line.length) {
+          line = new byte[Math.max(length, 2 * line.length)];
+        }
+        chunk.position(lineStart);
+        chunk.get(line, 0, length);
+        if (parser.parse(line, 0, length)) {
+          this.links.set(this.first + count, parser.getSrc(), parser.getDst(), parser.getWeight(), parser.getType());
+          count++;
+        } else {
+          LOGGER.warn("Malformed link (offset: {}): {}", this.start + lineStart,
+              new String(line, 0, length, StandardCharsets.US_ASCII));
+        }
+        lineStart = i + 1;
+      }
+      return count;
+    }
+  }
+}
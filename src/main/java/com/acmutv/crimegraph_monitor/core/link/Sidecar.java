@@ -0,0 +1,256 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A kind of file derived from a dataset and stored next to it, as {@code <dataset>.<extension>}.
+ * A sidecar starts with a header made of magic (int), version (int), dataset size (long) and
+ * dataset last modification time (long), followed by its content; it is stale, and rebuilt,
+ * whenever the size or the last modification time of the dataset change.
+ * Sidecars are written to a temporary file, then atomically moved in place.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatasetIndex
+ */
+public class Sidecar {
+
+  private static final Logger LOGGER = LogManager.getLogger(Sidecar.class);
+
+  /**
+   * The reader of the content of a sidecar.
+   * @param <T> the type of the content.
+   */
+  @FunctionalInterface
+  public interface Reader<T> {
+
+    /**
+     * Reads the content following the header.
+     * @param in the sidecar stream.
+     * @param datasetSize the dataset size in the header.
+     * @param datasetModified the dataset last modification time in the header.
+     * @return the content.
+     * @throws IOException when the content cannot be read.
+     */
+    T read(DataInputStream in, long datasetSize, long datasetModified) throws IOException;
+  }
+
+  /**
+   * The writer of the content of a sidecar.
+   * @param <T> the type of the content.
+   */
+  @FunctionalInterface
+  public interface Writer<T> {
+
+    /**
+     * Writes {@code content} following the header.
+     * @param content the content.
+     * @param out the sidecar stream.
+     * @throws IOException when the content cannot be written.
+     */
+    void write(T content, DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * The builder of the content of a sidecar from its dataset.
+   * @param <T> the type of the content.
+   */
+  @FunctionalInterface
+  public interface Builder<T> {
+
+    /**
+     * Builds the content.
+     * @return the content.
+     * @throws IOException when the dataset cannot be read.
+     */
+    T build() throws IOException;
+  }
+
+  /**
+   * The name of the sidecar kind, for logging.
+   */
+  private final String name;
+
+  /**
+   * The file extension.
+   */
+  private final String extension;
+
+  /**
+   * The magic number.
+   */
+  private final int magic;
+
+  /**
+   * The format version.
+   */
+  private final int version;
+
+  /**
+   * Constructs a new kind of sidecar.
+   * @param name the name, for logging.
+   * @param extension the file extension.
+   * @param magic the magic number.
+   * @param version the format version.
+   */
+  public Sidecar(String name, String extension, int magic, int version) {
+    this.name = name;
+    this.extension = extension;
+    this.magic = magic;
+    this.version = version;
+  }
+
+  /**
+   * Returns the path of the sidecar of {@code dataset}.
+   * @param dataset the dataset.
+   * @return the sidecar path.
+   */
+  public Path pathOf(Path dataset) {
+    return dataset.resolveSibling(dataset.getFileName() + "." + this.extension);
+  }
+
+  /**
+   * Returns the content of the sidecar of {@code dataset}, loading it when valid, or building
+   * (and storing) it otherwise.
+   * A sidecar that cannot be loaded or written is only logged.
+   * @param dataset the dataset.
+   * @param reader the content reader.
+   * @param builder the content builder.
+   * @param writer the content writer.
+   * @param <T> the type of the content.
+   * @return the content.
+   * @throws IOException when {@code dataset} cannot be read.
+   */
+  public <T> T of(Path dataset, Reader<T> reader, Builder<T> builder, Writer<T> writer) throws IOException {
+    final long size = Files.size(dataset);
+    final long modified = Files.getLastModifiedTime(dataset).toMillis();
+    T content = this.find(dataset, reader);
+    if (content != null) {
+      return content;
+    }
+    content = builder.build();
+    final Path sidecar = this.pathOf(dataset);
+    try {
+      this.store(sidecar, size, modified, content, writer);
+    } catch (IOException exc) {
+      LOGGER.warn("Cannot store {} {}: {}", this.name, sidecar, exc.getMessage());
+    }
+    return content;
+  }
+
+  /**
+   * Returns the content of the sidecar of {@code dataset}, if valid.
+   * A sidecar that cannot be loaded is only logged.
+   * @param dataset the dataset.
+   * @param reader the content reader.
+   * @param <T> the type of the content.
+   * @return the content; null, if the sidecar is missing, stale or not valid.
+   * @throws IOException when {@code dataset} cannot be accessed.
+   */
+  public <T> T find(Path dataset, Reader<T> reader) throws IOException {
+    final Path sidecar = this.pathOf(dataset);
+    if (!Files.isRegularFile(sidecar)) {
+      return null;
+    }
+    final long size = Files.size(dataset);
+    final long modified = Files.getLastModifiedTime(dataset).toMillis();
+    try {
+      T content = this.load(sidecar, (in, datasetSize, datasetModified) ->
+          (datasetSize == size && datasetModified == modified) ? reader.read(in, datasetSize, datasetModified) : null);
+      if (content != null) {
+        LOGGER.trace("Loaded {} {}", this.name, sidecar);
+      } else {
+        LOGGER.debug("Stale {} {}", this.name, sidecar);
+      }
+      return content;
+    } catch (IOException exc) {
+      LOGGER.warn("Cannot load {} {}: {}", this.name, sidecar, exc.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Loads the content of {@code sidecar}, whether stale or not.
+   * @param sidecar the sidecar.
+   * @param reader the content reader.
+   * @param <T> the type of the content.
+   * @return the content.
+   * @throws IOException when {@code sidecar} cannot be read or is not valid.
+   */
+  public <T> T load(Path sidecar, Reader<T> reader) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+      if (in.readInt() != this.magic || in.readInt() != this.version) {
+        throw new IOException("Not a valid " + this.name);
+      }
+      final long size = in.readLong();
+      final long modified = in.readLong();
+      return reader.read(in, size, modified);
+    } catch (EOFException exc) {
+      throw new IOException("Truncated " + this.name);
+    }
+  }
+
+  /**
+   * Stores {@code content} into {@code sidecar}, atomically replacing any previous sidecar.
+   * The content is written to a uniquely named temporary file, so that concurrent writers of the
+   * same sidecar never mix their contents.
+   * @param sidecar the sidecar.
+   * @param datasetSize the dataset size.
+   * @param datasetModified the dataset last modification time.
+   * @param content the content.
+   * @param writer the content writer.
+   * @param <T> the type of the content.
+   * @throws IOException when {@code sidecar} cannot be written.
+   */
+  public <T> void store(Path sidecar, long datasetSize, long datasetModified, T content, Writer<T> writer) throws IOException {
+    final Path tmp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(this.magic);
+        out.writeInt(this.version);
+        out.writeLong(datasetSize);
+        out.writeLong(datasetModified);
+        writer.write(content, out);
+      }
+      try {
+        Files.move(tmp, sidecar, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException exc) {
+        Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
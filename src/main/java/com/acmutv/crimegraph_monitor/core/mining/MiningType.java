@@ -29,6 +29,10 @@ package com.acmutv.crimegraph_monitor.core.mining;
 
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Mining types.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
@@ -59,4 +63,25 @@ public enum MiningType {
     }
     return null;
   }
+
+  /**
+   * Returns the list of mining types from {@code string}.
+   * @param string the string to parse.
+   * @return the list of mining types.
+   * @throws IllegalArgumentException when a mining type is unknown.
+   */
+  public static List<MiningType> fromList(String string) {
+    if ("ALL".equalsIgnoreCase(string.trim())) {
+      return Arrays.asList(MiningType.values());
+    }
+    List<MiningType> minings = new ArrayList<>();
+    for (String substr : string.trim().split(",")) {
+      MiningType mining = MiningType.fromString(substr.trim());
+      if (mining == null) {
+        throw new IllegalArgumentException("Unknown mining type: " + substr.trim());
+      }
+      minings.add(mining);
+    }
+    return minings;
+  }
 }
@@ -0,0 +1,203 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.tool.collection;
+
+/**
+ * A set of primitive longs, realized as an open-addressing hash table with linear probing.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class LongHashSet {
+
+  /**
+   * The marker of free slots.
+   */
+  private static final long FREE = 0;
+
+  /**
+   * The maximum load factor.
+   */
+  private static final double LOAD_FACTOR = 0.5;
+
+  /**
+   * The slots.
+   */
+  private long[] keys;
+
+  /**
+   * True, if the set contains {@link #FREE}, which cannot be stored in slots.
+   */
+  private boolean hasFree = false;
+
+  /**
+   * The number of elements.
+   */
+  private int size = 0;
+
+  /**
+   * The number of elements that triggers rehashing.
+   */
+  private int threshold;
+
+  /**
+   * Constructs an empty set.
+   */
+  public LongHashSet() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty set, sized for {@code expected} elements.
+   * @param expected the expected number of elements.
+   */
+  public LongHashSet(int expected) {
+    this.allocate(capacityFor(expected));
+  }
+
+  /**
+   * Adds {@code key}.
+   * @param key the element to add.
+   * @return true, if {@code key} was not already present; false, otherwise.
+   */
+  public boolean add(long key) {
+    if (key == FREE) {
+      if (this.hasFree) return false;
+      this.hasFree = true;
+      this.size++;
+      return true;
+    }
+    final int mask = this.keys.length - 1;
+    int slot = mix(key) & mask;
+    while (this.keys[slot] != FREE) {
+      if (this.keys[slot] == key) return false;
+      slot = (slot + 1) & mask;
+    }
+    this.keys[slot] = key;
+    if (++this.size > this.threshold) {
+      this.rehash(this.keys.length << 1);
+    }
+    return true;
+  }
+
+  /**
+   * Checks if {@code key} is present.
+   * @param key the element to check.
+   * @return true, if {@code key} is present; false, otherwise.
+   */
+  public boolean contains(long key) {
+    if (key == FREE) return this.hasFree;
+    final int mask = this.keys.length - 1;
+    int slot = mix(key) & mask;
+    while (this.keys[slot] != FREE) {
+      if (this.keys[slot] == key) return true;
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of elements.
+   * @return the number of elements.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks if the set is empty.
+   * @return true, if the set is empty; false, otherwise.
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the elements, in no particular order.
+   * @return the array of elements.
+   */
+  public long[] toArray() {
+    long[] elements = new long[this.size];
+    int i = 0;
+    if (this.hasFree) elements[i++] = FREE;
+    for (long key : this.keys) {
+      if (key != FREE) elements[i++] = key;
+    }
+    return elements;
+  }
+
+  /**
+   * Returns the slot hash of {@code key}.
+   * @param key the key.
+   * @return the hash.
+   */
+  static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    h ^= (h >>> 32);
+    return (int) (h ^ (h >>> 16));
+  }
+
+  /**
+   * Returns the power-of-two capacity for {@code expected} elements.
+   * @param expected the expected number of elements.
+   * @return the capacity.
+   */
+  private static int capacityFor(int expected) {
+    final long needed = Math.max(2L, (long) Math.ceil(expected / LOAD_FACTOR));
+    if (needed > (1 << 30)) throw new OutOfMemoryError("Too many elements");
+    return Integer.highestOneBit((int) needed - 1) << 1;
+  }
+
+  /**
+   * Allocates empty slots.
+   * @param capacity the number of slots.
+   */
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.threshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Rehashes all elements into {@code capacity} slots.
+   * @param capacity the new number of slots.
+   */
+  private void rehash(int capacity) {
+    if (capacity <= 0) throw new OutOfMemoryError("Too many elements");
+    final long[] old = this.keys;
+    this.allocate(capacity);
+    final int mask = capacity - 1;
+    for (long key : old) {
+      if (key == FREE) continue;
+      int slot = mix(key) & mask;
+      while (this.keys[slot] != FREE) {
+        slot = (slot + 1) & mask;
+      }
+      this.keys[slot] = key;
+    }
+  }
+}
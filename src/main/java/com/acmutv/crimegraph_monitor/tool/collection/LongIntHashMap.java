@@ -0,0 +1,181 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.tool.collection;
+
+/**
+ * A map from primitive longs to primitive ints, realized as an open-addressing hash table with
+ * linear probing.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LongHashSet
+ */
+public class LongIntHashMap {
+
+  /**
+   * The marker of free slots.
+   */
+  private static final long FREE = 0;
+
+  /**
+   * The maximum load factor.
+   */
+  private static final double LOAD_FACTOR = 0.5;
+
+  /**
+   * The slot keys.
+   */
+  private long[] keys;
+
+  /**
+   * The slot values.
+   */
+  private int[] values;
+
+  /**
+   * True, if the map contains the key {@link #FREE}, which cannot be stored in slots.
+   */
+  private boolean hasFree = false;
+
+  /**
+   * The value of the key {@link #FREE}.
+   */
+  private int freeValue;
+
+  /**
+   * The number of entries.
+   */
+  private int size = 0;
+
+  /**
+   * The number of entries that triggers rehashing.
+   */
+  private int threshold;
+
+  /**
+   * Constructs an empty map.
+   */
+  public LongIntHashMap() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty map, sized for {@code expected} entries.
+   * @param expected the expected number of entries.
+   */
+  public LongIntHashMap(int expected) {
+    final long needed = Math.max(2L, (long) Math.ceil(expected / LOAD_FACTOR));
+    if (needed > (1 << 30)) throw new OutOfMemoryError("Too many entries");
+    this.allocate(Integer.highestOneBit((int) needed - 1) << 1);
+  }
+
+  /**
+   * Returns the value of {@code key}.
+   * @param key the key.
+   * @param missing the value returned when {@code key} is absent.
+   * @return the value of {@code key}; {@code missing}, if absent.
+   */
+  public int get(long key, int missing) {
+    if (key == FREE) return this.hasFree ? this.freeValue : missing;
+    final int mask = this.keys.length - 1;
+    int slot = LongHashSet.mix(key) & mask;
+    while (this.keys[slot] != FREE) {
+      if (this.keys[slot] == key) return this.values[slot];
+      slot = (slot + 1) & mask;
+    }
+    return missing;
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, if {@code key} is absent.
+   * @param key the key.
+   * @param value the value.
+   * @return the current value of {@code key}, i.e. {@code value} if {@code key} was absent.
+   */
+  public int putIfAbsent(long key, int value) {
+    if (key == FREE) {
+      if (!this.hasFree) {
+        this.hasFree = true;
+        this.freeValue = value;
+        this.size++;
+      }
+      return this.freeValue;
+    }
+    final int mask = this.keys.length - 1;
+    int slot = LongHashSet.mix(key) & mask;
+    while (this.keys[slot] != FREE) {
+      if (this.keys[slot] == key) return this.values[slot];
+      slot = (slot + 1) & mask;
+    }
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    if (++this.size > this.threshold) {
+      this.rehash(this.keys.length << 1);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the number of entries.
+   * @return the number of entries.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Allocates empty slots.
+   * @param capacity the number of slots.
+   */
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.threshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Rehashes all entries into {@code capacity} slots.
+   * @param capacity the new number of slots.
+   */
+  private void rehash(int capacity) {
+    if (capacity <= 0) throw new OutOfMemoryError("Too many entries");
+    final long[] oldKeys = this.keys;
+    final int[] oldValues = this.values;
+    this.allocate(capacity);
+    final int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] == FREE) continue;
+      int slot = LongHashSet.mix(oldKeys[i]) & mask;
+      while (this.keys[slot] != FREE) {
+        slot = (slot + 1) & mask;
+      }
+      this.keys[slot] = oldKeys[i];
+      this.values[slot] = oldValues[i];
+    }
+  }
+}
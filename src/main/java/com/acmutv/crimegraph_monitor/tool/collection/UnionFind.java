@@ -0,0 +1,148 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.tool.collection;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set forest over the elements [0, {@link #size()}), with path compression and union
+ * by rank.
+ * Elements are added one at a time, each one in its own singleton set.
+ * Instances are not thread-safe.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class UnionFind {
+
+  /**
+   * The parent of every element; roots are their own parent.
+   */
+  private int[] parents;
+
+  /**
+   * The rank of every root.
+   */
+  private byte[] ranks;
+
+  /**
+   * The number of elements.
+   */
+  private int size = 0;
+
+  /**
+   * The number of disjoint sets.
+   */
+  private int count = 0;
+
+  /**
+   * Constructs an empty forest.
+   */
+  public UnionFind() {
+    this(16);
+  }
+
+  /**
+   * Constructs an empty forest, sized for {@code expected} elements.
+   * @param expected the expected number of elements.
+   */
+  public UnionFind(int expected) {
+    this.parents = new int[Math.max(expected, 16)];
+    this.ranks = new byte[this.parents.length];
+  }
+
+  /**
+   * Adds a new element, in its own singleton set.
+   * @return the new element.
+   */
+  public int add() {
+    if (this.size == this.parents.length) {
+      final int capacity = this.size + (this.size >> 1);
+      this.parents = Arrays.copyOf(this.parents, capacity);
+      this.ranks = Arrays.copyOf(this.ranks, capacity);
+    }
+    this.parents[this.size] = this.size;
+    this.count++;
+    return this.size++;
+  }
+
+  /**
+   * Returns the root of the set of {@code x}, compressing the path to it.
+   * @param x the element.
+   * @return the root of the set of {@code x}.
+   */
+  public int find(int x) {
+    int root = x;
+    while (this.parents[root] != root) {
+      root = this.parents[root];
+    }
+    while (this.parents[x] != root) {
+      final int next = this.parents[x];
+      this.parents[x] = root;
+      x = next;
+    }
+    return root;
+  }
+
+  /**
+   * Merges the sets of {@code x} and {@code y}.
+   * @param x an element.
+   * @param y an element.
+   * @return the root of the merged set.
+   */
+  public int union(int x, int y) {
+    int rx = this.find(x);
+    int ry = this.find(y);
+    if (rx == ry) return rx;
+    if (this.ranks[rx] < this.ranks[ry]) {
+      final int tmp = rx;
+      rx = ry;
+      ry = tmp;
+    } else if (this.ranks[rx] == this.ranks[ry]) {
+      this.ranks[rx]++;
+    }
+    this.parents[ry] = rx;
+    this.count--;
+    return rx;
+  }
+
+  /**
+   * Returns the number of elements.
+   * @return the number of elements.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of disjoint sets.
+   * @return the number of disjoint sets.
+   */
+  public int getCount() {
+    return this.count;
+  }
+}
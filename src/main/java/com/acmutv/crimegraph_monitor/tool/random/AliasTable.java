@@ -0,0 +1,118 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.tool.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * A table to sample indices of a discrete distribution in constant time (Walker's alias method,
+ * as constructed by Vose).
+ * Instances are immutable, hence thread-safe given per-thread random streams.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class AliasTable {
+
+  /**
+   * The probability of keeping every column, rather than taking its alias.
+   */
+  private final double[] probabilities;
+
+  /**
+   * The alias of every column.
+   */
+  private final int[] aliases;
+
+  /**
+   * Constructs the table of the distribution proportional to {@code weights}.
+   * @param weights the non-negative weight of every index.
+   * @throws IllegalArgumentException when weights are negative or all zero.
+   */
+  public AliasTable(double[] weights) {
+    final int size = weights.length;
+    double total = 0.0;
+    for (double weight : weights) {
+      if (!(weight >= 0.0)) {
+        throw new IllegalArgumentException("Weights must be non-negative: " + weight);
+      }
+      total += weight;
+    }
+    if (!(total > 0.0)) {
+      throw new IllegalArgumentException("Weights must not be all zero");
+    }
+    this.probabilities = new double[size];
+    this.aliases = new int[size];
+
+    final double[] scaled = new double[size];
+    final int[] small = new int[size];
+    final int[] large = new int[size];
+    int numSmall = 0;
+    int numLarge = 0;
+    for (int i = 0; i < size; i++) {
+      scaled[i] = weights[i] * size / total;
+      if (scaled[i] < 1.0) small[numSmall++] = i; else large[numLarge++] = i;
+    }
+    while (numSmall > 0 && numLarge > 0) {
+      final int less = small[--numSmall];
+      final int more = large[--numLarge];
+      this.probabilities[less] = scaled[less];
+      this.aliases[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+      if (scaled[more] < 1.0) small[numSmall++] = more; else large[numLarge++] = more;
+    }
+    /* leftovers are full columns, up to rounding errors */
+    while (numLarge > 0) {
+      final int i = large[--numLarge];
+      this.probabilities[i] = 1.0;
+      this.aliases[i] = i;
+    }
+    while (numSmall > 0) {
+      final int i = small[--numSmall];
+      this.probabilities[i] = 1.0;
+      this.aliases[i] = i;
+    }
+  }
+
+  /**
+   * Samples an index.
+   * @param rnd the random stream.
+   * @return the sampled index.
+   */
+  public int sample(SplittableRandom rnd) {
+    final int column = rnd.nextInt(this.probabilities.length);
+    return (rnd.nextDouble() < this.probabilities[column]) ? column : this.aliases[column];
+  }
+
+  /**
+   * Returns the number of indices.
+   * @return the number of indices.
+   */
+  public int size() {
+    return this.probabilities.length;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.tool.random;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * This class realizes the random number generation services.
+ * Every random stream is a {@link SplittableRandom} derived from the app seed, the purpose of the
+ * stream and, optionally, a chunk number, so that generators and splitters produce the same
+ * output for the same seed, whatever the number of threads, as long as chunks are defined by
+ * the data rather than by the workers.
+ * Unless set with {@link #setSeed(long)}, the seed is drawn once per JVM and logged.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class RandomManager {
+
+  private static final Logger LOGGER = LogManager.getLogger(RandomManager.class);
+
+  /**
+   * The app seed; null, if not drawn yet.
+   */
+  private static Long seed = null;
+
+  /**
+   * Sets the app seed.
+   * @param seed the seed.
+   */
+  public static synchronized void setSeed(long seed) {
+    RandomManager.seed = seed;
+    LOGGER.info("Random seed: {}", seed);
+  }
+
+  /**
+   * Clears the app seed, so that a new one is drawn at the next use.
+   */
+  public static synchronized void resetSeed() {
+    RandomManager.seed = null;
+  }
+
+  /**
+   * Returns the app seed, drawing it if not set.
+   * @return the seed.
+   */
+  public static synchronized long getSeed() {
+    if (seed == null) {
+      seed = new SplittableRandom().nextLong();
+      LOGGER.info("Random seed: {} (use --seed {} to reproduce)", seed, seed);
+    }
+    return seed;
+  }
+
+  /**
+   * Returns the random stream for {@code purpose}.
+   * Equal seeds and purposes always yield equal streams.
+   * @param purpose the purpose of the stream (e.g. "datagen.simple").
+   * @return the random stream.
+   */
+  public static SplittableRandom stream(String purpose) {
+    return stream(purpose, 0);
+  }
+
+  /**
+   * Returns the random stream for chunk {@code chunk} of {@code purpose}.
+   * Equal seeds, purposes and chunks always yield equal streams.
+   * @param purpose the purpose of the stream (e.g. "datagen.simple").
+   * @param chunk the chunk number.
+   * @return the random stream.
+   */
+  public static SplittableRandom stream(String purpose, long chunk) {
+    return new SplittableRandom(mix(key(purpose) ^ mix(chunk)));
+  }
+
+  /**
+   * Returns the key of {@code purpose}, mixing the app seed with the purpose.
+   * Hot paths hash the purpose once, then draw values with {@link #uniform(long, long)}.
+   * @param purpose the purpose (e.g. "datagen.simple").
+   * @return the key.
+   */
+  public static long key(String purpose) {
+    long key = mix(getSeed());
+    for (byte b : purpose.getBytes(StandardCharsets.UTF_8)) {
+      key = mix(key ^ b);
+    }
+    return key;
+  }
+
+  /**
+   * Returns a uniform value in [0,1) for element {@code index} of the purpose with key {@code key},
+   * with a single mix and no allocation.
+   * Equal keys and indices always yield equal values.
+   * @param key the purpose key, see {@link #key(String)}.
+   * @param index the element index.
+   * @return the uniform value.
+   */
+  public static double uniform(long key, long index) {
+    return (mix(key ^ mix(index)) >>> 11) * 0x1.0p-53;
+  }
+
+  /**
+   * Mixes the bits of {@code z} (SplitMix64 finalizer).
+   * @param z the value to mix.
+   * @return the mixed value.
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -66,6 +66,11 @@ public class BaseOptions extends Options {
    */
   private static final String DESCRIPTION_NUM_LINKS = "Number of links";
 
+  /**
+   * The CLI description for the option `linkProbability`.
+   */
+  private static final String DESCRIPTION_LINK_PROBABILITY = "Link probability in [0.0,1.0], instead of the number of links (intra,inter for stochastic block models).";
+
   /**
    * The CLI description for the option `minWeight`.
    */
@@ -161,6 +166,131 @@ public class BaseOptions extends Options {
    */
   private static final String DESCRIPTION_PARAMS = "List of parameters (eg. param1=1,param2=2...).";
 
+  /**
+   * The CLI description for the option `split`.
+   */
+  private static final String DESCRIPTION_SPLIT = "Split mode (FAST|REFERENCE).";
+
+  /**
+   * The CLI description for the option `seed`.
+   */
+  private static final String DESCRIPTION_SEED = "Random seed, for reproducible data generation.";
+
+  /**
+   * The CLI description for the option `attachment`.
+   */
+  private static final String DESCRIPTION_ATTACHMENT = "Number of links attached by every new node.";
+
+  /**
+   * The CLI description for the option `weightDistribution`.
+   */
+  private static final String DESCRIPTION_WEIGHT_DISTRIBUTION = "Weight distribution (UNIFORM|PARETO) (intra,inter for stochastic block models).";
+
+  /**
+   * The CLI description for the option `scale`.
+   */
+  private static final String DESCRIPTION_SCALE = "The R-MAT scale, so that the graph has 2^scale nodes.";
+
+  /**
+   * The CLI description for the option `rmat`.
+   */
+  private static final String DESCRIPTION_RMAT = "The comma-separated R-MAT probabilities a,b,c (d = 1-a-b-c). Default is 0.57,0.19,0.19.";
+
+  /**
+   * The CLI description for the option `dedup`.
+   */
+  private static final String DESCRIPTION_DEDUP = "Removes duplicate links, spilling sorted runs to disk.";
+
+  /**
+   * The CLI description for the option `blocks`.
+   */
+  private static final String DESCRIPTION_BLOCKS = "The comma-separated number of nodes of every block.";
+
+  /**
+   * The CLI description for the option `communities`.
+   */
+  private static final String DESCRIPTION_COMMUNITIES = "Absolute path of the ground-truth communities file.";
+
+  /**
+   * The CLI description for the option `factor`.
+   */
+  private static final String DESCRIPTION_FACTOR = "The upscaling factor, i.e. the number of replicas of every node and link.";
+
+  /**
+   * The CLI description for the option `process`.
+   */
+  private static final String DESCRIPTION_PROCESS = "The arrival process of events (POISSON|HAWKES|DIURNAL).";
+
+  /**
+   * The CLI description for the option `rate`.
+   */
+  private static final String DESCRIPTION_RATE = "The average number of events per second (the target number of links per second, for publish).";
+
+  /**
+   * The CLI description for the option `numEvents`.
+   */
+  private static final String DESCRIPTION_NUM_EVENTS = "The number of events.";
+
+  /**
+   * The CLI description for the option `repeat`.
+   */
+  private static final String DESCRIPTION_REPEAT = "The probability in [0.0,1.0] that an event repeats an already introduced link.";
+
+  /**
+   * The CLI description for the option `drift`.
+   */
+  private static final String DESCRIPTION_DRIFT = "The standard deviation of the log-weight change at every repeated interaction.";
+
+  /**
+   * The CLI description for the option `profile`.
+   */
+  private static final String DESCRIPTION_PROFILE = "Absolute path of the YAML load profile, for publish.";
+
+  /**
+   * The CLI description for the option `speedup`.
+   */
+  private static final String DESCRIPTION_SPEEDUP = "The time-warp factor of event replay, e.g. 144 to replay a day in 10 minutes.";
+
+  /**
+   * The CLI description for the option `kafkaBatchSize`.
+   */
+  private static final String DESCRIPTION_KAFKA_BATCH_SIZE = "The Kafka producer batch size, in bytes (batch.size). Default is 16384.";
+
+  /**
+   * The CLI description for the option `kafkaLinger`.
+   */
+  private static final String DESCRIPTION_KAFKA_LINGER = "The Kafka producer linger, in milliseconds (linger.ms). Default is 1.";
+
+  /**
+   * The CLI description for the option `kafkaCompression`.
+   */
+  private static final String DESCRIPTION_KAFKA_COMPRESSION = "The Kafka producer compression (none|gzip|snappy|lz4) (compression.type). Default is none.";
+
+  /**
+   * The CLI description for the option `kafkaAcks`.
+   */
+  private static final String DESCRIPTION_KAFKA_ACKS = "The Kafka producer acknowledgements (0|1|all) (acks). Default is all.";
+
+  /**
+   * The CLI description for the option `kafkaInFlight`.
+   */
+  private static final String DESCRIPTION_KAFKA_IN_FLIGHT = "The maximum number of records sent but not yet acknowledged. Default is 10000.";
+
+  /**
+   * The CLI description for the option `threads`.
+   */
+  private static final String DESCRIPTION_THREADS = "The number of producer threads of parallel publish; links sharing the key are published in dataset order. Default is 1.";
+
+  /**
+   * The CLI description for the option `kafkaKey`.
+   */
+  private static final String DESCRIPTION_KAFKA_KEY = "The key of published records: link, src, dst or min (the lowest endpoint). Default is link.";
+
+  /**
+   * The CLI description for the option `kafkaFormat`.
+   */
+  private static final String DESCRIPTION_KAFKA_FORMAT = "The format of Kafka records: string (human-readable) or binary (17 or 25 bytes). Default is string.";
+
   /**
    * The singleton instance of {@link BaseOptions}.
    */
@@ -186,6 +316,30 @@ public class BaseOptions extends Options {
     Option output = this.optOutput();
     Option numNodes = this.optNumNodes();
     Option numLinks= this.optNumLinks();
+    Option linkProbability = this.optLinkProbability();
+    Option attachment = this.optAttachment();
+    Option weightDistribution = this.optWeightDistribution();
+    Option scale = this.optScale();
+    Option rmat = this.optRmat();
+    Option dedup = this.optDedup();
+    Option blocks = this.optBlocks();
+    Option communities = this.optCommunities();
+    Option factor = this.optFactor();
+    Option process = this.optProcess();
+    Option rate = this.optRate();
+    Option numEvents = this.optNumEvents();
+    Option repeat = this.optRepeat();
+    Option drift = this.optDrift();
+    Option profile = this.optProfile();
+    Option speedup = this.optSpeedup();
+    Option kafkaBatchSize = this.optKafkaBatchSize();
+    Option kafkaLinger = this.optKafkaLinger();
+    Option kafkaCompression = this.optKafkaCompression();
+    Option kafkaAcks = this.optKafkaAcks();
+    Option kafkaInFlight = this.optKafkaInFlight();
+    Option threads = this.optThreads();
+    Option kafkaKey = this.optKafkaKey();
+    Option kafkaFormat = this.optKafkaFormat();
     Option minWeight= this.optMinWeight();
     Option maxWeight= this.optMaxWeight();
     Option dataset = this.optDataset();
@@ -205,12 +359,38 @@ public class BaseOptions extends Options {
     Option evaluation = this.optEvaluation();
     Option mining = this.optMining();
     Option params = this.optParams();
+    Option split = this.optSplit();
+    Option seed = this.optSeed();
 
     super.addOption(version);
     super.addOption(help);
     super.addOption(output);
     super.addOption(numNodes);
     super.addOption(numLinks);
+    super.addOption(linkProbability);
+    super.addOption(attachment);
+    super.addOption(weightDistribution);
+    super.addOption(scale);
+    super.addOption(rmat);
+    super.addOption(dedup);
+    super.addOption(blocks);
+    super.addOption(communities);
+    super.addOption(factor);
+    super.addOption(process);
+    super.addOption(rate);
+    super.addOption(numEvents);
+    super.addOption(repeat);
+    super.addOption(drift);
+    super.addOption(profile);
+    super.addOption(speedup);
+    super.addOption(kafkaBatchSize);
+    super.addOption(kafkaLinger);
+    super.addOption(kafkaCompression);
+    super.addOption(kafkaAcks);
+    super.addOption(kafkaInFlight);
+    super.addOption(threads);
+    super.addOption(kafkaKey);
+    super.addOption(kafkaFormat);
     super.addOption(minWeight);
     super.addOption(maxWeight);
     super.addOption(dataset);
@@ -230,6 +410,8 @@ public class BaseOptions extends Options {
     super.addOption(evaluation);
     super.addOption(mining);
     super.addOption(params);
+    super.addOption(split);
+    super.addOption(seed);
   }
 
   /**
@@ -303,6 +485,21 @@ public class BaseOptions extends Options {
         .build();
   }
 
+  /**
+   * Builds the option `linkProbability`.
+   * @return the option.
+   */
+  private Option optLinkProbability() {
+    return Option.builder()
+        .longOpt("linkProbability")
+        .desc(DESCRIPTION_LINK_PROBABILITY)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("PROBABILITY")
+        .build();
+  }
+
   /**
    * Builds the option `minWeight`.
    * @return the option.
@@ -588,4 +785,377 @@ public class BaseOptions extends Options {
         .build();
   }
 
+  /**
+   * Builds the option `split`.
+   * @return the option.
+   */
+  private Option optSplit() {
+    return Option.builder()
+        .longOpt("split")
+        .desc(DESCRIPTION_SPLIT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("SPLIT_MODE")
+        .build();
+  }
+
+  /**
+   * Builds the option `seed`.
+   * @return the option.
+   */
+  private Option optSeed() {
+    return Option.builder()
+        .longOpt("seed")
+        .desc(DESCRIPTION_SEED)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("SEED")
+        .build();
+  }
+
+  /**
+   * Builds the option `attachment`.
+   * @return the option.
+   */
+  private Option optAttachment() {
+    return Option.builder()
+        .longOpt("attachment")
+        .desc(DESCRIPTION_ATTACHMENT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("INTEGER")
+        .build();
+  }
+
+  /**
+   * Builds the option `weightDistribution`.
+   * @return the option.
+   */
+  private Option optWeightDistribution() {
+    return Option.builder()
+        .longOpt("weightDistribution")
+        .desc(DESCRIPTION_WEIGHT_DISTRIBUTION)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("DISTRIBUTION")
+        .build();
+  }
+
+  /**
+   * Builds the option `scale`.
+   * @return the option.
+   */
+  private Option optScale() {
+    return Option.builder()
+        .longOpt("scale")
+        .desc(DESCRIPTION_SCALE)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("SCALE")
+        .build();
+  }
+
+  /**
+   * Builds the option `rmat`.
+   * @return the option.
+   */
+  private Option optRmat() {
+    return Option.builder()
+        .longOpt("rmat")
+        .desc(DESCRIPTION_RMAT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("A,B,C")
+        .build();
+  }
+
+  /**
+   * Builds the option `dedup`.
+   * @return the option.
+   */
+  private Option optDedup() {
+    return Option.builder()
+        .longOpt("dedup")
+        .desc(DESCRIPTION_DEDUP)
+        .required(false)
+        .hasArg(false)
+        .build();
+  }
+
+  /**
+   * Builds the option `blocks`.
+   * @return the option.
+   */
+  private Option optBlocks() {
+    return Option.builder()
+        .longOpt("blocks")
+        .desc(DESCRIPTION_BLOCKS)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("SIZES")
+        .build();
+  }
+
+  /**
+   * Builds the option `communities`.
+   * @return the option.
+   */
+  private Option optCommunities() {
+    return Option.builder()
+        .longOpt("communities")
+        .desc(DESCRIPTION_COMMUNITIES)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("FILE")
+        .build();
+  }
+
+  /**
+   * Builds the option `factor`.
+   * @return the option.
+   */
+  private Option optFactor() {
+    return Option.builder()
+        .longOpt("factor")
+        .desc(DESCRIPTION_FACTOR)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("FACTOR")
+        .build();
+  }
+
+  /**
+   * Builds the option `process`.
+   * @return the option.
+   */
+  private Option optProcess() {
+    return Option.builder()
+        .longOpt("process")
+        .desc(DESCRIPTION_PROCESS)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("PROCESS")
+        .build();
+  }
+
+  /**
+   * Builds the option `rate`.
+   * @return the option.
+   */
+  private Option optRate() {
+    return Option.builder()
+        .longOpt("rate")
+        .desc(DESCRIPTION_RATE)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("RATE")
+        .build();
+  }
+
+  /**
+   * Builds the option `numEvents`.
+   * @return the option.
+   */
+  private Option optNumEvents() {
+    return Option.builder()
+        .longOpt("numEvents")
+        .desc(DESCRIPTION_NUM_EVENTS)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("NUM")
+        .build();
+  }
+
+  /**
+   * Builds the option `repeat`.
+   * @return the option.
+   */
+  private Option optRepeat() {
+    return Option.builder()
+        .longOpt("repeat")
+        .desc(DESCRIPTION_REPEAT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("P")
+        .build();
+  }
+
+  /**
+   * Builds the option `drift`.
+   * @return the option.
+   */
+  private Option optDrift() {
+    return Option.builder()
+        .longOpt("drift")
+        .desc(DESCRIPTION_DRIFT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("SIGMA")
+        .build();
+  }
+
+  /**
+   * Builds the option `profile`.
+   * @return the option.
+   */
+  private Option optProfile() {
+    return Option.builder()
+        .longOpt("profile")
+        .desc(DESCRIPTION_PROFILE)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("FILE")
+        .build();
+  }
+
+  /**
+   * Builds the option `speedup`.
+   * @return the option.
+   */
+  private Option optSpeedup() {
+    return Option.builder()
+        .longOpt("speedup")
+        .desc(DESCRIPTION_SPEEDUP)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("FACTOR")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaBatchSize`.
+   * @return the option.
+   */
+  private Option optKafkaBatchSize() {
+    return Option.builder()
+        .longOpt("kafkaBatchSize")
+        .desc(DESCRIPTION_KAFKA_BATCH_SIZE)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("BYTES")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaLinger`.
+   * @return the option.
+   */
+  private Option optKafkaLinger() {
+    return Option.builder()
+        .longOpt("kafkaLinger")
+        .desc(DESCRIPTION_KAFKA_LINGER)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("MILLIS")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaCompression`.
+   * @return the option.
+   */
+  private Option optKafkaCompression() {
+    return Option.builder()
+        .longOpt("kafkaCompression")
+        .desc(DESCRIPTION_KAFKA_COMPRESSION)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("COMPRESSION")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaAcks`.
+   * @return the option.
+   */
+  private Option optKafkaAcks() {
+    return Option.builder()
+        .longOpt("kafkaAcks")
+        .desc(DESCRIPTION_KAFKA_ACKS)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("ACKS")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaInFlight`.
+   * @return the option.
+   */
+  private Option optKafkaInFlight() {
+    return Option.builder()
+        .longOpt("kafkaInFlight")
+        .desc(DESCRIPTION_KAFKA_IN_FLIGHT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("RECORDS")
+        .build();
+  }
+
+  /**
+   * Builds the option `threads`.
+   * @return the option.
+   */
+  private Option optThreads() {
+    return Option.builder()
+        .longOpt("threads")
+        .desc(DESCRIPTION_THREADS)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("NUM")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaKey`.
+   * @return the option.
+   */
+  private Option optKafkaKey() {
+    return Option.builder()
+        .longOpt("kafkaKey")
+        .desc(DESCRIPTION_KAFKA_KEY)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("KEY")
+        .build();
+  }
+
+  /**
+   * Builds the option `kafkaFormat`.
+   * @return the option.
+   */
+  private Option optKafkaFormat() {
+    return Option.builder()
+        .longOpt("kafkaFormat")
+        .desc(DESCRIPTION_KAFKA_FORMAT)
+        .required(false)
+        .hasArg(true)
+        .numberOfArgs(1)
+        .argName("FORMAT")
+        .build();
+  }
+
 }
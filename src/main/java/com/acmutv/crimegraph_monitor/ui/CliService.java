@@ -90,6 +90,149 @@ public class CliService {
       props.setProperty("numLinks", numLinks);
     }
 
+    /* option: linkProbability */
+    if (cmd.hasOption("linkProbability")) {
+      final String linkProbability = cmd.getOptionValue("linkProbability");
+      props.setProperty("linkProbability", linkProbability);
+    }
+
+    /* option: attachment */
+    if (cmd.hasOption("attachment")) {
+      final String attachment = cmd.getOptionValue("attachment");
+      props.setProperty("attachment", attachment);
+    }
+
+    /* option: weightDistribution */
+    if (cmd.hasOption("weightDistribution")) {
+      final String weightDistribution = cmd.getOptionValue("weightDistribution");
+      props.setProperty("weightDistribution", weightDistribution);
+    }
+
+    /* option: scale */
+    if (cmd.hasOption("scale")) {
+      final String scale = cmd.getOptionValue("scale");
+      props.setProperty("scale", scale);
+    }
+
+    /* option: rmat */
+    if (cmd.hasOption("rmat")) {
+      final String rmat = cmd.getOptionValue("rmat");
+      props.setProperty("rmat", rmat);
+    }
+
+    /* option: dedup */
+    if (cmd.hasOption("dedup")) {
+      props.setProperty("dedup", "true");
+    }
+
+    /* option: blocks */
+    if (cmd.hasOption("blocks")) {
+      final String blocks = cmd.getOptionValue("blocks");
+      props.setProperty("blocks", blocks);
+    }
+
+    /* option: communities */
+    if (cmd.hasOption("communities")) {
+      final String communities = cmd.getOptionValue("communities");
+      props.setProperty("communities", communities);
+    }
+
+    /* option: factor */
+    if (cmd.hasOption("factor")) {
+      final String factor = cmd.getOptionValue("factor");
+      props.setProperty("factor", factor);
+    }
+
+    /* option: process */
+    if (cmd.hasOption("process")) {
+      final String process = cmd.getOptionValue("process");
+      props.setProperty("process", process);
+    }
+
+    /* option: rate */
+    if (cmd.hasOption("rate")) {
+      final String rate = cmd.getOptionValue("rate");
+      props.setProperty("rate", rate);
+    }
+
+    /* option: numEvents */
+    if (cmd.hasOption("numEvents")) {
+      final String numEvents = cmd.getOptionValue("numEvents");
+      props.setProperty("numEvents", numEvents);
+    }
+
+    /* option: repeat */
+    if (cmd.hasOption("repeat")) {
+      final String repeat = cmd.getOptionValue("repeat");
+      props.setProperty("repeat", repeat);
+    }
+
+    /* option: drift */
+    if (cmd.hasOption("drift")) {
+      final String drift = cmd.getOptionValue("drift");
+      props.setProperty("drift", drift);
+    }
+
+    /* option: profile */
+    if (cmd.hasOption("profile")) {
+      final String profile = cmd.getOptionValue("profile");
+      props.setProperty("profile", profile);
+    }
+
+    /* option: speedup */
+    if (cmd.hasOption("speedup")) {
+      final String speedup = cmd.getOptionValue("speedup");
+      props.setProperty("speedup", speedup);
+    }
+
+    /* option: kafkaBatchSize */
+    if (cmd.hasOption("kafkaBatchSize")) {
+      final String kafkaBatchSize = cmd.getOptionValue("kafkaBatchSize");
+      props.setProperty("kafkaBatchSize", kafkaBatchSize);
+    }
+
+    /* option: kafkaLinger */
+    if (cmd.hasOption("kafkaLinger")) {
+      final String kafkaLinger = cmd.getOptionValue("kafkaLinger");
+      props.setProperty("kafkaLinger", kafkaLinger);
+    }
+
+    /* option: kafkaCompression */
+    if (cmd.hasOption("kafkaCompression")) {
+      final String kafkaCompression = cmd.getOptionValue("kafkaCompression");
+      props.setProperty("kafkaCompression", kafkaCompression);
+    }
+
+    /* option: kafkaAcks */
+    if (cmd.hasOption("kafkaAcks")) {
+      final String kafkaAcks = cmd.getOptionValue("kafkaAcks");
+      props.setProperty("kafkaAcks", kafkaAcks);
+    }
+
+    /* option: kafkaInFlight */
+    if (cmd.hasOption("kafkaInFlight")) {
+      final String kafkaInFlight = cmd.getOptionValue("kafkaInFlight");
+      props.setProperty("kafkaInFlight", kafkaInFlight);
+    }
+
+    /* option: threads */
+    if (cmd.hasOption("threads")) {
+      final String threads = cmd.getOptionValue("threads");
+      props.setProperty("threads", threads);
+    }
+
+    /* option: kafkaKey */
+    if (cmd.hasOption("kafkaKey")) {
+      final String kafkaKey = cmd.getOptionValue("kafkaKey");
+      props.setProperty("kafkaKey", kafkaKey);
+    }
+
+    /* option: kafkaFormat */
+    if (cmd.hasOption("kafkaFormat")) {
+      final String kafkaFormat = cmd.getOptionValue("kafkaFormat");
+      props.setProperty("kafkaFormat", kafkaFormat);
+    }
+
     /* option: minWeight */
     if (cmd.hasOption("minWeight")) {
       final String minWeight = cmd.getOptionValue("minWeight");
@@ -204,6 +347,18 @@ public class CliService {
       props.setProperty("params", params);
     }
 
+    /* option: split */
+    if (cmd.hasOption("split")) {
+      final String split = cmd.getOptionValue("split");
+      props.setProperty("split", split);
+    }
+
+    /* option: seed */
+    if (cmd.hasOption("seed")) {
+      final String seed = cmd.getOptionValue("seed");
+      props.setProperty("seed", seed);
+    }
+
     List<String> arguments = cmd.getArgList();
     if (!arguments.isEmpty()) {
       String command = arguments.remove(0);
@@ -39,7 +39,13 @@ public enum Command {
   ANALYZE_DATASET       ("analyze_dataset"),
   DATAGEN_RND           ("datagen_rnd"),
   DATAGEN_LCC           ("datagen_lcc"),
+  DATAGEN_BA            ("datagen_ba"),
+  DATAGEN_RMAT          ("datagen_rmat"),
+  DATAGEN_SBM           ("datagen_sbm"),
+  DATAGEN_UPSCALE       ("datagen_upscale"),
+  DATAGEN_EVENTS        ("datagen_events"),
   TRAINTEST             ("traintest"),
+  CONVERT               ("convert"),
   CHECK                 ("check"),
   PUBLISH               ("publish"),
   SAVE                  ("save"),
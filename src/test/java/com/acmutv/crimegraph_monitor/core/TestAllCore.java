@@ -30,6 +30,7 @@ import com.acmutv.crimegraph_monitor.core.datagen.TestAllDatagen;
 import com.acmutv.crimegraph_monitor.core.db.TestAllDb;
 import com.acmutv.crimegraph_monitor.core.evaluation.TestAllEvaluation;
 import com.acmutv.crimegraph_monitor.core.graph.TestAllGraph;
+import com.acmutv.crimegraph_monitor.core.kafka.TestAllKafka;
 import com.acmutv.crimegraph_monitor.core.link.TestAllTuple;
 import com.acmutv.crimegraph_monitor.core.metric.TestAllMetric;
 import org.junit.runner.RunWith;
@@ -44,6 +45,7 @@ import org.junit.runners.Suite;
  * @see TestAllDb
  * @see TestAllEvaluation
  * @see TestAllGraph
+ * @see TestAllKafka
  * @see TestAllMetric
  * @see TestAllTuple
  */
@@ -53,6 +55,7 @@ import org.junit.runners.Suite;
     TestAllDb.class,
     TestAllEvaluation.class,
     TestAllGraph.class,
+    TestAllKafka.class,
     TestAllMetric.class,
     TestAllTuple.class
 })
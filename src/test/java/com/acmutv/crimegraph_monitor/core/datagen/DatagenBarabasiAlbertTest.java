@@ -0,0 +1,83 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * JUnit test suite for {@link DatagenBarabasiAlbert}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenBarabasiAlbert
+ */
+public class DatagenBarabasiAlbertTest {
+
+  /**
+   * Tests that every node attaches its links to older nodes, with weights in range.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_generate() throws IOException {
+    final int numNodes = 1000;
+    final int attachment = 3;
+    LinkBuffer links = new LinkBuffer();
+    final long generated = DatagenBarabasiAlbert.generate(numNodes, attachment, WeightDistribution.PARETO, 1.0, 100.0, links::add);
+
+    Assert.assertEquals(numNodes * attachment, generated);
+    Assert.assertEquals(numNodes * attachment, links.size());
+    for (int i = 0; i < links.size(); i++) {
+      Assert.assertEquals(i / attachment, links.getDst(i));
+      Assert.assertTrue(links.getSrc(i) <= links.getDst(i));
+      Assert.assertTrue(links.getWeight(i) >= 1.0 && links.getWeight(i) < 100.0);
+    }
+  }
+
+  /**
+   * Tests that degrees are heavy-tailed: the largest hub is far above the average degree.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_skew() throws IOException {
+    final int numNodes = 100000;
+    final int attachment = 2;
+    final int[] degrees = new int[numNodes];
+    DatagenBarabasiAlbert.generate(numNodes, attachment, WeightDistribution.UNIFORM, 1.0, 2.0, (src, dst, weight, type) -> {
+      degrees[(int) src]++;
+      degrees[(int) dst]++;
+    });
+    int maxDegree = 0;
+    for (int degree : degrees) {
+      maxDegree = Math.max(maxDegree, degree);
+    }
+    Assert.assertTrue(maxDegree > 50 * 2 * attachment);
+  }
+}
@@ -29,6 +29,7 @@ import com.acmutv.crimegraph_monitor.core.CoreController;
 import com.acmutv.crimegraph_monitor.core.graph.CustomWeightedEdge;
 import com.acmutv.crimegraph_monitor.core.graph.GraphController;
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -63,7 +64,7 @@ public class DatagenDetectionTest {
    */
   @Test
   public void test_datasets_random() throws IOException {
-    List<Link> data = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
+    LinkBuffer data = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
     CoreController.writeDataset(DATASET_RANDOM, data);
     Assume.assumeTrue(Files.exists(DATASET_RANDOM));
 
@@ -89,6 +90,55 @@ public class DatagenDetectionTest {
     Assert.assertTrue(isTrainsetCC);
   }
 
+  /**
+   * Tests that every split mode removes the requested links, keeping the trainset connected.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_datasets_modes() throws IOException {
+    LinkBuffer dataset = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
+    Assume.assumeTrue(GraphController.isSingleConnectedComponent(GraphController.asGraph(dataset)));
+    final long toRemove = Math.round(RATIO * dataset.size());
+
+    for (SplitMode mode : SplitMode.values()) {
+      final Pair<LinkBuffer,LinkBuffer> sets = DatagenDetection.datasets(dataset, RATIO, mode);
+      final LinkBuffer trainset = sets.getLeft();
+      final LinkBuffer testset = sets.getRight();
+
+      if (SplitMode.FAST.equals(mode)) {
+        Assert.assertEquals(toRemove, testset.size());
+      }
+      Assert.assertEquals(dataset.size(), trainset.size() + testset.size());
+      Assert.assertTrue(GraphController.isSingleConnectedComponent(GraphController.asGraph(trainset)));
+      Assert.assertEquals(GraphController.asGraph(dataset).vertexSet(), GraphController.asGraph(trainset).vertexSet());
+    }
+  }
+
+  /**
+   * Tests that the fast split keeps every connected component of a disconnected dataset connected.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_datasets_fast_components() throws IOException {
+    LinkBuffer dataset = new LinkBuffer();
+    for (long n = 0; n < 10; n++) {
+      for (long m = n + 1; m < 10; m++) {
+        dataset.add(new Link(n, m, 1.0));
+        dataset.add(new Link(100 + n, 100 + m, 1.0));
+      }
+    }
+    dataset.add(new Link(201, 202, 1.0));
+
+    final Pair<LinkBuffer,LinkBuffer> sets = DatagenDetection.datasets(dataset, 0.9, SplitMode.FAST);
+    final LinkBuffer trainset = sets.getLeft();
+    final LinkBuffer testset = sets.getRight();
+
+    Assert.assertEquals(9 + 9 + 1, trainset.size());
+    Assert.assertEquals(dataset.size() - trainset.size(), testset.size());
+    Assert.assertEquals(GraphController.analyzeGraph(GraphController.asGraph(dataset)).get("cc_vertexsets"),
+        GraphController.analyzeGraph(GraphController.asGraph(trainset)).get("cc_vertexsets"));
+  }
+
   /**
    * Tests datasets generation for detection.
    */
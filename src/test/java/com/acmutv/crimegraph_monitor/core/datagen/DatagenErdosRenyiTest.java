@@ -0,0 +1,136 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.collection.LongHashSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * JUnit test suite for {@link DatagenErdosRenyi}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenErdosRenyi
+ */
+public class DatagenErdosRenyiTest {
+
+  /**
+   * Tests that G(n,m) generates exactly m distinct pairs, in pair order, for sparse and dense
+   * chunks, whatever the number of workers.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_gnm() throws IOException {
+    final int numNodes = 1000;
+    for (long numLinks : new long[]{0, 1, 1000, 200000, 400000, DatagenErdosRenyi.numPairs(numNodes)}) {
+      LinkBuffer links = new LinkBuffer();
+      final long generated = DatagenErdosRenyi.gnm(numNodes, numLinks, 1.0, 2.0, links::add, 4);
+      Assert.assertEquals(numLinks, generated);
+      Assert.assertEquals(numLinks, links.size());
+      assertPairs(numNodes, links);
+
+      LinkBuffer sequential = new LinkBuffer();
+      DatagenErdosRenyi.gnm(numNodes, numLinks, 1.0, 2.0, sequential::add, 1);
+      Assert.assertEquals(links, sequential);
+    }
+  }
+
+  /**
+   * Tests that G(n,m) rejects more links than node pairs.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_gnm_tooManyLinks() throws IOException {
+    DatagenErdosRenyi.gnm(10, 46, 1.0, 2.0, (src, dst, weight, type) -> {}, 1);
+  }
+
+  /**
+   * Tests that G(n,p) generates distinct pairs, in pair order, with the expected number of links,
+   * whatever the number of workers.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_gnp() throws IOException {
+    final int numNodes = 2000;
+    final long numPairs = DatagenErdosRenyi.numPairs(numNodes);
+
+    LinkBuffer empty = new LinkBuffer();
+    Assert.assertEquals(0, DatagenErdosRenyi.gnp(numNodes, 0.0, 1.0, 2.0, empty::add, 4));
+
+    LinkBuffer complete = new LinkBuffer();
+    Assert.assertEquals(numPairs, DatagenErdosRenyi.gnp(numNodes, 1.0, 1.0, 2.0, complete::add, 4));
+    assertPairs(numNodes, complete);
+
+    final double probability = 0.1;
+    LinkBuffer links = new LinkBuffer();
+    DatagenErdosRenyi.gnp(numNodes, probability, 1.0, 2.0, links::add, 4);
+    assertPairs(numNodes, links);
+    final double mean = probability * numPairs;
+    final double sd = Math.sqrt(mean * (1.0 - probability));
+    Assert.assertEquals(mean, links.size(), 6 * sd);
+
+    LinkBuffer sequential = new LinkBuffer();
+    DatagenErdosRenyi.gnp(numNodes, probability, 1.0, 2.0, sequential::add, 1);
+    Assert.assertEquals(links, sequential);
+  }
+
+  /**
+   * Tests the decoding of linear pair positions, up to the largest number of nodes.
+   */
+  @Test
+  public void test_pairHigh() {
+    Assert.assertEquals(1, DatagenErdosRenyi.pairHigh(0));
+    Assert.assertEquals(2, DatagenErdosRenyi.pairHigh(1));
+    Assert.assertEquals(2, DatagenErdosRenyi.pairHigh(2));
+    Assert.assertEquals(3, DatagenErdosRenyi.pairHigh(3));
+    for (long y : new long[]{1000, 94906265, 94906266, 1L << 30, Integer.MAX_VALUE - 1}) {
+      final long first = y * (y - 1) / 2;
+      Assert.assertEquals(y, DatagenErdosRenyi.pairHigh(first));
+      Assert.assertEquals(y, DatagenErdosRenyi.pairHigh(first + y - 1));
+      Assert.assertEquals(y - 1, DatagenErdosRenyi.pairHigh(first - 1));
+    }
+  }
+
+  private static void assertPairs(int numNodes, LinkBuffer links) {
+    LongHashSet pairs = new LongHashSet(links.size());
+    long last = -1;
+    for (int i = 0; i < links.size(); i++) {
+      final long x = links.getSrc(i);
+      final long y = links.getDst(i);
+      Assert.assertTrue(0 <= x && x < y && y < numNodes);
+      final long k = y * (y - 1) / 2 + x;
+      Assert.assertTrue(k > last);
+      Assert.assertTrue(pairs.add(k));
+      last = k;
+      Assert.assertTrue(links.getWeight(i) >= 1.0 && links.getWeight(i) < 2.0);
+    }
+  }
+}
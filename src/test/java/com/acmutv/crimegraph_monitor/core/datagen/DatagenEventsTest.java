@@ -0,0 +1,172 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkEventWriter;
+import com.acmutv.crimegraph_monitor.core.link.LinkEvents;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link DatagenEvents}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenEvents
+ */
+public class DatagenEventsTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that Poisson events introduce base links in order, at the configured rate.
+   * @throws IOException when the dataset cannot be read.
+   */
+  @Test
+  public void test_poisson() throws IOException {
+    final LinkBuffer base = Links.readBuffer(Paths.get("data/criminal_new.data"));
+    EventConfiguration conf = new EventConfiguration();
+    conf.setRate(50.0);
+    conf.setNumEvents(20000);
+    final List<long[]> events = generate(base, conf);
+
+    Assert.assertEquals(conf.getNumEvents(), events.size());
+    for (int i = 0; i < events.size(); i++) {
+      if (i > 0) Assert.assertTrue(events.get(i)[0] >= events.get(i - 1)[0]);
+      if (i < base.size()) {
+        Assert.assertEquals(base.getSrc(i), events.get(i)[1]);
+        Assert.assertEquals(base.getDst(i), events.get(i)[2]);
+      }
+    }
+    final double rate = 1000.0 * events.size() / events.get(events.size() - 1)[0];
+    Assert.assertEquals(50.0, rate, 2.5);
+  }
+
+  /**
+   * Tests that repeated interactions drift weights, and that Hawkes arrivals are burstier than
+   * Poisson arrivals.
+   * @throws IOException when the dataset cannot be read.
+   */
+  @Test
+  public void test_hawkes() throws IOException {
+    final LinkBuffer base = Links.readBuffer(Paths.get("data/criminal_new.data"));
+    EventConfiguration conf = new EventConfiguration();
+    conf.setRate(10.0);
+    conf.setNumEvents(20000);
+    conf.setRepeatProbability(0.5);
+    conf.setDrift(0.1);
+    final double poisson = variation(generate(base, conf));
+    conf.setProcess(ArrivalProcess.HAWKES);
+    conf.setBranching(0.8);
+    conf.setDecay(20.0);
+    final List<long[]> events = generate(base, conf);
+
+    Assert.assertEquals(1.0, poisson, 0.1);
+    Assert.assertTrue(variation(events) > 1.5);
+    boolean drifted = false;
+    for (long[] event : events) {
+      drifted |= (Double.longBitsToDouble(event[3]) != Math.rint(Double.longBitsToDouble(event[3])));
+    }
+    Assert.assertTrue(drifted);
+  }
+
+  /**
+   * Tests that events are written and read back.
+   * @throws IOException when events cannot be written or read.
+   */
+  @Test
+  public void test_roundtrip() throws IOException {
+    final LinkBuffer base = Links.readBuffer(Paths.get("data/criminal_new.data"));
+    EventConfiguration conf = new EventConfiguration();
+    conf.setProcess(ArrivalProcess.DIURNAL);
+    conf.setPeriod(10.0);
+    conf.setNumEvents(1000);
+    conf.setRepeatProbability(0.2);
+    Path output = Paths.get(this.testdir.getRoot().toString(), "roundtrip.events");
+    RandomManager.setSeed(1234L);
+    try (LinkEventWriter writer = new LinkEventWriter(output)) {
+      DatagenEvents.generate(base, conf, writer);
+    }
+    final List<long[]> expected = generate(base, conf);
+    final List<long[]> actual = new ArrayList<>();
+    LinkEvents.forEach(output, (timestamp, src, dst, weight, type) -> {
+      Assert.assertEquals(LinkType.REAL, type);
+      actual.add(new long[]{timestamp, src, dst});
+    });
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertArrayEquals(new long[]{expected.get(i)[0], expected.get(i)[1], expected.get(i)[2]}, actual.get(i));
+    }
+  }
+
+  /**
+   * Generates events with seed 1234, as (timestamp, src, dst, weight bits).
+   * @param base the base graph.
+   * @param conf the event configuration.
+   * @return the events.
+   * @throws IOException never.
+   */
+  private static List<long[]> generate(LinkBuffer base, EventConfiguration conf) throws IOException {
+    RandomManager.setSeed(1234L);
+    final List<long[]> events = new ArrayList<>();
+    DatagenEvents.generate(base, conf, (timestamp, src, dst, weight, type) ->
+        events.add(new long[]{timestamp, src, dst, Double.doubleToLongBits(weight)}));
+    return events;
+  }
+
+  /**
+   * Returns the coefficient of variation of inter-arrival times.
+   * @param events the events.
+   * @return the coefficient of variation.
+   */
+  private static double variation(List<long[]> events) {
+    final int n = events.size() - 1;
+    double sum = 0.0;
+    double squares = 0.0;
+    for (int i = 1; i <= n; i++) {
+      final double wait = events.get(i)[0] - events.get(i - 1)[0];
+      sum += wait;
+      squares += wait * wait;
+    }
+    final double mean = sum / n;
+    return Math.sqrt(squares / n - mean * mean) / mean;
+  }
+}
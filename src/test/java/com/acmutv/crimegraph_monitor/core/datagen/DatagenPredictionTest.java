@@ -30,6 +30,7 @@ import com.acmutv.crimegraph_monitor.core.CoreController;
 import com.acmutv.crimegraph_monitor.core.graph.CustomWeightedEdge;
 import com.acmutv.crimegraph_monitor.core.graph.GraphController;
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -66,7 +67,7 @@ public class DatagenPredictionTest {
    */
   @Test
   public void test_datasets_random() throws IOException {
-    List<Link> data = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
+    LinkBuffer data = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
     CoreController.writeDataset(DATASET_RANDOM, data);
     Assume.assumeTrue(Files.exists(DATASET_RANDOM));
 
@@ -92,6 +93,50 @@ public class DatagenPredictionTest {
     Assert.assertTrue(isTrainsetCC);
   }
 
+  /**
+   * Tests that the fast split equals the reference split on a single connected component.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_datasets_modes() throws IOException {
+    LinkBuffer dataset = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
+    dataset.add(new Link(0, 0, 1.0));
+    dataset.add(new Link(1, 2, 1.0));
+    Assume.assumeTrue(GraphController.isSingleConnectedComponent(GraphController.asGraph(dataset)));
+
+    final Pair<LinkBuffer,LinkBuffer> expected = DatagenPrediction.datasets(dataset, RATIO, SplitMode.REFERENCE);
+    final Pair<LinkBuffer,LinkBuffer> actual = DatagenPrediction.datasets(dataset, RATIO, SplitMode.FAST);
+
+    Assert.assertEquals(Math.round(RATIO * dataset.size()), actual.getRight().size());
+    Assert.assertEquals(expected.getLeft(), actual.getLeft());
+    Assert.assertEquals(expected.getRight(), actual.getRight());
+  }
+
+  /**
+   * Tests that the fast split removes only the newest links that are not bridges.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_datasets_fast() throws IOException {
+    LinkBuffer dataset = new LinkBuffer();
+    dataset.add(new Link(1, 2, 1.0));
+    dataset.add(new Link(2, 3, 1.0));
+    dataset.add(new Link(3, 1, 1.0));
+    dataset.add(new Link(3, 4, 1.0));
+    dataset.add(new Link(4, 5, 1.0));
+    dataset.add(new Link(5, 3, 1.0));
+    dataset.add(new Link(5, 6, 1.0));
+
+    final Pair<LinkBuffer,LinkBuffer> sets = DatagenPrediction.datasets(dataset, 0.5, SplitMode.FAST);
+
+    LinkBuffer expectedTestset = new LinkBuffer();
+    expectedTestset.add(new Link(5, 3, 1.0));
+    expectedTestset.add(new Link(3, 1, 1.0));
+    Assert.assertEquals(expectedTestset, sets.getRight());
+    Assert.assertEquals(5, sets.getLeft().size());
+    Assert.assertTrue(GraphController.isSingleConnectedComponent(GraphController.asGraph(sets.getLeft())));
+  }
+
   /**
    * Tests datasets generation for prediction.
    */
@@ -28,6 +28,7 @@ package com.acmutv.crimegraph_monitor.core.datagen;
 
 import com.acmutv.crimegraph_monitor.core.CoreController;
 import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.Test;
@@ -68,7 +69,7 @@ public class DatagenRandomTest {
       Files.createDirectories(path.getParent());
     }
 
-    List<Link> data = CoreController.randomSimple(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
+    LinkBuffer data = CoreController.randomSimple(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
     CoreController.writeDataset(path, data);
   }
 
@@ -84,7 +85,7 @@ public class DatagenRandomTest {
       Files.createDirectories(path.getParent());
     }
 
-    List<Link> data = CoreController.randomCircular(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
+    LinkBuffer data = CoreController.randomCircular(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
     CoreController.writeDataset(path, data);
   }
 }
@@ -0,0 +1,140 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test suite for {@link DatagenRmat}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenRmat
+ */
+public class DatagenRmatTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that the requested number of links is generated, within node and weight ranges, and
+   * that the result does not depend on the number of workers.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_generate() throws IOException {
+    final int scale = 10;
+    final long numLinks = 3 * DatagenRmat.CHUNK_LINKS + 17;
+    RandomManager.setSeed(1234L);
+    LinkBuffer sequential = new LinkBuffer();
+    final long generated = DatagenRmat.generate(scale, numLinks, 0.57, 0.19, 0.19,
+        WeightDistribution.UNIFORM, 1.0, 100.0, null, sequential::add, 1);
+    LinkBuffer parallel = new LinkBuffer();
+    DatagenRmat.generate(scale, numLinks, 0.57, 0.19, 0.19,
+        WeightDistribution.UNIFORM, 1.0, 100.0, null, parallel::add, 4);
+
+    Assert.assertEquals(numLinks, generated);
+    Assert.assertEquals(numLinks, sequential.size());
+    Assert.assertEquals(numLinks, parallel.size());
+    for (int i = 0; i < sequential.size(); i++) {
+      Assert.assertTrue(sequential.getSrc(i) >= 0 && sequential.getSrc(i) < (1 << scale));
+      Assert.assertTrue(sequential.getDst(i) >= 0 && sequential.getDst(i) < (1 << scale));
+      Assert.assertTrue(sequential.getWeight(i) >= 1.0 && sequential.getWeight(i) < 100.0);
+      Assert.assertEquals(sequential.getSrc(i), parallel.getSrc(i));
+      Assert.assertEquals(sequential.getDst(i), parallel.getDst(i));
+      Assert.assertEquals(sequential.getWeight(i), parallel.getWeight(i), 0.0);
+    }
+  }
+
+  /**
+   * Tests that deduplication emits every generated pair exactly once, in (src,dst) order, both
+   * in memory and across spilled runs, and that no run is left on disk.
+   * @throws IOException when runs cannot be spilled.
+   */
+  @Test
+  public void test_dedup() throws IOException {
+    final int scale = 8;
+    final long numLinks = 50000;
+    RandomManager.setSeed(1234L);
+    Set<Long> expected = new HashSet<>();
+    DatagenRmat.generate(scale, numLinks, 0.57, 0.19, 0.19, WeightDistribution.UNIFORM, 1.0, 100.0,
+        null, (src, dst, weight, type) -> expected.add((src << 32) | dst), 1);
+
+    Path spill = this.testdir.newFolder("rmat").toPath();
+    LinkBuffer memory = new LinkBuffer();
+    DatagenRmat.generate(scale, numLinks, 0.57, 0.19, 0.19, WeightDistribution.UNIFORM, 1.0, 100.0,
+        spill, memory::add, 2);
+    LinkBuffer spilled = new LinkBuffer();
+    DatagenRmat.generate(scale, numLinks, 0.57, 0.19, 0.19, WeightDistribution.UNIFORM, 1.0, 100.0,
+        spill, 1000, spilled::add, 2);
+
+    Assert.assertEquals(expected.size(), memory.size());
+    Assert.assertEquals(expected.size(), spilled.size());
+    for (int i = 0; i < memory.size(); i++) {
+      final long pair = (memory.getSrc(i) << 32) | memory.getDst(i);
+      Assert.assertTrue(expected.contains(pair));
+      if (i > 0) {
+        Assert.assertTrue(pair > ((memory.getSrc(i - 1) << 32) | memory.getDst(i - 1)));
+      }
+      Assert.assertEquals(memory.getSrc(i), spilled.getSrc(i));
+      Assert.assertEquals(memory.getDst(i), spilled.getDst(i));
+      Assert.assertEquals(memory.getWeight(i), spilled.getWeight(i), 0.0);
+    }
+    try (Stream<Path> runs = Files.list(spill)) {
+      Assert.assertEquals(0, runs.count());
+    }
+  }
+
+  /**
+   * Tests that skewed probabilities concentrate links on low node ids.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_skew() throws IOException {
+    final int scale = 12;
+    final int[] degrees = new int[1 << scale];
+    DatagenRmat.generate(scale, 100000, 0.57, 0.19, 0.19, WeightDistribution.UNIFORM, 1.0, 2.0, null,
+        (src, dst, weight, type) -> {
+          degrees[(int) src]++;
+          degrees[(int) dst]++;
+        }, 2);
+    Assert.assertTrue(degrees[0] > 50 * 2 * 100000 / (1 << scale));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit tests for seeded dataset generation.
+ * The seed is global and test methods run in parallel, so tests that set it live here, apart
+ * from tests that draw it.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RandomManager
+ */
+public class DatagenSeedTest {
+
+  private static final int NUM_NODES = 50;
+
+  private static final int NUM_LINKS = 100;
+
+  private static final double MIN_WEIGHT = 1.0;
+
+  private static final double MAX_WEIGHT = 100.0;
+
+  /**
+   * Clears the seed, so that following tests draw their own.
+   */
+  @After
+  public void resetSeed() {
+    RandomManager.resetSeed();
+  }
+
+  /**
+   * Tests that generation and splits are reproducible with the same seed.
+   */
+  @Test
+  public void test_seeded() throws Exception {
+    RandomManager.setSeed(42);
+    LinkBuffer data1 = CoreController.randomSimple(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
+    LinkBuffer test1 = DatagenDetection.datasets(data1, 0.1, SplitMode.FAST).getRight();
+
+    RandomManager.setSeed(42);
+    LinkBuffer data2 = CoreController.randomSimple(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
+    LinkBuffer test2 = DatagenDetection.datasets(data2, 0.1, SplitMode.FAST).getRight();
+
+    Assert.assertEquals(data1, data2);
+    Assert.assertEquals(test1, test2);
+
+    RandomManager.setSeed(43);
+    LinkBuffer data3 = CoreController.randomSimple(NUM_NODES, NUM_LINKS, MIN_WEIGHT, MAX_WEIGHT);
+    Assert.assertNotEquals(data1, data3);
+  }
+}
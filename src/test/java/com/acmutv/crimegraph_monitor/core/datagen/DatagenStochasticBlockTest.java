@@ -0,0 +1,114 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.graph.Communities;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * JUnit test suite for {@link DatagenStochasticBlock}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenStochasticBlock
+ */
+public class DatagenStochasticBlockTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that intra-block and inter-block links follow their densities, that links are not
+   * duplicated, and that the result does not depend on the number of workers.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_generate() throws IOException {
+    final int[] blockSizes = {300, 0, 500, 200};
+    final int numNodes = 1000;
+    RandomManager.setSeed(1234L);
+    LinkBuffer sequential = new LinkBuffer();
+    DatagenStochasticBlock.generate(blockSizes, 0.3, 0.01, WeightDistribution.PARETO, WeightDistribution.UNIFORM,
+        1.0, 100.0, sequential::add, 1);
+    LinkBuffer parallel = new LinkBuffer();
+    DatagenStochasticBlock.generate(blockSizes, 0.3, 0.01, WeightDistribution.PARETO, WeightDistribution.UNIFORM,
+        1.0, 100.0, parallel::add, 4);
+
+    final int[] block = new int[numNodes];
+    for (int node = 300; node < 800; node++) block[node] = 2;
+    for (int node = 800; node < 1000; node++) block[node] = 3;
+    final boolean[][] linked = new boolean[numNodes][numNodes];
+    long intra = 0;
+    long inter = 0;
+    Assert.assertEquals(sequential.size(), parallel.size());
+    for (int i = 0; i < sequential.size(); i++) {
+      final int src = (int) sequential.getSrc(i);
+      final int dst = (int) sequential.getDst(i);
+      Assert.assertTrue(src >= 0 && src < dst && dst < numNodes);
+      Assert.assertFalse(linked[src][dst]);
+      linked[src][dst] = true;
+      if (block[src] == block[dst]) intra++; else inter++;
+      Assert.assertEquals(src, parallel.getSrc(i));
+      Assert.assertEquals(dst, parallel.getDst(i));
+      Assert.assertEquals(sequential.getWeight(i), parallel.getWeight(i), 0.0);
+    }
+    final long intraPairs = 300L * 299 / 2 + 500L * 499 / 2 + 200L * 199 / 2;
+    final long interPairs = 300L * 500 + 300L * 200 + 500L * 200;
+    Assert.assertEquals(0.3, (double) intra / intraPairs, 0.01);
+    Assert.assertEquals(0.01, (double) inter / interPairs, 0.002);
+  }
+
+  /**
+   * Tests that communities are written as blocks and read back.
+   * @throws IOException when communities cannot be written or read.
+   */
+  @Test
+  public void test_communities() throws IOException {
+    final int[] blockSizes = {3, 0, 2};
+    Path output = Paths.get(this.testdir.getRoot().toString(), "sbm.communities");
+    Assert.assertEquals(5, DatagenStochasticBlock.communities(output, blockSizes));
+
+    Communities communities = Communities.read(output);
+    Assert.assertEquals(5, communities.size());
+    Assert.assertEquals(0, communities.communityOf(2));
+    Assert.assertEquals(2, communities.communityOf(3));
+    Assert.assertEquals(Communities.NONE, communities.communityOf(5));
+    Assert.assertTrue(communities.isIntra(0, 2));
+    Assert.assertFalse(communities.isIntra(2, 3));
+    Assert.assertFalse(communities.isIntra(4, 5));
+  }
+}
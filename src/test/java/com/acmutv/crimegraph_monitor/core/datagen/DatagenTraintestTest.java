@@ -0,0 +1,116 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import com.acmutv.crimegraph_monitor.core.mining.MiningType;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.acmutv.crimegraph_monitor.core.datagen.TestAllDatagen.*;
+
+/**
+ * JUnit test suite for the generation of multiple training/test sets.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see CoreController#traintest(List, Path, String, String, List, SplitMode)
+ */
+public class DatagenTraintestTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  private static final String TRAINSET = "traintest_train_{mining}_{ratio}.data";
+
+  private static final String TESTSET = "traintest_test_{mining}_{ratio}.data";
+
+  /**
+   * Returns the path of {@code name} in the test directory.
+   * @param name the file name, or template.
+   * @return the path.
+   */
+  private String pathOf(String name) {
+    return Paths.get(this.testdir.getRoot().toString(), name).toString();
+  }
+
+  /**
+   * Tests that every mining and test ratio pair is generated.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  @Test
+  public void test_traintest() throws IOException {
+    LinkBuffer data = CoreController.randomSimple(ORIGINAL_NUM_NODES, ORIGINAL_NUM_LINKS, ORIGINAL_MIN_WEIGHT, ORIGINAL_MAX_WEIGHT);
+    final Path dataset = Paths.get(this.pathOf("traintest.data"));
+    CoreController.writeDataset(dataset, data);
+
+    final List<MiningType> minings = MiningType.fromList("ALL");
+    final List<String> ratios = Arrays.asList("0.10", "0.2", "0.3");
+    CoreController.traintest(minings, dataset, this.pathOf(TRAINSET), this.pathOf(TESTSET), ratios, SplitMode.FAST);
+
+    for (MiningType mining : minings) {
+      for (String ratio : ratios) {
+        final Path trainset = CoreController.traintestPath(this.pathOf(TRAINSET), mining, ratio);
+        final Path testset = CoreController.traintestPath(this.pathOf(TESTSET), mining, ratio);
+        Assert.assertTrue(Files.exists(trainset));
+        Assert.assertTrue(Files.exists(testset));
+        Assert.assertEquals(data.size(), Links.count(trainset) + Links.count(testset));
+      }
+    }
+    Assert.assertTrue(CoreController.traintestPath(TRAINSET, MiningType.DETECTION, "0.10").toString()
+        .endsWith("traintest_train_DETECTION_0.10.data"));
+  }
+
+  /**
+   * Tests that templates yielding the same path for different pairs are rejected.
+   * @throws IOException when datasets cannot be read or written.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_traintest_ambiguous() throws IOException {
+    CoreController.traintest(MiningType.fromList("ALL"), Paths.get(this.pathOf("traintest.data")),
+        this.pathOf("traintest_train_{ratio}.data"), this.pathOf(TESTSET), Arrays.asList("0.1", "0.2"), SplitMode.FAST);
+  }
+
+  /**
+   * Tests that unknown mining types are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_fromList_unknown() {
+    MiningType.fromList("detecton,prediction");
+  }
+}
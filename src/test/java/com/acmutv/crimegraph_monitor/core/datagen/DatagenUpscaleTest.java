@@ -0,0 +1,101 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.datagen;
+
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.tool.random.RandomManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * JUnit test suite for {@link DatagenUpscale}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatagenUpscale
+ */
+public class DatagenUpscaleTest {
+
+  /**
+   * Tests that the upscaled graph preserves degrees and weights of the original dataset, and that
+   * the result does not depend on the number of workers.
+   * @throws IOException when the dataset cannot be read.
+   */
+  @Test
+  public void test_generate() throws IOException {
+    final Path dataset = Paths.get("data/criminal_new.data");
+    final int factor = 200;
+    DatagenUpscale model = DatagenUpscale.fit(dataset);
+    final int numNodes = model.getNumNodes();
+    Assert.assertEquals(2 * model.getNumLinks(), Arrays.stream(model.getDegrees()).sum());
+
+    RandomManager.setSeed(1234L);
+    LinkBuffer sequential = new LinkBuffer();
+    final long generated = model.generate(factor, sequential::add, 1);
+    LinkBuffer parallel = new LinkBuffer();
+    model.generate(factor, parallel::add, 4);
+
+    Assert.assertEquals(model.getNumLinks() * factor, generated);
+    Assert.assertEquals(generated, sequential.size());
+    Assert.assertEquals(generated, parallel.size());
+    final double[] weights = sortedWeights(model);
+    final double[] degrees = new double[numNodes];
+    for (int i = 0; i < sequential.size(); i++) {
+      final long src = sequential.getSrc(i);
+      final long dst = sequential.getDst(i);
+      Assert.assertTrue(src != dst);
+      Assert.assertTrue(src >= 0 && src < (long) numNodes * factor);
+      Assert.assertTrue(dst >= 0 && dst < (long) numNodes * factor);
+      Assert.assertTrue(Arrays.binarySearch(weights, sequential.getWeight(i)) >= 0);
+      degrees[(int) (src % numNodes)]++;
+      degrees[(int) (dst % numNodes)]++;
+      Assert.assertEquals(src, parallel.getSrc(i));
+      Assert.assertEquals(dst, parallel.getDst(i));
+      Assert.assertEquals(sequential.getWeight(i), parallel.getWeight(i), 0.0);
+    }
+    for (int node = 0; node < numNodes; node++) {
+      final int expected = model.getDegrees()[node];
+      Assert.assertEquals(expected, degrees[node] / factor, 0.25 * expected + 0.5);
+    }
+  }
+
+  /**
+   * Returns the sorted distinct weights of {@code model}.
+   * @param model the model.
+   * @return the sorted distinct weights.
+   */
+  private static double[] sortedWeights(DatagenUpscale model) {
+    double[] weights = model.getWeights().clone();
+    Arrays.sort(weights);
+    return weights;
+  }
+}
@@ -34,17 +34,33 @@ import org.junit.runners.Suite;
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
+ * @see DatagenBarabasiAlbertTest
  * @see DatagenDetectionTest
+ * @see DatagenErdosRenyiTest
+ * @see DatagenEventsTest
  * @see DatagenLccTest
  * @see DatagenPredictionTest
  * @see DatagenRandomTest
+ * @see DatagenRmatTest
+ * @see DatagenSeedTest
+ * @see DatagenStochasticBlockTest
+ * @see DatagenTraintestTest
+ * @see DatagenUpscaleTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+    DatagenBarabasiAlbertTest.class,
     DatagenDetectionTest.class,
+    DatagenErdosRenyiTest.class,
+    DatagenEventsTest.class,
     DatagenLccTest.class,
     DatagenPredictionTest.class,
-    DatagenRandomTest.class
+    DatagenRandomTest.class,
+    DatagenRmatTest.class,
+    DatagenSeedTest.class,
+    DatagenStochasticBlockTest.class,
+    DatagenTraintestTest.class,
+    DatagenUpscaleTest.class
 })
 public class TestAllDatagen {
 
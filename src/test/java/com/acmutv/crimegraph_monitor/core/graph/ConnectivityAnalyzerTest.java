@@ -0,0 +1,110 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * JUnit test suite for {@link ConnectivityAnalyzer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ConnectivityAnalyzer
+ */
+public class ConnectivityAnalyzerTest {
+
+  final Path DATASET = Paths.get(ConnectivityAnalyzerTest.class.getResource("/core/graph/dataset.data").getPath());
+
+  /**
+   * Tests the analysis of a small multigraph with self-loops.
+   * @throws IOException when links cannot be consumed.
+   */
+  @Test
+  public void test_analysis() throws IOException {
+    LinkBuffer links = new LinkBuffer();
+    links.add(new Link(1, 2, 1.0));
+    links.add(new Link(1, 2, 2.0));
+    links.add(new Link(3, 3, 1.0));
+    links.add(new Link(4, 5, 1.0));
+    links.add(new Link(5, 6, 1.0));
+    links.add(new Link(6, 4, 1.0));
+    links.add(new Link(7, 7, 1.0));
+    ConnectivityAnalyzer analyzer = new ConnectivityAnalyzer();
+    links.forEach(analyzer);
+    Properties actual = analyzer.getAnalysis();
+
+    Assert.assertEquals(7, actual.get("numnodes"));
+    Assert.assertEquals(7L, actual.get("numlinks"));
+    Assert.assertEquals(4L, actual.get("cc_vertexsets"));
+    Assert.assertEquals(3, actual.get("lcc_numnodes"));
+    Assert.assertEquals(3L, actual.get("lcc_numlinks"));
+  }
+
+  /**
+   * Tests that the streaming analysis of the test dataset matches the graph analysis.
+   * @throws IOException when the dataset cannot be read.
+   */
+  @Test
+  public void test_dataset() throws IOException {
+    Properties expected = GraphController.analyzeGraph(GraphController.asGraph(Links.readBuffer(DATASET)));
+    Properties actual = GraphController.analyzeDataset(DATASET);
+    assertEquivalent(expected, actual);
+  }
+
+  /**
+   * Tests that the streaming analysis of random datasets matches the graph analysis.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_random() throws IOException {
+    for (int numLinks : new int[]{0, 1, 50, 100, 200, 1000}) {
+      LinkBuffer links = CoreController.randomSimple(300, numLinks, 0.0, 1.0);
+      links.add(new Link(7, 7, 1.0));
+      links.add(new Link(1000, 1000, 1.0));
+      ConnectivityAnalyzer analyzer = new ConnectivityAnalyzer();
+      links.forEach(analyzer);
+      assertEquivalent(GraphController.analyzeGraph(GraphController.asGraph(links)), analyzer.getAnalysis());
+    }
+  }
+
+  private static void assertEquivalent(Properties expected, Properties actual) {
+    Assert.assertEquals(expected.keySet(), actual.keySet());
+    for (Object key : expected.keySet()) {
+      Assert.assertEquals(key.toString(), String.valueOf(expected.get(key)), String.valueOf(actual.get(key)));
+    }
+  }
+}
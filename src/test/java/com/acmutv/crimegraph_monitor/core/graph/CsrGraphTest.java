@@ -0,0 +1,152 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.link.DatasetIndex;
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.Links;
+import org.jgrapht.UndirectedGraph;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JUnit test suite for {@link CsrGraph}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see CsrGraph
+ */
+public class CsrGraphTest {
+
+  final Path DATASET = Paths.get(CsrGraphTest.class.getResource("/core/graph/dataset.data").getPath());
+
+  /**
+   * Tests the adjacency layout of a multigraph with a self-loop.
+   */
+  @Test
+  public void test_adjacency() {
+    LinkBuffer links = new LinkBuffer();
+    links.add(new Link(10, 20, 1.0));
+    links.add(new Link(10, 20, 2.0));
+    links.add(new Link(20, 30, 3.0));
+    links.add(new Link(30, 30, 4.0));
+    links.add(new Link(40, 50, 5.0));
+    CsrGraph graph = CsrGraph.of(links);
+
+    Assert.assertEquals(5, graph.getNumNodes());
+    Assert.assertEquals(5, graph.getNumEdges());
+
+    final int n10 = graph.getNodes().indexOf(10);
+    final int n20 = graph.getNodes().indexOf(20);
+    final int n30 = graph.getNodes().indexOf(30);
+    Assert.assertEquals(2, graph.getDegree(n10));
+    Assert.assertEquals(3, graph.getDegree(n20));
+    Assert.assertEquals(2, graph.getDegree(n30));
+
+    for (int pos = graph.getAdjacencyStart(n10); pos < graph.getAdjacencyEnd(n10); pos++) {
+      Assert.assertEquals(n20, graph.getNeighbor(pos));
+      final int e = graph.getEdge(pos);
+      Assert.assertEquals(links.getWeight(e), graph.getWeight(e), 0);
+    }
+
+    final int[] components = graph.getComponents();
+    Assert.assertEquals(components[n10], components[n30]);
+    Assert.assertNotEquals(components[n10], components[graph.getNodes().indexOf(40)]);
+    Assert.assertFalse(GraphController.isSingleConnectedComponent(graph));
+  }
+
+  /**
+   * Tests that analyses on {@link CsrGraph} match the ones on jgrapht graphs, for the test
+   * dataset, and that building straight from the dataset yields the same graph without indexing it.
+   * @throws IOException when the dataset cannot be read.
+   */
+  @Test
+  public void test_dataset() throws IOException {
+    LinkBuffer links = Links.readBuffer(DATASET);
+    assertEquivalent(links);
+
+    CsrGraph expected = CsrGraph.of(links);
+    Files.deleteIfExists(DatasetIndex.sidecar(DATASET));
+    CsrGraph actual = CsrGraph.of(DATASET);
+    Assert.assertFalse(Files.exists(DatasetIndex.sidecar(DATASET)));
+    Assert.assertEquals(expected.getNumNodes(), actual.getNumNodes());
+    Assert.assertEquals(expected.getNumEdges(), actual.getNumEdges());
+    for (int v = 0; v < expected.getNumNodes(); v++) {
+      Assert.assertEquals(expected.getNodes().idOf(v), actual.getNodes().idOf(v));
+      Assert.assertEquals(expected.getDegree(v), actual.getDegree(v));
+    }
+    for (int e = 0; e < expected.getNumEdges(); e++) {
+      Assert.assertEquals(expected.getWeight(e), actual.getWeight(e), 0);
+    }
+    Assert.assertEquals(GraphController.analyzeGraph(expected), GraphController.analyzeGraph(actual));
+  }
+
+  /**
+   * Tests that analyses on {@link CsrGraph} match the ones on jgrapht graphs, for random sparse
+   * datasets with many components.
+   * @throws IOException when datasets cannot be generated.
+   */
+  @Test
+  public void test_random() throws IOException {
+    for (int numLinks : new int[]{0, 1, 50, 100, 200}) {
+      LinkBuffer links = CoreController.randomSimple(300, numLinks, 0.0, 1.0);
+      links.add(new Link(7, 7, 1.0));
+      links.add(new Link(1000, 1000, 1.0));
+      assertEquivalent(links);
+    }
+  }
+
+  private static void assertEquivalent(LinkBuffer links) {
+    UndirectedGraph<Long, CustomWeightedEdge> expectedGraph = GraphController.asGraph(links);
+    CsrGraph actualGraph = CsrGraph.of(links);
+
+    Assert.assertEquals(GraphController.analyzeGraph(expectedGraph), GraphController.analyzeGraph(actualGraph));
+
+    Set<Long> expectedLcc = GraphController.getLCCVertexset(expectedGraph);
+    BitSet actualLcc = GraphController.getLCCVertexset(actualGraph);
+    Set<Long> actualLccIds = new HashSet<>();
+    actualLcc.stream().forEach(v -> actualLccIds.add(actualGraph.getNodes().idOf(v)));
+    Assert.assertEquals(expectedLcc, actualLccIds);
+
+    List<Link> expectedLinks = GraphController.datagenLargestConnectedComponent(expectedGraph);
+    Assert.assertEquals(expectedLinks, GraphController.datagenLargestConnectedComponent(actualGraph).toList());
+
+    Assert.assertEquals(GraphController.isSingleConnectedComponent(expectedGraph),
+        GraphController.isSingleConnectedComponent(actualGraph));
+  }
+}
@@ -117,6 +117,31 @@ public class GraphControllerTest {
     Assert.assertEquals(expectedWeight2, edge2.getWeight(), 0);
   }
 
+  /**
+   * Tests that the method asGraph streaming from file builds the same graph.
+   * @throws IOException when dataset cannot be read.
+   */
+  @Test
+  public void test_asGraph_stream() throws IOException {
+    final List<Link> links = CoreController.readLinks(DATASET);
+    final UndirectedGraph<Long, CustomWeightedEdge> expected = GraphController.asGraph(links);
+    final UndirectedGraph<Long, CustomWeightedEdge> actual = GraphController.asGraph(DATASET);
+
+    Assert.assertEquals(expected.vertexSet(), actual.vertexSet());
+    Assert.assertEquals(expected.edgeSet().size(), actual.edgeSet().size());
+
+    final List<CustomWeightedEdge> expectedEdges = GraphController.toEdgeList(expected);
+    final List<CustomWeightedEdge> actualEdges = GraphController.toEdgeList(actual);
+    for (int i = 0; i < expectedEdges.size(); i++) {
+      CustomWeightedEdge e1 = expectedEdges.get(i);
+      CustomWeightedEdge e2 = actualEdges.get(i);
+      Assert.assertEquals(expected.getEdgeSource(e1), actual.getEdgeSource(e2));
+      Assert.assertEquals(expected.getEdgeTarget(e1), actual.getEdgeTarget(e2));
+      Assert.assertEquals(e1.getWeight(), e2.getWeight(), 0);
+      Assert.assertEquals(e1.getTs(), e2.getTs());
+    }
+  }
+
   /**
    * Tests the method toEdgeList.
    * @throws IOException when the dataset cannot be read.
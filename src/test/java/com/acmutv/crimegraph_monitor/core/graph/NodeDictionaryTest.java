@@ -0,0 +1,115 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.graph;
+
+import com.acmutv.crimegraph_monitor.core.CoreController;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * JUnit test suite for {@link NodeDictionary}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see NodeDictionary
+ */
+public class NodeDictionaryTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that node ids are remapped to dense indices in order of first appearance.
+   */
+  @Test
+  public void test_index() throws Exception {
+    NodeDictionary dictionary = new NodeDictionary();
+    Map<Long,Integer> expected = new HashMap<>();
+    Random rnd = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      final long id = (i % 1000 == 0) ? 0 : rnd.nextLong() % 50000;
+      expected.putIfAbsent(id, expected.size());
+      Assert.assertEquals((int) expected.get(id), dictionary.index(id));
+    }
+    Assert.assertEquals(expected.size(), dictionary.size());
+    for (Map.Entry<Long,Integer> entry : expected.entrySet()) {
+      Assert.assertEquals((int) entry.getValue(), dictionary.indexOf(entry.getKey()));
+      Assert.assertEquals((long) entry.getKey(), dictionary.idOf(entry.getValue()));
+    }
+    Assert.assertEquals(-1, dictionary.indexOf(Long.MAX_VALUE));
+  }
+
+  /**
+   * Tests packing of undirected pairs.
+   */
+  @Test
+  public void test_pair() throws Exception {
+    final long key = NodeDictionary.pair(7, Integer.MAX_VALUE);
+    Assert.assertEquals(key, NodeDictionary.pair(Integer.MAX_VALUE, 7));
+    Assert.assertEquals(7, NodeDictionary.pairLow(key));
+    Assert.assertEquals(Integer.MAX_VALUE, NodeDictionary.pairHigh(key));
+    Assert.assertNotEquals(NodeDictionary.pair(0, 1), NodeDictionary.pair(0, 2));
+  }
+
+  /**
+   * Tests that the dictionary of a dataset is persisted next to it and reloaded.
+   */
+  @Test
+  public void test_sidecar() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "dataset.data");
+    LinkBuffer links = new LinkBuffer();
+    Random rnd = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      links.add(rnd.nextInt(500) * 1000L, rnd.nextInt(500) * 1000L, rnd.nextDouble(), LinkType.REAL);
+    }
+    Files.deleteIfExists(NodeDictionary.sidecar(dataset));
+    CoreController.writeDataset(dataset, links);
+
+    NodeDictionary built = NodeDictionary.of(dataset);
+    Assert.assertTrue(Files.isRegularFile(NodeDictionary.sidecar(dataset)));
+    NodeDictionary expected = NodeDictionary.of(links);
+    Assert.assertEquals(expected.size(), built.size());
+
+    NodeDictionary loaded = NodeDictionary.of(dataset);
+    Assert.assertEquals(expected.size(), loaded.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.idOf(i), built.idOf(i));
+      Assert.assertEquals(expected.idOf(i), loaded.idOf(i));
+    }
+  }
+}
@@ -35,10 +35,16 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see GraphControllerTest
+ * @see CsrGraphTest
+ * @see ConnectivityAnalyzerTest
+ * @see NodeDictionaryTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    GraphControllerTest.class
+    GraphControllerTest.class,
+    CsrGraphTest.class,
+    ConnectivityAnalyzerTest.class,
+    NodeDictionaryTest.class
 })
 public class TestAllGraph {
 
@@ -0,0 +1,107 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link LinkSerializer} and {@link LinkDeserializer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkSerializer
+ * @see LinkDeserializer
+ */
+public class LinkSerializerTest {
+
+  /**
+   * Tests that links round-trip in both formats, and binary links take 17 or 25 bytes.
+   */
+  @Test
+  public void test_roundtrip() {
+    List<Link> links = new ArrayList<>();
+    links.add(new Link(1, 2, 1.0));
+    links.add(new Link(Long.MAX_VALUE, 0, 10.5));
+    for (LinkType type : LinkType.values()) {
+      links.add(new Link(3, 4, 2.25, type));
+    }
+    for (LinkFormat format : LinkFormat.values()) {
+      LinkSerializer serializer = new LinkSerializer(format);
+      LinkDeserializer deserializer = new LinkDeserializer(format);
+      for (Link expected : links) {
+        byte[] data = serializer.serialize("test", expected);
+        Assert.assertEquals(LinkSerializer.sizeOf(expected, expected.toString(), format), data.length);
+        Assert.assertEquals(expected, deserializer.deserialize("test", data));
+      }
+    }
+    Assert.assertEquals(LinkSerializer.SIZE, new LinkSerializer().serialize("test", links.get(0)).length);
+    Assert.assertEquals(LinkSerializer.WEIGHTED_SIZE, new LinkSerializer().serialize("test", links.get(1)).length);
+  }
+
+  /**
+   * Tests that string links are compatible with {@link StringSerializer}.
+   */
+  @Test
+  public void test_string() {
+    final Link link = new Link(1, 2, 10.0, LinkType.TA);
+    Assert.assertArrayEquals(new StringSerializer().serialize("test", link.toString()),
+        new LinkSerializer(LinkFormat.STRING).serialize("test", link));
+  }
+
+  /**
+   * Tests that the format is configured by {@link LinkSerializer#FORMAT_CONFIG}.
+   */
+  @Test
+  public void test_configure() {
+    final Link link = new Link(1, 2, 10.0);
+    LinkSerializer serializer = new LinkSerializer();
+    serializer.configure(Collections.singletonMap(LinkSerializer.FORMAT_CONFIG, "string"), false);
+    LinkDeserializer deserializer = new LinkDeserializer();
+    deserializer.configure(Collections.singletonMap(LinkSerializer.FORMAT_CONFIG, "string"), false);
+    byte[] data = serializer.serialize("test", link);
+    Assert.assertEquals(link.toString().length(), data.length);
+    Assert.assertEquals(link, deserializer.deserialize("test", data));
+  }
+
+  /**
+   * Tests that malformed binary links are rejected.
+   */
+  @Test(expected = SerializationException.class)
+  public void test_malformed() {
+    byte[] data = new LinkSerializer().serialize("test", new Link(1, 2, 10.0));
+    data[0] = (byte) (data[0] & ~0x80);
+    new LinkDeserializer().deserialize("test", data);
+  }
+}
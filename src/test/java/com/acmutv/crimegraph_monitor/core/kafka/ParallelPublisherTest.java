@@ -0,0 +1,111 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import com.acmutv.crimegraph_monitor.core.link.LinkBuffer;
+import com.acmutv.crimegraph_monitor.core.link.LinkType;
+import com.acmutv.crimegraph_monitor.core.link.LinkWriter;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * JUnit test suite for {@link ParallelPublisher}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ParallelPublisher
+ */
+public class ParallelPublisherTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  private static final int NUM_LINKS = 20000;
+
+  /**
+   * Tests that all links are published, every key by a single producer and in dataset order.
+   * Weights are the line numbers of links, read in chunks of 1000 lines.
+   * @throws IOException when the dataset cannot be written or read.
+   */
+  @Test
+  public void test_publish() throws IOException {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "parallel.data");
+    final LinkBuffer data = new LinkBuffer(NUM_LINKS);
+    final SplittableRandom rnd = new SplittableRandom(1);
+    for (int i = 0; i < NUM_LINKS; i++) {
+      data.add(rnd.nextInt(50), rnd.nextInt(50), i, LinkType.REAL);
+    }
+    LinkWriter.write(dataset, data, 1);
+
+    for (KeyStrategy keys : KeyStrategy.values()) {
+      List<MockProducer<String,Link>> mocks = new ArrayList<>();
+      List<StringKafkaProducer> producers = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        MockProducer<String,Link> mock = new MockProducer<>(true, new StringSerializer(), new LinkSerializer());
+        mocks.add(mock);
+        producers.add(new StringKafkaProducer(mock, 100, LinkFormat.BINARY));
+      }
+
+      Assert.assertEquals(NUM_LINKS, ParallelPublisher.publish(dataset, "test", keys, producers, null, 1000));
+
+      final boolean[] published = new boolean[NUM_LINKS];
+      final Map<String,Integer> owners = new HashMap<>();
+      final Map<String,Double> last = new HashMap<>();
+      for (int t = 0; t < mocks.size(); t++) {
+        for (ProducerRecord<String,Link> record : mocks.get(t).history()) {
+          final Link link = record.value();
+          final String key = keys.key(link.getSrc(), link.getDst(), link.toString());
+          Assert.assertEquals((keys == KeyStrategy.LINK) ? null : key, record.key());
+          final Integer owner = owners.putIfAbsent(key, t);
+          Assert.assertTrue(owner == null || owner == t);
+          Assert.assertTrue(link.getWeight() > last.getOrDefault(key, -1.0));
+          last.put(key, link.getWeight());
+          Assert.assertFalse(published[link.getWeight().intValue()]);
+          published[link.getWeight().intValue()] = true;
+        }
+      }
+      for (boolean p : published) {
+        Assert.assertTrue(p);
+      }
+    }
+  }
+}
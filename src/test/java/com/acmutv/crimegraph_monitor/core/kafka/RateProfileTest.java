@@ -0,0 +1,131 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * JUnit test suite for {@link RateProfile} and {@link RatePacer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RateProfile
+ * @see RatePacer
+ */
+public class RateProfileTest {
+
+  /**
+   * Tests that profiles are read from YAML and follow their phases.
+   * @throws IOException when the profile cannot be read.
+   */
+  @Test
+  public void test_profile() throws IOException {
+    Path path = Paths.get(RateProfileTest.class.getResource("/core/kafka/profile.yml").getPath());
+    RateProfile profile = RateProfile.of(path);
+
+    Assert.assertEquals(10.0, profile.getBurst(), 0.0);
+    Assert.assertEquals(10.0, profile.burstAt(50000.0), 0.0);
+    Assert.assertEquals(100.0, RateProfile.constant(10000.0).burstAt(10000.0), 1e-9);
+    Assert.assertEquals(1.0, RateProfile.constant(10.0).burstAt(10.0), 0.0);
+    Assert.assertEquals(3, profile.getPhases().size());
+    Assert.assertEquals(1000.0, profile.rateAt(0.0), 1e-9);
+    Assert.assertEquals(1500.0, profile.rateAt(5.0), 1e-9);
+    Assert.assertEquals(2000.0, profile.rateAt(11.0), 1e-9);
+    Assert.assertEquals(3000.0, profile.rateAt(13.0), 1e-9);
+    Assert.assertEquals(5000.0, profile.rateAt(17.0), 1e-9);
+    Assert.assertEquals(5000.0, profile.rateAt(21.0), 1e-9);
+    Assert.assertEquals(50000.0, profile.rateAt(22.5), 1e-9);
+    Assert.assertEquals(5000.0, profile.rateAt(24.0), 1e-9);
+    Assert.assertEquals(5000.0, profile.rateAt(100.0), 1e-9);
+  }
+
+  /**
+   * Tests that profiles without phases, with non-positive rates or with fractional bursts are
+   * rejected.
+   */
+  @Test
+  public void test_validate() {
+    RateProfile empty = new RateProfile();
+    try {
+      empty.validate();
+      Assert.fail();
+    } catch (IOException exc) {
+      /* expected */
+    }
+    RateProfile zero = RateProfile.constant(0.0);
+    try {
+      zero.validate();
+      Assert.fail();
+    } catch (IOException exc) {
+      /* expected */
+    }
+    RateProfile fractional = RateProfile.constant(1.0);
+    fractional.setBurst(0.5);
+    try {
+      fractional.validate();
+      Assert.fail();
+    } catch (IOException exc) {
+      /* expected */
+    }
+  }
+
+  /**
+   * Tests that the pacer holds the target rate, catches up after a stall with at most a burst of
+   * back-to-back permits, and reports the permits left behind.
+   * The clock advances by 1 microsecond at every read, and by the requested time at every park.
+   */
+  @Test
+  public void test_pacer() {
+    final long[] now = {0};
+    RatePacer pacer = new RatePacer(RateProfile.constant(10000.0), () -> now[0] += 1000, nanos -> now[0] += nanos);
+    for (int i = 0; i < 3000; i++) {
+      pacer.acquire();
+    }
+    Assert.assertEquals(3000, pacer.getPermits());
+    Assert.assertEquals(0, pacer.getSlip());
+    Assert.assertEquals(0.3, now[0] / 1e9, 0.001);
+
+    /* stall for 1 second: 100 permits (10 ms) are granted back-to-back, the rest is slip */
+    now[0] += 1000000000L;
+    final long stalled = now[0];
+    for (int i = 0; i < 100; i++) {
+      pacer.acquire();
+    }
+    Assert.assertTrue(now[0] - stalled < 1000000L);
+    Assert.assertEquals(9900, pacer.getSlip(), 10);
+    for (int i = 0; i < 1000; i++) {
+      pacer.acquire();
+    }
+    Assert.assertEquals(0.1, (now[0] - stalled) / 1e9, 0.002);
+    Assert.assertEquals(9900, pacer.getSlip(), 10);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test suite for {@link ReplayScheduler}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ReplayScheduler
+ */
+public class ReplaySchedulerTest {
+
+  /**
+   * Tests that events are due after their inter-arrival times divided by the speedup.
+   * The clock advances by 1 microsecond at every read, and by the requested time at every park.
+   */
+  @Test
+  public void test_await() {
+    final long[] now = {0};
+    ReplayScheduler scheduler = new ReplayScheduler(10.0, () -> now[0] += 1000, nanos -> now[0] += nanos);
+    scheduler.await(5000);
+    final long start = now[0];
+    for (long timestamp = 5010; timestamp <= 8000; timestamp += 10) {
+      final long drift = scheduler.await(timestamp);
+      final long due = start + (timestamp - 5000) * 100000L;
+      Assert.assertEquals(due + drift, now[0]);
+      Assert.assertTrue(drift >= 0 && drift <= 1000);
+    }
+    Assert.assertEquals(301, scheduler.getEvents());
+    Assert.assertTrue(scheduler.getMaxDrift() <= 1000);
+
+    /* late events are sent immediately, with their drift */
+    now[0] += 1000000L;
+    final long late = now[0];
+    Assert.assertEquals(late + 1000 - (start + 3010 * 100000L), scheduler.await(8010));
+    Assert.assertEquals(late + 1000, now[0]);
+  }
+
+  /**
+   * Tests that non-positive speedups are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_speedup() {
+    new ReplayScheduler(0.0);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.kafka;
+
+import com.acmutv.crimegraph_monitor.core.link.Link;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit test suite for {@link StringKafkaProducer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see StringKafkaProducer
+ */
+public class StringKafkaProducerTest {
+
+  /**
+   * Tests that acknowledged and failed records are counted.
+   */
+  @Test
+  public void test_callbacks() {
+    MockProducer<String,Link> mock = new MockProducer<>(false, new StringSerializer(), new LinkSerializer(LinkFormat.STRING));
+    StringKafkaProducer producer = new StringKafkaProducer(mock, 10, LinkFormat.STRING);
+    final Link link = new Link(1, 2, 10.0);
+    for (int i = 0; i < 3; i++) {
+      producer.send("test", link);
+    }
+    mock.completeNext();
+    mock.errorNext(new RuntimeException("broker down"));
+    mock.completeNext();
+
+    Assert.assertEquals(3, producer.getSent());
+    Assert.assertEquals(3L * 2 * link.toString().length(), producer.getBytes());
+    Assert.assertEquals(2, producer.getAcked());
+    Assert.assertEquals(1, producer.getFailed());
+    Assert.assertEquals("broker down", producer.getError().getMessage());
+  }
+
+  /**
+   * Tests that binary links are sent without string keys when keyed by the whole link.
+   */
+  @Test
+  public void test_binary() {
+    MockProducer<String,Link> mock = new MockProducer<>(true, new StringSerializer(), new LinkSerializer(LinkFormat.BINARY));
+    StringKafkaProducer producer = new StringKafkaProducer(mock, 10, LinkFormat.BINARY);
+    final Link link = new Link(1, 2, 10.0);
+    producer.send("test", link, KeyStrategy.LINK);
+    producer.send("test", link, KeyStrategy.SRC);
+
+    Assert.assertNull(mock.history().get(0).key());
+    Assert.assertEquals("1", mock.history().get(1).key());
+    Assert.assertEquals(2L * LinkSerializer.sizeOf(link, null, LinkFormat.BINARY) + 1, producer.getBytes());
+  }
+
+  /**
+   * Tests that sends block while the maximum number of records is in flight.
+   * @throws InterruptedException when interrupted.
+   */
+  @Test
+  public void test_inflight() throws InterruptedException {
+    MockProducer<String,Link> mock = new MockProducer<>(false, new StringSerializer(), new LinkSerializer(LinkFormat.STRING));
+    StringKafkaProducer producer = new StringKafkaProducer(mock, 2, LinkFormat.STRING);
+    final Link link = new Link(1, 2, 10.0);
+    producer.send("test", link);
+    producer.send("test", link);
+    final CountDownLatch sent = new CountDownLatch(1);
+    Thread sender = new Thread(() -> {
+      producer.send("test", link);
+      sent.countDown();
+    });
+    sender.start();
+
+    Assert.assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+    mock.completeNext();
+    Assert.assertTrue(sent.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(3, producer.getSent());
+    sender.join();
+  }
+}
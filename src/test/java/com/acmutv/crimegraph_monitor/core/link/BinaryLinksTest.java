@@ -0,0 +1,140 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test suite for {@link BinaryLinks}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BinaryLinkReader
+ * @see BinaryLinkWriter
+ */
+public class BinaryLinksTest {
+
+  private static final Path DATASET = Paths.get(BinaryLinksTest.class.getResource("/core/graph/dataset.data").getPath());
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that converting text to binary and back preserves links, and that {@link Links} reads
+   * binary datasets transparently.
+   */
+  @Test
+  public void test_convert() throws Exception {
+    final Path binary = Paths.get(this.testdir.getRoot().toString(), "dataset.bin");
+    final Path text = Paths.get(this.testdir.getRoot().toString(), "dataset.data");
+    final List<Link> expected = Links.readLinks(DATASET);
+
+    Assert.assertEquals(expected.size(), Links.convert(DATASET, binary));
+    Assert.assertTrue(BinaryLinks.isBinary(binary));
+    Assert.assertEquals(expected.size(), Links.count(binary));
+    Assert.assertEquals(Files.size(binary),
+        20 + dictionarySize() + expected.size() * BinaryLinks.RECORD_SIZE);
+    Assert.assertEquals(expected, Links.readLinks(binary));
+    Assert.assertEquals(LinkBuffer.of(expected), Links.readBuffer(binary));
+    try (Stream<Link> stream = Links.stream(binary)) {
+      Assert.assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+
+    Assert.assertEquals(expected.size(), Links.convert(binary, text));
+    Assert.assertEquals(expected, Links.readLinks(text));
+  }
+
+  /**
+   * Tests random access and types of {@link BinaryLinkReader}.
+   */
+  @Test
+  public void test_reader() throws Exception {
+    final Path binary = Paths.get(this.testdir.getRoot().toString(), "types.bin");
+    final LinkBuffer expected = new LinkBuffer();
+    for (LinkType type : LinkType.values()) {
+      expected.add(type.ordinal(), Long.MAX_VALUE - type.ordinal(), type.ordinal() / 3.0, type);
+    }
+    BinaryLinkWriter.write(binary, expected);
+
+    final BinaryLinkReader reader = BinaryLinkReader.open(binary);
+    Assert.assertEquals(expected.size(), reader.getSize());
+    for (int i = expected.size() - 1; i >= 0; i--) {
+      Assert.assertEquals(expected.get(i), reader.get(i));
+    }
+  }
+
+  /**
+   * Tests that a record with an unknown type index is rejected with {@link IOException}.
+   */
+  @Test
+  public void test_corrupt_type() throws Exception {
+    final Path binary = Paths.get(this.testdir.getRoot().toString(), "corrupt.bin");
+    final LinkBuffer links = new LinkBuffer();
+    links.add(1, 2, 1.0, LinkType.REAL);
+    links.add(3, 4, 1.0, LinkType.REAL);
+    BinaryLinkWriter.write(binary, links);
+    final long offset = 20 + dictionarySize() + BinaryLinks.RECORD_SIZE;
+    try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xF0}), offset + 24);
+    }
+
+    final BinaryLinkReader reader = BinaryLinkReader.open(binary);
+    Assert.assertEquals(links.get(0), reader.get(0));
+    try {
+      reader.forEach(links::add);
+      Assert.fail("Corrupt record not detected");
+    } catch (IOException exc) {
+      Assert.assertTrue(exc.getMessage().contains(String.valueOf(offset)));
+    }
+  }
+
+  /**
+   * Returns the size of the type dictionary written by {@link BinaryLinkWriter}.
+   * @return the size, in bytes.
+   */
+  private static long dictionarySize() {
+    long size = 0;
+    for (LinkType type : LinkType.values()) {
+      size += 1 + type.getName().length();
+    }
+    return size;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test suite for {@link DatasetIndex}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DatasetIndex
+ */
+public class DatasetIndexTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests index statistics, sidecar persistence and invalidation.
+   */
+  @Test
+  public void test_index() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "dataset.data");
+    final int numLines = 5000;
+    final Set<Long> nodes = writeDataset(dataset, numLines);
+    final Path sidecar = DatasetIndex.sidecar(dataset);
+    Files.deleteIfExists(sidecar);
+
+    Assert.assertEquals(numLines, Links.count(dataset));
+    Assert.assertFalse(Files.exists(sidecar));
+
+    DatasetIndex index = DatasetIndex.of(dataset);
+    Assert.assertTrue(Files.isRegularFile(sidecar));
+    Assert.assertEquals(numLines, index.getNumLines());
+    Assert.assertEquals(numLines - 1, index.getNumLinks());
+    Assert.assertEquals(nodes.size(), index.getNumNodes());
+    Assert.assertEquals((long) nodes.stream().min(Long::compare).get(), index.getMinId());
+    Assert.assertEquals((long) nodes.stream().max(Long::compare).get(), index.getMaxId());
+    Assert.assertEquals(numLines, Links.count(dataset));
+
+    DatasetIndex loaded = DatasetIndex.load(sidecar);
+    Assert.assertTrue(loaded.isValidFor(dataset));
+    Assert.assertEquals(index.getNumNodes(), loaded.getNumNodes());
+    Assert.assertEquals(index.offsetOf(numLines - 1), loaded.offsetOf(numLines - 1));
+
+    Files.setLastModifiedTime(dataset, FileTime.fromMillis(index.getDatasetModified() - 10000));
+    Assert.assertFalse(loaded.isValidFor(dataset));
+    Assert.assertEquals(numLines, DatasetIndex.of(dataset).getNumLines());
+    Assert.assertTrue(DatasetIndex.load(sidecar).isValidFor(dataset));
+  }
+
+  /**
+   * Tests that concurrent builders of the same sidecar leave a valid sidecar and no temporary file.
+   */
+  @Test
+  public void test_index_concurrent() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "concurrent.data");
+    writeDataset(dataset, 5000);
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<DatasetIndex>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(pool.submit(() -> {
+          start.await();
+          return DatasetIndex.of(dataset);
+        }));
+      }
+      start.countDown();
+      for (Future<DatasetIndex> result : results) {
+        Assert.assertEquals(5000, result.get().getNumLines());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    Assert.assertEquals(5000, DatasetIndex.load(DatasetIndex.sidecar(dataset)).getNumLines());
+    try (Stream<Path> files = Files.list(this.testdir.getRoot().toPath())) {
+      Assert.assertEquals(2, files.count());
+    }
+  }
+
+  /**
+   * Tests that range reads yield the corresponding slice of the dataset.
+   */
+  @Test
+  public void test_forEach_range() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "range.data");
+    writeDataset(dataset, 5000);
+    final LinkBuffer all = new LinkBuffer();
+    Links.forEach(dataset, all::add);
+
+    final long[][] ranges = {{0, 5000}, {0, 0}, {1023, 1025}, {2048, 4999}, {4999, 5000}};
+    for (long[] range : ranges) {
+      final LinkBuffer actual = new LinkBuffer();
+      Links.forEach(dataset, range[0], range[1], actual::add);
+      // the malformed line is line 7
+      final int from = (int) (range[0] <= 7 ? range[0] : range[0] - 1);
+      final int to = (int) (range[1] <= 7 ? range[1] : range[1] - 1);
+      Assert.assertEquals(all.slice(from, to), actual);
+    }
+  }
+
+  /**
+   * Writes a dataset of {@code numLines} lines, where line 7 is malformed.
+   * @param dataset the dataset to write.
+   * @param numLines the number of lines.
+   * @return the set of nodes.
+   * @throws Exception when {@code dataset} cannot be written.
+   */
+  private static Set<Long> writeDataset(Path dataset, int numLines) throws Exception {
+    Set<Long> nodes = new HashSet<>();
+    Random rnd = new Random(0);
+    try (BufferedWriter writer = Files.newBufferedWriter(dataset)) {
+      for (int i = 0; i < numLines; i++) {
+        if (i == 7) {
+          writer.append("(7,malformed)\r\n");
+          continue;
+        }
+        Link link = new Link(10 + rnd.nextInt(2000), 10 + rnd.nextInt(2000), rnd.nextDouble());
+        nodes.add(link.getSrc());
+        nodes.add(link.getDst());
+        writer.append(link.toString()).append((i % 2 == 0) ? "\n" : "\r\n");
+      }
+    }
+    return nodes;
+  }
+}
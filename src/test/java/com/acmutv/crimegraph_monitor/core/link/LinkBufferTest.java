@@ -0,0 +1,101 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link LinkBuffer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkBuffer
+ */
+public class LinkBufferTest {
+
+  private static final Path DATASET = Paths.get(LinkBufferTest.class.getResource("/core/graph/dataset.data").getPath());
+
+  /**
+   * Tests that {@link Links#readBuffer(Path)} holds the links of {@link Links#readLinks(Path)}, in order.
+   */
+  @Test
+  public void test_readBuffer() throws Exception {
+    final List<Link> expected = Links.readLinks(DATASET);
+    final LinkBuffer actual = Links.readBuffer(DATASET);
+    Assert.assertEquals(expected.size(), actual.size());
+    Assert.assertEquals(expected, actual.toList());
+    Assert.assertEquals(LinkBuffer.of(expected), actual);
+  }
+
+  /**
+   * Tests growth, selection and slicing of {@link LinkBuffer}.
+   */
+  @Test
+  public void test_add_select_slice() throws Exception {
+    final List<Link> expected = new ArrayList<>();
+    final LinkBuffer actual = new LinkBuffer(1);
+    for (int i = 0; i < 100; i++) {
+      Link link = new Link(i, i + 1, i / 10.0, (i % 2 == 0) ? LinkType.REAL : LinkType.TA);
+      expected.add(link);
+      actual.add(link);
+    }
+    Assert.assertEquals(expected, actual.toList());
+
+    final BitSet odd = new BitSet();
+    for (int i = 1; i < 100; i += 2) odd.set(i);
+    final LinkBuffer selected = actual.select(odd, true);
+    final LinkBuffer unselected = actual.select(odd, false);
+    Assert.assertEquals(50, selected.size());
+    Assert.assertEquals(50, unselected.size());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(expected.get(2 * i + 1), selected.get(i));
+      Assert.assertEquals(expected.get(2 * i), unselected.get(i));
+    }
+
+    Assert.assertEquals(expected.subList(10, 20), actual.slice(10, 20).toList());
+  }
+
+  /**
+   * Tests that {@link LinkBuffer#sortBySrcDst()} is stable and agrees with sorting links.
+   */
+  @Test
+  public void test_sortBySrcDst() throws Exception {
+    final List<Link> expected = Links.readLinks(DATASET);
+    final LinkBuffer actual = LinkBuffer.of(expected);
+    expected.sort(Comparator.comparingLong(Link::getSrc).thenComparingLong(Link::getDst));
+    actual.sortBySrcDst();
+    Assert.assertEquals(expected, actual.toList());
+  }
+}
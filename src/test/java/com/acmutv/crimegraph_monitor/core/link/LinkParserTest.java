@@ -0,0 +1,143 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JUnit test suite for {@link LinkParser}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkParser
+ */
+public class LinkParserTest {
+
+  private static final Pattern PATTERN = Pattern.compile(Link.REGEXP);
+
+  /**
+   * Tests that {@link LinkParser} accepts and rejects the same strings of {@code Link.REGEXP}.
+   */
+  @Test
+  public void test_grammar() throws Exception {
+    List<String> strings = Arrays.asList(
+        "(1,2,3.0)", "(1,2,30)", "(1,2,3)", "(1,2,3.)", "(1,2,.3)", "(1,2,3..0)", "(1,2,3.0,)",
+        "(1,2,3.0,REAL)", "(1,2,3.0REAL)", "(1,2,3.0,NTA)", "(1,2,3.0,NT)", "(1,2,3.0,,TA)",
+        "(1,2,3.0,real)", "(01,002,007.50)", "(,2,3.0)", "(1,,3.0)", "(1,2,)", "(1,2,3.0",
+        "1,2,3.0)", "(1,2,3.0)\n", " (1,2,3.0)", "(1, 2,3.0)", "(-1,2,3.0)", "(1,2,-3.0)",
+        "(9223372036854775807,1,1.0)", "(9223372036854775808,1,1.0)",
+        "(1,2,123456789012345678901234567890.123456789)", "(1,2,0.00000000000000000000000001)",
+        "(1,2,3.0)(1,2,3.0)", "()", "(1,2,3.0,REAL,)", "", "(1,2,3e5)"
+    );
+    for (String string : strings) {
+      assertEquivalent(string);
+    }
+  }
+
+  /**
+   * Tests that {@link LinkParser} agrees with {@code Link.REGEXP} on random strings.
+   */
+  @Test
+  public void test_fuzz() throws Exception {
+    final String alphabet = "0123456789.,()RALNT";
+    Random rnd = new Random(1);
+    for (int i = 0; i < 100000; i++) {
+      StringBuilder sb = new StringBuilder("(");
+      int length = rnd.nextInt(16);
+      for (int j = 0; j < length; j++) {
+        sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+      }
+      sb.append(')');
+      assertEquivalent(sb.toString());
+    }
+    for (int i = 0; i < 100000; i++) {
+      Link link = new Link(rnd.nextInt(Integer.MAX_VALUE), rnd.nextLong() & Long.MAX_VALUE,
+          rnd.nextDouble() * Math.pow(10, rnd.nextInt(12)), LinkType.values()[rnd.nextInt(LinkType.values().length)]);
+      assertEquivalent(link.toString());
+    }
+  }
+
+  /**
+   * Tests parsing from byte buffers.
+   */
+  @Test
+  public void test_bytes() throws Exception {
+    byte[] buffer = "xx(1,2,3.5,TA)\n(4,5,6.25)".getBytes(StandardCharsets.US_ASCII);
+    LinkParser parser = new LinkParser();
+
+    Assert.assertTrue(parser.parse(buffer, 2, 14));
+    Assert.assertEquals(new Link(1, 2, 3.5, LinkType.TA), parser.toLink());
+
+    Assert.assertTrue(parser.parse(buffer, 15, buffer.length));
+    Assert.assertEquals(new Link(4, 5, 6.25), parser.toLink());
+
+    Assert.assertFalse(parser.parse(buffer, 0, 14));
+  }
+
+  /**
+   * Asserts that {@link LinkParser} accepts {@code string} iff the former regex-based parsing does,
+   * with the same result.
+   * @param string the string to check.
+   */
+  private static void assertEquivalent(String string) {
+    Link expected = parseRegex(string);
+    LinkParser parser = new LinkParser();
+    boolean parsed = parser.parse(string);
+    Assert.assertEquals(string, expected != null, parsed);
+    if (parsed) {
+      Assert.assertEquals(string, expected, parser.toLink());
+    }
+  }
+
+  /**
+   * Parses {@code string} as the former regex-based implementation of {@link Link#valueOf(String)}.
+   * @param string the string to parse.
+   * @return the parsed link; null, if {@code string} cannot be parsed.
+   */
+  private static Link parseRegex(String string) {
+    Matcher matcher = PATTERN.matcher(string);
+    if (!matcher.matches()) return null;
+    try {
+      long src = Long.valueOf(matcher.group(1));
+      long dst = Long.valueOf(matcher.group(2));
+      double weight = Double.valueOf(matcher.group(3));
+      String strType = matcher.group(4);
+      LinkType type = (strType != null) ? LinkType.valueOf(strType) : LinkType.REAL;
+      return new Link(src, dst, weight, type);
+    } catch (IllegalArgumentException exc) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * JUnit test suite for {@link LinkWriter}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see LinkWriter
+ */
+public class LinkWriterTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that weights are formatted as {@code %f}, on edge cases and random values of any magnitude.
+   */
+  @Test
+  public void test_formatWeight() throws Exception {
+    final double[] edges = {
+        0.0, -0.0, 1.0, 0.5, 0.0000005, 0.0000015, 0.0000025, 1.0000005, 2.5e-7, 0.1, 0.15, 0.125,
+        9999999.9999995, 9999999.999999, 1e7, 1e7 + 0.5, 123456.1234565, Double.MIN_VALUE,
+        Double.MAX_VALUE, -1.5, -0.0000004, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+    for (double value : edges) {
+      assertWeight(value);
+    }
+    Random rnd = new Random(0);
+    for (int i = 0; i < 200000; i++) {
+      final double scale = Math.pow(10, rnd.nextInt(16) - 8);
+      assertWeight(rnd.nextDouble() * scale);
+      assertWeight(Math.round(rnd.nextDouble() * 1e7) / 1e6 + 5e-7);
+    }
+  }
+
+  /**
+   * Tests that ids are formatted as {@code %d}.
+   */
+  @Test
+  public void test_formatLong() throws Exception {
+    final long[] values = {0, 1, 9, 10, 99, 100, 123456789, -1, -10, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (long value : values) {
+      byte[] buf = new byte[LinkWriter.MAX_LINE_SIZE];
+      int length = LinkWriter.formatLong(buf, 0, value);
+      Assert.assertEquals(String.format(Locale.ROOT, "%d", value),
+          new String(buf, 0, length, StandardCharsets.US_ASCII));
+    }
+  }
+
+  /**
+   * Tests that sequential and parallel writing are byte-compatible with {@link Link#toString()}.
+   */
+  @Test
+  public void test_write() throws Exception {
+    final LinkBuffer links = new LinkBuffer();
+    final StringBuilder expected = new StringBuilder();
+    Random rnd = new Random(0);
+    for (int i = 0; i < 150000; i++) {
+      LinkType type = LinkType.values()[rnd.nextInt(LinkType.values().length)];
+      Link link = new Link(rnd.nextInt(100000), rnd.nextInt(100000), rnd.nextDouble() * 100, type);
+      links.add(link);
+      expected.append(link.toString()).append("\n");
+    }
+
+    final Path parallel = Paths.get(this.testdir.getRoot().toString(), "parallel.data");
+    Files.write(parallel, new byte[1 << 23]);
+    LinkWriter.write(parallel, links, 4);
+    Assert.assertEquals(expected.toString(), new String(Files.readAllBytes(parallel), StandardCharsets.US_ASCII));
+
+    final Path sequential = Paths.get(this.testdir.getRoot().toString(), "sequential.data");
+    LinkWriter.write(sequential, links, 1);
+    Assert.assertArrayEquals(Files.readAllBytes(parallel), Files.readAllBytes(sequential));
+  }
+
+  private static void assertWeight(double value) {
+    byte[] buf = new byte[LinkWriter.MAX_LINE_SIZE];
+    int length = LinkWriter.formatWeight(buf, 0, value);
+    Assert.assertEquals(String.valueOf(value), String.format(Locale.ROOT, "%f", value),
+        new String(buf, 0, length, StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JUnit test suite for {@link Links}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see Links
+ */
+public class LinksTest {
+
+  private static final Path DATASET = Paths.get(LinksTest.class.getResource("/core/graph/dataset.data").getPath());
+
+  /**
+   * Tests that streaming and callback reading yield the links of {@link Links#readLinks(Path)}, in order.
+   */
+  @Test
+  public void test_forEach_stream() throws Exception {
+    final List<Link> expected = Links.readLinks(DATASET);
+    Assert.assertFalse(expected.isEmpty());
+
+    final List<Link> actualForEach = new ArrayList<>();
+    final long consumed = Links.forEach(DATASET,
+        (src, dst, weight, type) -> actualForEach.add(new Link(src, dst, weight, type)));
+    Assert.assertEquals(expected.size(), consumed);
+    Assert.assertEquals(expected, actualForEach);
+
+    final List<Link> actualStream;
+    try (Stream<Link> stream = Links.stream(DATASET)) {
+      actualStream = stream.collect(Collectors.toList());
+    }
+    Assert.assertEquals(expected, actualStream);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.crimegraph_monitor.core.link;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * JUnit test suite for {@link ParallelLinkReader}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ParallelLinkReader
+ */
+public class ParallelLinkReaderTest {
+
+  @Rule
+  public TemporaryFolder testdir = new TemporaryFolder();
+
+  /**
+   * Tests that parallel reading yields the links of sequential reading, in order, for a dataset
+   * with mixed line terminators, malformed lines and no final newline, both without an index
+   * (that is not built) and with it.
+   */
+  @Test
+  public void test_read() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "mixed.data");
+    Random rnd = new Random(0);
+    try (BufferedWriter writer = Files.newBufferedWriter(dataset)) {
+      for (int i = 0; i < 150000; i++) {
+        if (i % 10007 == 0) {
+          writer.append("(malformed)\n");
+        }
+        writer.append(new Link(rnd.nextInt(1000), rnd.nextInt(1000), rnd.nextDouble() * 100).toString());
+        if (i < 149999) {
+          writer.append((i % 3 == 0) ? "\r\n" : "\n");
+        }
+      }
+    }
+
+    final LinkBuffer expected = new LinkBuffer();
+    Links.forEach(dataset, expected::add);
+    Assert.assertEquals(150000, expected.size());
+
+    for (int parallelism : new int[]{1, 2, 3, 8}) {
+      Assert.assertEquals(expected, ParallelLinkReader.read(dataset, parallelism));
+    }
+    Assert.assertFalse(Files.exists(DatasetIndex.sidecar(dataset)));
+
+    DatasetIndex.of(dataset);
+    for (int parallelism : new int[]{1, 2, 3, 8}) {
+      Assert.assertEquals(expected, ParallelLinkReader.read(dataset, parallelism));
+    }
+    Assert.assertEquals(expected, Links.readBuffer(dataset));
+  }
+
+  /**
+   * Tests reading an empty dataset.
+   */
+  @Test
+  public void test_read_empty() throws Exception {
+    final Path dataset = Paths.get(this.testdir.getRoot().toString(), "empty.data");
+    Files.write(dataset, new byte[0]);
+    Assert.assertTrue(ParallelLinkReader.read(dataset, 4).isEmpty());
+  }
+}
@@ -35,10 +35,24 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see LinkTest
+ * @see LinkParserTest
+ * @see LinksTest
+ * @see LinkBufferTest
+ * @see BinaryLinksTest
+ * @see ParallelLinkReaderTest
+ * @see DatasetIndexTest
+ * @see LinkWriterTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    LinkTest.class
+    LinkTest.class,
+    LinkParserTest.class,
+    LinksTest.class,
+    LinkBufferTest.class,
+    BinaryLinksTest.class,
+    ParallelLinkReaderTest.class,
+    DatasetIndexTest.class,
+    LinkWriterTest.class
 })
 public class TestAllTuple {
 }